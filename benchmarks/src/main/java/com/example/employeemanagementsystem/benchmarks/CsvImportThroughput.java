@@ -0,0 +1,50 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeCsvImporter;
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures the rows per second and peak heap of a bulk CSV import.
+ * <p>
+ * Run with {@code java -Xmx4g -cp target/benchmarks.jar com.example.employeemanagementsystem.benchmarks.CsvImportThroughput [employees]}.
+ * The file is generated with {@link EmployeeDataGenerator} and imported three times into a fresh database,
+ * so the last run shows the warmed-up rate.
+ */
+public final class CsvImportThroughput {
+
+    private CsvImportThroughput() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("employees", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writer.write("id,name,department,salary,performanceRating,yearsOfExperience,active");
+                writer.newLine();
+                for (int id = 0; id < employees; id++) {
+                    Employee<Integer> employee = EmployeeDataGenerator.employee(id);
+                    writer.write(id + "," + employee.getName() + "," + employee.getDepartment() + ","
+                            + employee.getSalary() + "," + employee.getPerformanceRating() + ","
+                            + employee.getYearsOfExperience() + "," + employee.isActive());
+                    writer.newLine();
+                }
+            }
+            System.out.printf("%,d employees, %,d MB%n", employees, Files.size(file) >> 20);
+            EmployeeCsvImporter<Integer> importer = new EmployeeCsvImporter<>(Integer::valueOf);
+            for (int run = 1; run <= 3; run++) {
+                EmployeeCsvImporter.ImportReport report = importer.importFile(file, new EmployeeDatabase<>());
+                System.out.printf("run %d: %,12.0f rows/s %,8d ms %,8d MB peak heap%n", run,
+                        report.rowsPerSecond(), report.elapsedNanos() / 1_000_000, report.peakHeapBytes() >> 20);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
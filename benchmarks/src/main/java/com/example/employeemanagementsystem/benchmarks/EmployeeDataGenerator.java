@@ -0,0 +1,52 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+/**
+ * Deterministic synthetic employees for benchmarks. Every field is derived from the employee ID alone,
+ * so the same ID always produces the same employee on any thread and in any run.
+ */
+public final class EmployeeDataGenerator {
+    static final String[] DEPARTMENTS = {"IT", "HR", "Finance", "Marketing", "Sales", "Operations", "Legal", "Support"};
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Bob", "Alice", "Charlie", "Eva", "Frank", "Grace",
+            "Henry", "Irene", "Jack", "Karen", "Liam", "Maria", "Noah", "Olivia"};
+    private static final String[] LAST_NAMES = {"Doe", "Smith", "Johnson", "Brown", "Davis", "Wilson", "Miller",
+            "Moore", "Taylor", "Anderson", "Thomas", "Jackson", "White", "Harris", "Martin", "Garcia"};
+
+    private EmployeeDataGenerator() {
+    }
+
+    /**
+     * Creates the employee with the given ID.
+     *
+     * @param id The employee ID
+     * @return The synthetic employee
+     */
+    public static Employee<Integer> employee(int id) {
+        long bits = mix(id);
+        String name = FIRST_NAMES[(int) (bits & 15)] + " " + LAST_NAMES[(int) ((bits >>> 4) & 15)] + " " + id;
+        String department = DEPARTMENTS[(int) ((bits >>> 8) & 7)];
+        double salary = 30000 + ((bits >>> 11) & 0xFFFF) * 2; // 30,000 to ~161,000
+        double rating = ((bits >>> 27) & 0x3F) % 51 / 10.0;  // 0.0 to 5.0 in steps of 0.1
+        int experience = (int) ((bits >>> 33) & 31) % 31;
+        boolean active = ((bits >>> 38) & 7) != 0;            // about 7 in 8 active
+        return new Employee<>(id, name, department, salary, rating, experience, active);
+    }
+
+    /**
+     * Gets a department name that is present in generated data.
+     *
+     * @param index Any integer
+     * @return A department name
+     */
+    public static String department(int index) {
+        return DEPARTMENTS[Math.floorMod(index, DEPARTMENTS.length)];
+    }
+
+    // SplitMix64 finalizer: spreads consecutive IDs over unrelated bit patterns
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.DepartmentStats;
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeSortKey;
+import com.example.employeemanagementsystem.database.EmployeeView;
+import com.example.employeemanagementsystem.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression suite for every public {@link EmployeeDatabase} operation at sizes from 10k to 10M employees.
+ * The data comes from {@link EmployeeDataGenerator}, so every run measures the same database.
+ * <p>
+ * The 10M size needs about 8 GB of memory; on smaller machines run the other sizes alone with
+ * {@code -p employees=10000,100000,1000000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx10g"})
+@State(Scope.Benchmark)
+public class EmployeeDatabaseBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int employees;
+
+    private EmployeeDatabase<Integer> database;
+    private int[] lookups;
+    private int cursor;
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new EmployeeDatabase<>(false, employees);
+        for (int id = 0; id < employees; id++) {
+            database.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+        lookups = new Random(42).ints(1 << 16, 0, employees).toArray();
+        nextId = employees;
+    }
+
+    /**
+     * Adds a new employee and removes it again, so the database keeps its size across invocations.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean addEmployee() {
+        int id = nextId++;
+        boolean added = database.addEmployee(EmployeeDataGenerator.employee(id));
+        database.removeEmployee(id);
+        return added;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Employee<Integer> getEmployee() {
+        return database.getEmployee(lookups[cursor++ & (lookups.length - 1)]);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> searchByName() {
+        return database.searchByName("alice smith 1"); // About 0.04% of employees
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> searchByDepartment() {
+        return database.searchByDepartment("finance"); // 1/8 of employees
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> filterBySalaryRange() {
+        return database.filterBySalaryRange(100000, 101000); // About 1% of employees
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> sortBySalary() {
+        return database.sortBySalary();
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> getSortedPageBySalary() {
+        // A page in the middle of the table, as the GUI asks for while scrolling
+        return database.getSortedPage(EmployeeSortKey.SALARY, true, database.getEmployeeCount() / 2, 256);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> getSortedPageByName() {
+        return database.getSortedPage(EmployeeSortKey.NAME, false, database.getEmployeeCount() / 2, 256);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> getTopEmployeesByExperience() {
+        return database.getTopEmployees(EmployeeSortKey.YEARS_OF_EXPERIENCE, true, 10);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> getTopPaidEmployees() {
+        return database.getTopPaidEmployees(10);
+    }
+
+    @Benchmark
+    public int giveSalaryRaise() {
+        // 0% keeps the data stable across invocations while still visiting every qualifying employee
+        return database.giveSalaryRaise(4.5, 0);
+    }
+
+    @Benchmark
+    public double getAverageSalaryByDepartment() {
+        return database.getAverageSalaryByDepartment("Finance");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public DepartmentStats getDepartmentStats() {
+        return database.getDepartmentStats("Finance");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int openView() {
+        try (EmployeeView<Integer> view = database.openView()) {
+            return view.getEmployeeCount();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.ColumnarEmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeStore;
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the retained heap per employee of each storage engine.
+ * <p>
+ * Run with {@code java -Xmx4g -cp target/benchmarks.jar com.example.employeemanagementsystem.benchmarks.HeapFootprint [employees]}.
+ * The numbers include the employees' names, which every engine has to keep.
+ * <p>
+ * The last line measures the employee objects alone, built the way the CSV importer and the write-ahead log
+ * build them: every row parses its own copy of the department name.
+ */
+public final class HeapFootprint {
+    private static Object retained;
+
+    private HeapFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        report("EmployeeDatabase", employees, size -> new EmployeeDatabase<>(false, size));
+        report("EmployeeDatabase (concurrent)", employees, size -> new EmployeeDatabase<>(true, size));
+        report("ColumnarEmployeeDatabase", employees, ColumnarEmployeeDatabase::new);
+        reportParsedRows(employees);
+    }
+
+    static void reportParsedRows(int employees) {
+        long before = usedHeap();
+        Employee<?>[] rows = new Employee<?>[employees];
+        for (int id = 0; id < employees; id++) {
+            Employee<Integer> employee = EmployeeDataGenerator.employee(id);
+            rows[id] = new Employee<>(employee.getEmployeeId(), employee.getName(),
+                    String.valueOf(employee.getDepartment().toCharArray()), employee.getSalary(),
+                    employee.getPerformanceRating(), employee.getYearsOfExperience(), employee.isActive());
+        }
+        retained = rows;
+        long after = usedHeap();
+        System.out.printf("%-32s %,12d employees %,10.1f bytes/employee%n",
+                "Parsed employee rows", employees, (after - before) / (double) employees);
+        retained = null;
+    }
+
+    static void report(String label, int employees, IntFunction<EmployeeStore<Integer>> factory) {
+        long before = usedHeap();
+        EmployeeStore<Integer> store = factory.apply(employees);
+        for (int id = 0; id < employees; id++) {
+            store.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+        retained = store;
+        long after = usedHeap();
+        System.out.printf("%-32s %,12d employees %,10.1f bytes/employee%n",
+                label, employees, (after - before) / (double) employees);
+        retained = null;
+    }
+
+    static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
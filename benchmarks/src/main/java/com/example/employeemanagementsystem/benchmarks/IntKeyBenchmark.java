@@ -0,0 +1,73 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.IntEmployeeDatabase;
+import com.example.employeemanagementsystem.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Lookup latency and insert cost of the generic {@code HashMap}-backed {@link EmployeeDatabase} against the
+ * primitive-keyed {@link IntEmployeeDatabase}. Run with {@code -prof gc} to see the allocation per operation.
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class IntKeyBenchmark {
+
+    @Param({"generic", "int"})
+    public String map;
+
+    @Param({"100000", "1000000"})
+    public int employees;
+
+    private EmployeeDatabase<Integer> database;
+    private IntEmployeeDatabase intDatabase;
+    private List<Employee<Integer>> rows;
+    private int[] lookups;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = IntStream.range(0, employees).mapToObj(EmployeeDataGenerator::employee).toList();
+        database = newDatabase();
+        rows.forEach(database::addEmployee);
+        intDatabase = database instanceof IntEmployeeDatabase specialized ? specialized : null;
+        // Random order, so lookups miss the cache as they would for user-driven access
+        lookups = new Random(42).ints(1 << 20, 0, employees).toArray();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Employee<Integer> getEmployee() {
+        int id = lookups[cursor++ & (lookups.length - 1)];
+        return intDatabase != null ? intDatabase.getEmployee(id) : database.getEmployee(id);
+    }
+
+    /**
+     * Inserts every employee into an empty, presized database. The IDs are already boxed inside the
+     * employees, so the difference is the allocation of the map itself.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public EmployeeDatabase<Integer> addEmployees() {
+        EmployeeDatabase<Integer> fresh = newDatabase();
+        for (Employee<Integer> employee : rows) {
+            fresh.addEmployee(employee);
+        }
+        return fresh;
+    }
+
+    private EmployeeDatabase<Integer> newDatabase() {
+        return "int".equals(map) ? new IntEmployeeDatabase(employees) : new EmployeeDatabase<>(false, employees);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what {@link EmployeeDatabase#enableMetrics} adds to cheap operations, where it shows the most.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private EmployeeDatabase<Integer> database;
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new EmployeeDatabase<>(false, 100_000);
+        for (int id = 0; id < 100_000; id++) {
+            database.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+        if (metrics) {
+            database.enableMetrics();
+        }
+    }
+
+    @Benchmark
+    public Employee<Integer> getEmployee() {
+        nextId = (nextId + 7919) % 100_000;
+        return database.getEmployee(nextId);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> getTopPaidEmployees() {
+        return database.getTopPaidEmployees(10);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.IntEmployeeDatabase;
+import com.example.employeemanagementsystem.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and parallel scans at growing sizes, to find where parallel execution starts to pay off.
+ * Use the smallest size at which {@code parallel} wins as the argument of
+ * {@link EmployeeDatabase#setParallelThreshold}. The crossover depends on the core count, so run this on the
+ * machine that will serve the queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ParallelScanBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int employees;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    @Param({"HashMap", "IntEmployeeMap"})
+    public String storage;
+
+    private EmployeeDatabase<Integer> database;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = storage.equals("HashMap")
+                ? new EmployeeDatabase<>(false, employees)
+                : new IntEmployeeDatabase(employees);
+        for (int id = 0; id < employees; id++) {
+            database.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+        database.setParallelThreshold(mode.equals("parallel") ? 1 : Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> filterByMinimumRating() {
+        return database.filterByMinimumRating(4.5);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> filterBySalaryRange() {
+        return database.filterBySalaryRange(60000, 120000); // About half of employees
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> filterEmployees() {
+        return database.filterEmployees(employee -> employee.isActive() && employee.getYearsOfExperience() > 10);
+    }
+}
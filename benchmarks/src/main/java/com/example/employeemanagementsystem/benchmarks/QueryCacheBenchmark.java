@@ -0,0 +1,79 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeQuery;
+import com.example.employeemanagementsystem.database.EmployeeSortKey;
+import com.example.employeemanagementsystem.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeats the searches users run most, with and without {@link EmployeeDatabase#enableQueryCache}.
+ * <p>
+ * {@code ...AfterUnrelatedWrite}: the same search after renaming an HR employee, which leaves the result cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class QueryCacheBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private EmployeeDatabase<Integer> database;
+    private int hrEmployee;
+    private int renames;
+
+    private final EmployeeQuery activeItByExperience = new EmployeeQuery()
+            .department("IT").active(true).sortBy(EmployeeSortKey.YEARS_OF_EXPERIENCE, true);
+    private final EmployeeQuery nameByRating = new EmployeeQuery()
+            .nameContains("an").minRating(4.5).sortBy(EmployeeSortKey.NAME, false).limit(100);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new EmployeeDatabase<>(false, 100_000);
+        for (int id = 0; id < 100_000; id++) {
+            database.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+        hrEmployee = database.searchByDepartment("HR").getFirst().getEmployeeId();
+        if (cache) {
+            database.enableQueryCache(256, null);
+        }
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> searchByDepartment() {
+        return database.searchByDepartment("IT");
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> filterByMinimumRating() {
+        return database.filterByMinimumRating(4.5);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> getTopPaidEmployees() {
+        return database.getTopPaidEmployees(10);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> queryInDepartment() {
+        return database.query(activeItByExperience);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> queryByShortName() {
+        return database.query(nameByRating);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> queryInDepartmentAfterUnrelatedWrite() {
+        database.updateEmployeeDetails(hrEmployee, "name", "Renamed " + renames++);
+        return database.query(activeItByExperience);
+    }
+}
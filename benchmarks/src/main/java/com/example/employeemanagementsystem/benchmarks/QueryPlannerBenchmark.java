@@ -0,0 +1,76 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeQuery;
+import com.example.employeemanagementsystem.database.EmployeeSortKey;
+import com.example.employeemanagementsystem.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Compares {@link EmployeeDatabase#query} with the same conditions written as one chained predicate,
+ * which {@link EmployeeDatabase#filterEmployees} can only answer with a full scan.
+ * <p>
+ * {@code combined}: Finance employees rated 4.0 or better earning 60,000 to 70,000.
+ * {@code topTen}: the ten best-paid active IT employees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class QueryPlannerBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int employees;
+
+    private EmployeeDatabase<Integer> database;
+
+    private final EmployeeQuery combinedQuery = new EmployeeQuery()
+            .department("Finance").minRating(4.0).salaryBetween(60000, 70000);
+    private final Predicate<Employee<Integer>> combinedPredicate = employee ->
+            employee.getDepartment().equalsIgnoreCase("Finance") && employee.getPerformanceRating() >= 4.0
+                    && employee.getSalary() >= 60000 && employee.getSalary() <= 70000;
+
+    private final EmployeeQuery topTenQuery = new EmployeeQuery()
+            .department("IT").active(true).sortBy(EmployeeSortKey.SALARY, true).limit(10);
+    private final Predicate<Employee<Integer>> topTenPredicate = employee ->
+            employee.getDepartment().equalsIgnoreCase("IT") && employee.isActive();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new EmployeeDatabase<>(false, employees);
+        for (int id = 0; id < employees; id++) {
+            database.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> combinedPlanned() {
+        return database.query(combinedQuery);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> combinedPredicate() {
+        return database.filterEmployees(combinedPredicate);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> topTenPlanned() {
+        return database.query(topTenQuery);
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> topTenPredicate() {
+        return database.streamFiltered(topTenPredicate)
+                .sorted(Comparator.comparingDouble(Employee<Integer>::getSalary).reversed())
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.server.EmployeeServer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives an {@link EmployeeServer} on localhost with many concurrent keep-alive connections, and reports the
+ * throughput and the p50, p99 and p99.9 latency of its responses.
+ * <p>
+ * Run with {@code java -cp target/benchmarks.jar com.example.employeemanagementsystem.benchmarks.ServerLoadTest
+ * [employees] [connections] [seconds] [pipeline depth]}. The server runs in the same JVM with
+ * {@link EmployeeDataGenerator} employees and a query cache, as {@link EmployeeServer#main} sets it up. Each
+ * connection runs on a virtual thread and sends batches of pipelined requests: 60% reads by ID, 10% top-10
+ * salaries of a department, 10% the first 20 employees rated 4.5 or better, 5% department statistics, 10% salary
+ * updates and 5% inserts. The latency of a request runs from the write of its batch to the end of its response,
+ * so deeper pipelines trade latency for throughput. The first five seconds warm up and are not counted.
+ */
+public final class ServerLoadTest {
+    private static final int WARMUP_SECONDS = 5;
+
+    private ServerLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int pipeline = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>(true, employees);
+        for (int id = 0; id < employees; id++) {
+            database.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+        database.enableQueryCache(1024, null);
+        AtomicInteger nextId = new AtomicInteger(employees);
+
+        try (EmployeeServer server = new EmployeeServer(database, 0)) {
+            server.start();
+            System.out.printf("%,d employees, %,d connections, pipeline depth %d%n", employees, connections, pipeline);
+            run(server.getPort(), connections, pipeline, WARMUP_SECONDS, employees, nextId);
+            Result result = run(server.getPort(), connections, pipeline, seconds, employees, nextId);
+            System.out.printf("%,d requests in %d s: %,.0f requests/s, p50 %s, p99 %s, p99.9 %s, max %s, %,d errors%n",
+                    result.latencies.length, seconds, result.latencies.length / (double) seconds,
+                    formatNanos(result.percentile(50)), formatNanos(result.percentile(99)),
+                    formatNanos(result.percentile(99.9)), formatNanos(result.percentile(100)), result.errors);
+        }
+    }
+
+    private record Result(long[] latencies, long errors) {
+
+        long percentile(double pct) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(pct / 100 * latencies.length);
+            return latencies[Math.max(rank - 1, 0)];
+        }
+    }
+
+    private static Result run(int port, int connections, int pipeline, int seconds, int employees,
+                              AtomicInteger nextId) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Client>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int connection = 0; connection < connections; connection++) {
+                clients.add(executor.submit(() -> {
+                    Client client = new Client(port, employees, nextId);
+                    client.run(pipeline, deadline);
+                    return client;
+                }));
+            }
+        }
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<Client> future : clients) {
+            Client client = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + client.count);
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            errors += client.errors;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors);
+    }
+
+    /**
+     * One keep-alive connection, sending requests until the deadline.
+     */
+    private static final class Client {
+        private final int port;
+        private final int employees;
+        private final AtomicInteger nextId;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Client(int port, int employees, AtomicInteger nextId) {
+            this.port = port;
+            this.employees = employees;
+            this.nextId = nextId;
+        }
+
+        void run(int pipeline, long deadline) throws IOException {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                socket.setTcpNoDelay(true);
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    for (int request = 0; request < pipeline; request++) {
+                        out.write(nextRequest().getBytes(StandardCharsets.UTF_8));
+                    }
+                    out.flush();
+                    for (int response = 0; response < pipeline; response++) {
+                        if (!readResponse(in)) {
+                            errors++;
+                        }
+                        record(System.nanoTime() - start);
+                    }
+                }
+            }
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        private String nextRequest() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int choice = random.nextInt(100);
+            String department = EmployeeDataGenerator.department(random.nextInt());
+            if (choice < 60) {
+                return get("/employees/" + random.nextInt(employees));
+            } else if (choice < 70) {
+                return get("/employees?department=" + department + "&sort=salary&order=desc&limit=10");
+            } else if (choice < 80) {
+                return get("/employees?minRating=4.5&limit=20");
+            } else if (choice < 85) {
+                return get("/departments/" + department + "/stats");
+            } else if (choice < 95) {
+                return send("PUT", "/employees/" + random.nextInt(employees),
+                        "{\"salary\":" + (40000 + random.nextInt(80000)) + "}");
+            }
+            return send("POST", "/employees", "{\"id\":" + nextId.getAndIncrement()
+                    + ",\"name\":\"Load Test\",\"department\":\"" + department
+                    + "\",\"salary\":50000,\"performanceRating\":3.5,\"yearsOfExperience\":1}");
+        }
+
+        private static String get(String path) {
+            return "GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        }
+
+        private static String send(String method, String path, String json) {
+            return method + " " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                    + "Content-Length: " + json.length() + "\r\n\r\n" + json;
+        }
+
+        /**
+         * Reads one response and skips its body.
+         *
+         * @return true if the status was 2xx
+         */
+        private static boolean readResponse(InputStream in) throws IOException {
+            boolean ok = readLine(in).startsWith("HTTP/1.1 2");
+            long length = 0;
+            boolean chunked = false;
+            for (String header = readLine(in); !header.isEmpty(); header = readLine(in)) {
+                String lower = header.toLowerCase();
+                if (lower.startsWith("content-length:")) {
+                    length = Long.parseLong(lower.substring("content-length:".length()).trim());
+                } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                    chunked = true;
+                }
+            }
+            if (!chunked) {
+                in.skipNBytes(length);
+                return ok;
+            }
+            for (long size = Long.parseLong(readLine(in), 16); size > 0; size = Long.parseLong(readLine(in), 16)) {
+                in.skipNBytes(size);
+                readLine(in);
+            }
+            readLine(in);
+            return ok;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) {
+                    throw new IOException("Connection closed by the server");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+    }
+
+    private static String formatNanos(long nanos) {
+        return nanos < 1_000_000 ? String.format("%.0f us", nanos / 1e3) : String.format("%.1f ms", nanos / 1e6);
+    }
+}
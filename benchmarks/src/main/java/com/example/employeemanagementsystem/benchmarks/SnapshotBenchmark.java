@@ -0,0 +1,53 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.IdCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start cost of restoring a memory-mapped snapshot compared with rebuilding the same data
+ * through {@code addEmployee}. Run with {@code -prof gc} to compare allocation as well.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int employees;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("employees", ".snapshot");
+        rebuildWithAddEmployee().writeSnapshot(file, IdCodec.INTEGER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public EmployeeDatabase<Integer> restoreSnapshot() throws IOException {
+        return EmployeeDatabase.restoreSnapshot(file, IdCodec.INTEGER, false);
+    }
+
+    @Benchmark
+    public EmployeeDatabase<Integer> rebuildWithAddEmployee() {
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>();
+        for (int id = 0; id < employees; id++) {
+            database.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+        return database;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.ColumnarEmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeStore;
+import com.example.employeemanagementsystem.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan throughput of the object-per-employee {@link EmployeeDatabase} against the primitive columns of
+ * {@link ColumnarEmployeeDatabase}. See {@link HeapFootprint} for bytes per employee.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class StorageEngineBenchmark {
+
+    @Param({"hashmap", "columnar"})
+    public String engine;
+
+    @Param({"100000", "1000000"})
+    public int employees;
+
+    private EmployeeStore<Integer> store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = "columnar".equals(engine)
+                ? new ColumnarEmployeeDatabase<>(employees)
+                : new EmployeeDatabase<>(false, employees);
+        for (int id = 0; id < employees; id++) {
+            store.addEmployee(EmployeeDataGenerator.employee(id));
+        }
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> filterByMinimumRating() {
+        return store.filterByMinimumRating(4.9); // About 2% of employees
+    }
+
+    @Benchmark
+    public List<Employee<Integer>> filterBySalaryRange() {
+        return store.filterBySalaryRange(100000, 101000); // About 1% of employees
+    }
+
+    @Benchmark
+    public double getAverageSalaryByDepartment() {
+        return store.getAverageSalaryByDepartment("Finance");
+    }
+
+    @Benchmark
+    public int giveSalaryRaise() {
+        // 0% keeps the data stable across invocations while still visiting every qualifying employee
+        return store.giveSalaryRaise(4.5, 0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.employeemanagementsystem.benchmarks;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.FsyncPolicy;
+import com.example.employeemanagementsystem.database.IdCodec;
+import com.example.employeemanagementsystem.database.WriteAheadLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write throughput of a logged database for each fsync policy, with one writer and with several
+ * writers sharing group commits.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteAheadLogBenchmark {
+
+    @Param({"EVERY_OPERATION", "EVERY_BATCH", "NEVER"})
+    public FsyncPolicy policy;
+
+    @Param({"256"})
+    public int batchSize;
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private Path file;
+    private EmployeeDatabase<Integer> database;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("employees", ".wal");
+        database = new EmployeeDatabase<>(true);
+        database.attachLog(WriteAheadLog.open(file, IdCodec.INTEGER, policy, batchSize));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        database.detachLog();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean addEmployee() {
+        return database.addEmployee(EmployeeDataGenerator.employee(nextId.getAndIncrement()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean addEmployeeFourWriters() {
+        return database.addEmployee(EmployeeDataGenerator.employee(nextId.getAndIncrement()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.employeemanagementsystem.controllers;
+
+import com.example.employeemanagementsystem.database.EmployeeSortKey;
+import com.example.employeemanagementsystem.model.Employee;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+
+/**
+ * One row of the employee table. The table asks for a cell's value every time the cell is rendered,
+ * so each value is wrapped once, on first use, and the same instance is returned from then on.
+ *
+ * @param <T> Type of the employee ID
+ */
+final class EmployeeRow<T> {
+    private static final EmployeeSortKey[] COLUMNS = EmployeeSortKey.values();
+
+    private final Employee<T> employee;
+    private final ObservableValue<?>[] cells = new ObservableValue<?>[COLUMNS.length];
+
+    EmployeeRow(Employee<T> employee) {
+        this.employee = employee;
+    }
+
+    Employee<T> getEmployee() {
+        return employee;
+    }
+
+    /**
+     * Gets the value of one column of this row.
+     *
+     * @param column The field shown by the column
+     * @return The value, the same instance on every call
+     */
+    @SuppressWarnings("unchecked")
+    <V> ObservableValue<V> cell(EmployeeSortKey column) {
+        ObservableValue<?> cell = cells[column.ordinal()];
+        if (cell == null) {
+            cell = new ReadOnlyObjectWrapper<>(column.valueOf(employee));
+            cells[column.ordinal()] = cell;
+        }
+        return (ObservableValue<V>) cell;
+    }
+}
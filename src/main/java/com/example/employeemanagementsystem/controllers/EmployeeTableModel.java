@@ -0,0 +1,420 @@
+package com.example.employeemanagementsystem.controllers;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeListener;
+import com.example.employeemanagementsystem.database.EmployeeSortKey;
+import com.example.employeemanagementsystem.model.Employee;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/**
+ * The rows of the employee table, loaded a page at a time.
+ * <p>
+ * A table only asks for the rows it shows, so only their pages are ever built. When every employee is shown,
+ * pages are read from the database on the loader thread, in the order set by {@link #sort}; rows of a page
+ * still loading read as null, which the table shows as empty rows until the page arrives. A query result
+ * is already in memory, so its pages are built on demand and it is sorted once, on the loader thread.
+ * A few recently used pages are kept, and the rest are dropped.
+ * <p>
+ * Changes to the database are applied by {@link #apply} as a delta: updated employees replace their rows
+ * where they are loaded, and removing a loaded row drops only the pages from it on. Rows are read again
+ * only when they may have moved to positions that are not known, after an insert, a change to the sorted
+ * field or the removal of a row that was not loaded.
+ * <p>
+ * Not thread-safe: apart from the loader thread's own work, use it only from the thread that results are
+ * delivered on, which is the FX thread in the application.
+ *
+ * @param <T> Type of the employee ID
+ */
+final class EmployeeTableModel<T> extends ObservableListBase<EmployeeRow<T>> {
+    static final int PAGE_SIZE = 256;
+    private static final int CACHED_PAGES = 32;
+
+    private final EmployeeDatabase<T> database;
+    private final Executor loader;
+    private final Executor resultThread;
+
+    // The query result being shown, unsorted and sorted; both null while every employee is shown
+    private List<Employee<T>> query;
+    private List<Employee<T>> result;
+    private EmployeeSortKey sortKey;
+    private boolean descending;
+    private int size;
+
+    // Bumped whenever the rows are replaced, so that a sort started for the old rows is dropped
+    private long generation;
+    // Whether a sort of the query result is running on the loader
+    private boolean sorting;
+    private final Map<Integer, List<EmployeeRow<T>>> pages = new LinkedHashMap<>(CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<EmployeeRow<T>>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+    // The pages being read on the loader, each with the number of its load; a result is used only if the
+    // page is still here with the same number, so dropping a page discards the load
+    private final Map<Integer, Long> loadingPages = new HashMap<>();
+    private long loads;
+
+    /**
+     * Creates a model that shows every employee of a database.
+     *
+     * @param database The database to page through
+     * @param loader Runs page loads and sorts
+     * @param resultThread Runs the delivery of their results
+     */
+    EmployeeTableModel(EmployeeDatabase<T> database, Executor loader, Executor resultThread) {
+        this.database = database;
+        this.loader = loader;
+        this.resultThread = resultThread;
+        size = database.getEmployeeCount();
+    }
+
+    /**
+     * Shows every employee, paged from the database.
+     */
+    void showAll() {
+        query = null;
+        result = null;
+        replaceRows();
+    }
+
+    /**
+     * Shows a query result, in the current sort order.
+     *
+     * @param employees The employees to show; not copied, so it must not change afterwards
+     */
+    void show(List<Employee<T>> employees) {
+        query = employees;
+        if (sortKey == null) {
+            result = employees;
+            replaceRows();
+            return;
+        }
+        long sortGeneration = ++generation;
+        EmployeeSortKey key = sortKey;
+        boolean sortDescending = descending;
+        sorting = true;
+        loader.execute(() -> {
+            List<Employee<T>> sorted = new ArrayList<>(employees);
+            sorted.sort(key.comparator(sortDescending));
+            resultThread.execute(() -> {
+                if (sortGeneration == generation) {
+                    sorting = false;
+                    result = sorted;
+                    replaceRows();
+                }
+            });
+        });
+    }
+
+    /**
+     * Changes the sort order. Every employee is then read from the database in that order;
+     * a query result is sorted again.
+     *
+     * @param key The field to sort by, or null for database order or the query's own order
+     * @param descending Whether to sort highest first
+     */
+    void sort(EmployeeSortKey key, boolean descending) {
+        if (key == sortKey && (key == null || descending == this.descending)) {
+            return;
+        }
+        sortKey = key;
+        this.descending = descending;
+        if (query == null) {
+            replaceRows();
+        } else {
+            show(query);
+        }
+    }
+
+    /**
+     * Reloads every employee after the database changed. A query result is left as it is; run the query
+     * again and {@link #show} the new result instead.
+     */
+    void refresh() {
+        if (query == null) {
+            replaceRows();
+        }
+    }
+
+    /**
+     * Applies changes made to the database since the last call.
+     * <p>
+     * A query result is changed in memory: removed employees leave it and updated ones replace their old
+     * version. It is sorted again only if the sorted field changed. The caller must run the query again
+     * instead if the changes may add employees to the result, that is after an insert or an update to a
+     * field that the query filters on.
+     *
+     * @param changes The changes, as taken from {@link Changes#takeAll}
+     */
+    void apply(Changes<T> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        boolean reordered = sortKey != null && changes.fields.contains(sortKey.fieldName());
+        if (query != null) {
+            applyToQuery(changes, reordered);
+            return;
+        }
+        if (changes.added || reordered) {
+            replaceRows();
+            return;
+        }
+        // The loaded rows of removed employees by position, read before any page is dropped; removing a row
+        // shifts the later rows up by one, so they are removed last to first
+        NavigableMap<Integer, EmployeeRow<T>> removedRows = new TreeMap<>(Collections.reverseOrder());
+        if (!changes.removed.isEmpty()) {
+            for (Map.Entry<Integer, List<EmployeeRow<T>>> page : pages.entrySet()) {
+                List<EmployeeRow<T>> rows = page.getValue();
+                for (int row = 0; row < rows.size(); row++) {
+                    if (changes.removed.contains(rows.get(row).getEmployee().getEmployeeId())) {
+                        removedRows.put(page.getKey() * PAGE_SIZE + row, rows.get(row));
+                    }
+                }
+            }
+            if (removedRows.size() < changes.removed.size()) {
+                replaceRows(); // Some removed rows were not loaded, so the rows that moved are not known
+                return;
+            }
+        }
+        beginChange();
+        if (!removedRows.isEmpty()) {
+            int firstPage = removedRows.lastKey() / PAGE_SIZE;
+            pages.keySet().removeIf(cached -> cached >= firstPage);
+            for (Map.Entry<Integer, EmployeeRow<T>> removed : removedRows.entrySet()) {
+                size--;
+                nextRemove(removed.getKey(), removed.getValue());
+            }
+        }
+        // A page being read may hold versions from before the update, so it is read again
+        for (Integer page : new ArrayList<>(loadingPages.keySet())) {
+            loadingPages.remove(page);
+            int from = page * PAGE_SIZE;
+            int to = Math.min(size, from + PAGE_SIZE);
+            if (from < to) {
+                nextReplace(from, to, Collections.nCopies(to - from, null));
+            }
+        }
+        replaceLoadedRows(changes.updated);
+        endChange();
+    }
+
+    private void applyToQuery(Changes<T> changes, boolean reordered) {
+        List<Employee<T>> changedQuery = applyTo(query, changes);
+        if (sortKey != null && (reordered || sorting || result == null)) {
+            show(changedQuery);
+            return;
+        }
+        result = sortKey == null ? changedQuery : applyTo(result, changes);
+        query = changedQuery;
+        if (result.size() != size) {
+            replaceRows(); // Rows were removed; the others are built again from memory as they are shown
+            return;
+        }
+        beginChange();
+        replaceLoadedRows(changes.updated);
+        endChange();
+    }
+
+    private static <T> List<Employee<T>> applyTo(List<Employee<T>> employees, Changes<T> changes) {
+        List<Employee<T>> changed = new ArrayList<>(employees.size());
+        for (Employee<T> employee : employees) {
+            if (!changes.removed.contains(employee.getEmployeeId())) {
+                changed.add(changes.updated.getOrDefault(employee.getEmployeeId(), employee));
+            }
+        }
+        return changed;
+    }
+
+    //Replaces the loaded rows of updated employees, as part of a change that has begun.
+
+    private void replaceLoadedRows(Map<T, Employee<T>> updated) {
+        if (updated.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Integer, List<EmployeeRow<T>>> page : pages.entrySet()) {
+            List<EmployeeRow<T>> rows = page.getValue();
+            for (int row = 0; row < rows.size(); row++) {
+                Employee<T> employee = updated.get(rows.get(row).getEmployee().getEmployeeId());
+                if (employee != null) {
+                    nextSet(page.getKey() * PAGE_SIZE + row, rows.set(row, new EmployeeRow<>(employee)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public EmployeeRow<T> get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / PAGE_SIZE;
+        List<EmployeeRow<T>> rows = pages.get(page);
+        if (rows == null) {
+            if (result != null) {
+                int from = page * PAGE_SIZE;
+                rows = toRows(result.subList(from, Math.min(result.size(), from + PAGE_SIZE)));
+                pages.put(page, rows);
+            } else {
+                load(page);
+                rows = pages.get(page); // Present if the loader ran synchronously
+                if (rows == null) {
+                    return null;
+                }
+            }
+        }
+        int row = index % PAGE_SIZE;
+        return row < rows.size() ? rows.get(row) : null; // The database may have shrunk since the page was counted
+    }
+
+    //Drops every row and fires one change that replaces them all.
+
+    private void replaceRows() {
+        generation++;
+        sorting = false;
+        pages.clear();
+        loadingPages.clear();
+        int oldSize = size;
+        size = result != null ? result.size() : database.getEmployeeCount();
+        if (oldSize > 0 || size > 0) {
+            beginChange();
+            nextReplace(0, size, Collections.nCopies(oldSize, null));
+            endChange();
+        }
+    }
+
+    //Reads a page of every employee on the loader thread, unless it is already being read.
+
+    private void load(int page) {
+        if (loadingPages.containsKey(page)) {
+            return;
+        }
+        long load = ++loads;
+        loadingPages.put(page, load);
+        EmployeeSortKey key = sortKey;
+        boolean loadDescending = descending;
+        loader.execute(() -> {
+            List<Employee<T>> employees = database.getSortedPage(key, loadDescending, page * PAGE_SIZE, PAGE_SIZE);
+            resultThread.execute(() -> pageLoaded(load, page, employees));
+        });
+    }
+
+    //Stores a loaded page and replaces its empty rows, unless the load was dropped meanwhile.
+
+    private void pageLoaded(long load, int page, List<Employee<T>> employees) {
+        if (!loadingPages.remove(page, load)) {
+            return;
+        }
+        pages.put(page, toRows(employees));
+        int from = page * PAGE_SIZE;
+        int to = Math.min(size, from + PAGE_SIZE);
+        if (from < to) {
+            beginChange();
+            nextReplace(from, to, Collections.nCopies(to - from, null));
+            endChange();
+        }
+    }
+
+    private static <T> List<EmployeeRow<T>> toRows(List<Employee<T>> employees) {
+        List<EmployeeRow<T>> rows = new ArrayList<>(employees.size());
+        for (Employee<T> employee : employees) {
+            rows.add(new EmployeeRow<>(employee));
+        }
+        return rows;
+    }
+
+    /**
+     * Collects the changes reported by a database until they are taken, so that a burst of changes is
+     * applied as one delta. Listener calls may come from any thread.
+     *
+     * @param <T> Type of the employee ID
+     */
+    static final class Changes<T> implements EmployeeListener<T> {
+        private final Runnable onChange;
+        private boolean added;
+        private final Set<T> removed = new HashSet<>();
+        // The latest version of each updated employee, and the names of the fields changed
+        private final Map<T, Employee<T>> updated = new HashMap<>();
+        private final Set<String> fields = new HashSet<>();
+
+        /**
+         * @param onChange Called after each change is recorded, on the thread that reported it
+         */
+        Changes(Runnable onChange) {
+            this.onChange = onChange;
+        }
+
+        @Override
+        public void employeeAdded(Employee<T> employee) {
+            synchronized (this) {
+                added = true;
+            }
+            onChange.run();
+        }
+
+        @Override
+        public void employeeRemoved(Employee<T> employee) {
+            synchronized (this) {
+                removed.add(employee.getEmployeeId());
+                updated.remove(employee.getEmployeeId());
+            }
+            onChange.run();
+        }
+
+        @Override
+        public void employeeUpdated(Employee<T> employee, String field) {
+            synchronized (this) {
+                updated.put(employee.getEmployeeId(), employee);
+                fields.add(field);
+            }
+            onChange.run();
+        }
+
+        /**
+         * Takes the changes recorded so far, leaving none.
+         */
+        synchronized Changes<T> takeAll() {
+            Changes<T> taken = new Changes<>(onChange);
+            taken.added = added;
+            taken.removed.addAll(removed);
+            taken.updated.putAll(updated);
+            taken.fields.addAll(fields);
+            added = false;
+            removed.clear();
+            updated.clear();
+            fields.clear();
+            return taken;
+        }
+
+        /**
+         * Checks whether these changes may add employees to a query result: whether an employee was inserted,
+         * or one of the given fields was updated.
+         *
+         * @param filterFields The lower-case names of the fields the query filters on
+         */
+        boolean mayAddTo(Collection<String> filterFields) {
+            return added || !Collections.disjoint(fields, filterFields);
+        }
+
+        boolean isEmpty() {
+            return !added && removed.isEmpty() && updated.isEmpty();
+        }
+    }
+}
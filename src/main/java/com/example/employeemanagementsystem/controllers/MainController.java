@@ -3,38 +3,82 @@ package com.example.employeemanagementsystem.controllers;
 //import com.company.ems.dao.EmployeeDatabase;
 
 import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeExporter;
+import com.example.employeemanagementsystem.database.EmployeeMetrics;
+import com.example.employeemanagementsystem.database.EmployeePatch;
+import com.example.employeemanagementsystem.database.EmployeeQuery;
+import com.example.employeemanagementsystem.database.EmployeeSortKey;
+import com.example.employeemanagementsystem.database.FsyncPolicy;
+import com.example.employeemanagementsystem.database.IdCodec;
+import com.example.employeemanagementsystem.database.OperationStats;
+import com.example.employeemanagementsystem.database.QueryCache;
+import com.example.employeemanagementsystem.database.WriteAheadLog;
 import com.example.employeemanagementsystem.model.Employee;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
+import javafx.util.Duration;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.management.JMException;
 
 /**
  * Controller for the main application view.
  */
 public class MainController {
 
+    // Every change made in the GUI is logged here and replayed on the next start.
+    // On logout the data is checkpointed into the snapshot and the log starts again empty.
+    private static final Path DATA_DIR = Path.of(System.getProperty("user.home"), ".employee-management-system");
+    private static final Path LOG_FILE = DATA_DIR.resolve("employees.wal");
+    private static final Path SNAPSHOT_FILE = DATA_DIR.resolve("employees.snapshot");
 
-    @FXML private TableColumn<Employee<Integer>, Integer> idColumn;
-    @FXML private TableColumn<Employee<Integer>, String> nameColumn;
-    @FXML private TableColumn<Employee<Integer>, String> deptColumn;
-    @FXML private TableColumn<Employee<Integer>, Double> salaryColumn;
-    @FXML private TableColumn<Employee<Integer>, Double> ratingColumn;
-    @FXML private TableColumn<Employee<Integer>, Integer> experienceColumn;
-    @FXML private TableColumn<Employee<Integer>, Boolean> activeColumn;
+    // Searches run this long after the last keystroke, so fast typing runs one query instead of one per key
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+    private static final Duration STATS_INTERVAL = Duration.seconds(1);
+    private static final int QUERY_CACHE_SIZE = 64;
+    private static final int STATS_SHOWN = 5;
+
+    @FXML private TableColumn<EmployeeRow<Integer>, Integer> idColumn;
+    @FXML private TableColumn<EmployeeRow<Integer>, String> nameColumn;
+    @FXML private TableColumn<EmployeeRow<Integer>, String> deptColumn;
+    @FXML private TableColumn<EmployeeRow<Integer>, Double> salaryColumn;
+    @FXML private TableColumn<EmployeeRow<Integer>, Double> ratingColumn;
+    @FXML private TableColumn<EmployeeRow<Integer>, Integer> experienceColumn;
+    @FXML private TableColumn<EmployeeRow<Integer>, Boolean> activeColumn;
+    // The field each column shows and sorts by
+    private final Map<TableColumn<EmployeeRow<Integer>, ?>, EmployeeSortKey> columnKeys = new HashMap<>();
 
 
 
     @FXML
-    private TableView<Employee<Integer>> employeeTableView;
+    private TableView<EmployeeRow<Integer>> employeeTableView;
 
     @FXML
     private TextField searchNameField;
@@ -48,39 +92,177 @@ public class MainController {
     @FXML
     private ComboBox<String> sortComboBox;
 
+    @FXML
+    private Label statsLabel;
+
     private EmployeeDatabase<Integer> database;
-    private ObservableList<Employee<Integer>> employeeList;
+    private EmployeeTableModel<Integer> tableModel;
     private int nextEmployeeId = 1;
 
+    // Pages of the table are read from the database on this thread, so scrolling never waits for a query
+    private final ExecutorService pageLoader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "employee-pages");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Searches run on this thread so that large queries never block the UI. Only the FX thread
+    // touches the fields below; a search result is shown only if no newer query was started meanwhile.
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "employee-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final PauseTransition nameSearchDelay = new PauseTransition(SEARCH_DELAY);
+    private final PauseTransition deptSearchDelay = new PauseTransition(SEARCH_DELAY);
+    private Future<?> pendingSearch;
+    private long searchGeneration;
+
+    // Last completed name search and the other filters it ran with, reused when the next query extends it
+    private String lastNameQuery;
+    private List<Employee<Integer>> lastNameResult;
+    private String lastOtherFilters;
+
+    // The query whose result is shown, and the fields it filters on; null while every employee is shown.
+    // The query is run again only when a change may add employees to its result.
+    private Supplier<List<Employee<Integer>>> currentQuery;
+    private List<String> currentQueryFields = List.of();
+    // Changes reported by the database and not yet shown. A refresh is queued while refreshPending is set,
+    // so that a burst of changes is applied to the table once.
+    private final EmployeeTableModel.Changes<Integer> pendingChanges =
+            new EmployeeTableModel.Changes<>(this::scheduleRefresh);
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+    // Redraws the stats panel from the database metrics
+    private final Timeline statsRefresh = new Timeline(new KeyFrame(STATS_INTERVAL, event -> showStats()));
+
     /**
      * Initializes the controller.
      * This method is automatically called after the FXML file has been loaded.
      */
     @FXML
     private void initialize() {
-        // Initialize the database and list
-        database = new EmployeeDatabase<>();
-        employeeList = FXCollections.observableArrayList();
-        employeeTableView.setItems(employeeList);
+        // Initialize the database. Concurrent mode lets searches read it off the FX thread.
+        database = new EmployeeDatabase<>(true);
 
         // Initialize the sort combo box
         sortComboBox.getItems().addAll("By Experience", "By Salary", "By Performance");
         sortComboBox.setValue("By Experience");
 
-        idColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getEmployeeId()));
-        nameColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(cellData.getValue().getName()));
-        deptColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(cellData.getValue().getDepartment()));
-        salaryColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getSalary()));
-        ratingColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getPerformanceRating()));
-        experienceColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().getYearsOfExperience()));
-        activeColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue().isActive()));
-
+        // Each row wraps its values once, and each column knows the field it sorts by
+        bindColumn(idColumn, EmployeeSortKey.ID);
+        bindColumn(nameColumn, EmployeeSortKey.NAME);
+        bindColumn(deptColumn, EmployeeSortKey.DEPARTMENT);
+        bindColumn(salaryColumn, EmployeeSortKey.SALARY);
+        bindColumn(ratingColumn, EmployeeSortKey.PERFORMANCE_RATING);
+        bindColumn(experienceColumn, EmployeeSortKey.YEARS_OF_EXPERIENCE);
+        bindColumn(activeColumn, EmployeeSortKey.ACTIVE);
+
+
+        // Search as the user types, once typing pauses
+        nameSearchDelay.setOnFinished(event -> searchByName());
+        deptSearchDelay.setOnFinished(event -> searchByDepartment());
+        searchNameField.textProperty().addListener((observable, oldText, newText) -> nameSearchDelay.playFromStart());
+        searchDeptField.textProperty().addListener((observable, oldText, newText) -> deptSearchDelay.playFromStart());
+
+        // Restore saved employees, or add sample data on the first start
+        openLog();
+        if (database.getEmployeeCount() == 0) {
+            addSampleData();
+        }
+        for (Employee<Integer> employee : database.getAllEmployees()) {
+            nextEmployeeId = Math.max(nextEmployeeId, employee.getEmployeeId() + 1);
+        }
 
-        // Add sample data
-        addSampleData();
+        // Measure every operation from here on, for the stats panel and for JMX tools such as JConsole
+        EmployeeMetrics metrics = database.enableMetrics();
+        try {
+            metrics.registerMBean("gui");
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        // Repeated searches are answered from the cache until a change they depend on
+        database.enableQueryCache(QUERY_CACHE_SIZE, null);
+        statsRefresh.setCycleCount(Animation.INDEFINITE);
+        statsRefresh.play();
+
+        // The table shows a window of pages read from the database, and column sorts are run by the database
+        tableModel = new EmployeeTableModel<>(database, pageLoader, Platform::runLater);
+        employeeTableView.setItems(tableModel);
+        employeeTableView.setSortPolicy(table -> {
+            List<TableColumn<EmployeeRow<Integer>, ?>> sortOrder = table.getSortOrder();
+            if (sortOrder.isEmpty()) {
+                tableModel.sort(null, false);
+            } else {
+                TableColumn<EmployeeRow<Integer>, ?> column = sortOrder.get(0); // Only the first column is used
+                tableModel.sort(columnKeys.get(column), column.getSortType() == TableColumn.SortType.DESCENDING);
+            }
+            return true;
+        });
 
-        // Update the list view
+        // Show every employee, then apply each later change to the table
         updateEmployeeList();
+        database.addListener(pendingChanges);
+    }
+
+    //Shows a field in a column, and sorts by it when the column is sorted.
+
+    private <V> void bindColumn(TableColumn<EmployeeRow<Integer>, V> column, EmployeeSortKey key) {
+        columnKeys.put(column, key);
+        column.setCellValueFactory(cellData -> cellData.getValue().cell(key));
+    }
+
+    //Applies the changes to the table on the FX thread once the current burst of changes has been reported.
+    //The query is run again only if the changes may add employees to its result, or if it is still running
+    //and may have read the database before them; otherwise only the changed rows are replaced or removed.
+
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                refreshPending.set(false);
+                EmployeeTableModel.Changes<Integer> changes = pendingChanges.takeAll();
+                if (changes.isEmpty()) {
+                    return;
+                }
+                forgetNameSearch();
+                if (currentQuery != null && (changes.mayAddTo(currentQueryFields)
+                        || pendingSearch != null && !pendingSearch.isDone())) {
+                    runSearch(currentQuery, null);
+                } else {
+                    tableModel.apply(changes);
+                }
+            });
+        }
+    }
+
+
+    //Shows the busiest operations with their call count and latencies.
+
+    private void showStats() {
+        EmployeeMetrics metrics = database.getMetrics();
+        if (metrics == null) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        metrics.getOperations().stream()
+                .sorted(Comparator.comparingLong(OperationStats::count).reversed())
+                .limit(STATS_SHOWN)
+                .forEach(stats -> text.append(String.format("%s%n  %,d calls, p50 %s, p99 %s%n",
+                        stats.operation().toLowerCase().replace('_', ' '), stats.count(),
+                        formatNanos(stats.p50Nanos()), formatNanos(stats.p99Nanos()))));
+        QueryCache cache = database.getQueryCache();
+        if (cache != null) {
+            text.append(String.format("query cache%n  %.0f%% hits, %,d evictions%n",
+                    100 * cache.getHitRatio(), cache.getEvictions()));
+        }
+        statsLabel.setText(text.toString());
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000) {
+            return String.format("%.1f µs", nanos / 1e3);
+        }
+        return String.format("%.1f ms", nanos / 1e6);
     }
 
 
@@ -100,6 +282,13 @@ public class MainController {
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 try {
+                    searchExecutor.shutdownNow();
+                    pageLoader.shutdownNow();
+                    statsRefresh.stop();
+                    database.getMetrics().unregisterMBean();
+                    database.checkpoint(SNAPSHOT_FILE, IdCodec.INTEGER);
+                    database.detachLog();
+
                     // Load LoginView
                     FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/employeemanagementsystem/login.fxml"));
                     Parent loginRoot = loader.load();
@@ -121,7 +310,7 @@ public class MainController {
                     fadeIn.setToValue(1);
                     fadeIn.play();
 
-                } catch (IOException e) {
+                } catch (IOException | JMException e) {
                     e.printStackTrace();
                 }
             }
@@ -154,7 +343,6 @@ public class MainController {
                 Employee<Integer> newEmployee = controller.getEmployee(nextEmployeeId++);
                 if (newEmployee != null) {
                     database.addEmployee(newEmployee);
-                    updateEmployeeList();
                 }
             }
         } catch (IOException e) {
@@ -167,10 +355,9 @@ public class MainController {
      */
     @FXML
     private void removeSelectedEmployee() {
-        Employee<Integer> selectedEmployee = employeeTableView.getSelectionModel().getSelectedItem();
+        Employee<Integer> selectedEmployee = selectedEmployee();
         if (selectedEmployee != null) {
             database.removeEmployee(selectedEmployee.getEmployeeId());
-            updateEmployeeList();
         } else {
             showAlert("No Selection", "Please select an employee to remove.");
         }
@@ -181,7 +368,7 @@ public class MainController {
      */
     @FXML
     private void showUpdateEmployeeDialog() {
-        Employee<Integer> selectedEmployee = employeeTableView.getSelectionModel().getSelectedItem();
+        Employee<Integer> selectedEmployee = selectedEmployee();
         if (selectedEmployee == null) {
             showAlert("No Selection", "Please select an employee to update.");
             return;
@@ -208,16 +395,8 @@ public class MainController {
             if (result.isPresent() && result.get() == ButtonType.OK) {
                 Employee<Integer> updatedEmployee = controller.getEmployee(selectedEmployee.getEmployeeId());
                 if (updatedEmployee != null) {
-                    // Update all fields
-                    Integer id = selectedEmployee.getEmployeeId();
-                    database.updateEmployeeDetails(id, "name", updatedEmployee.getName());
-                    database.updateEmployeeDetails(id, "department", updatedEmployee.getDepartment());
-                    database.updateEmployeeDetails(id, "salary", updatedEmployee.getSalary());
-                    database.updateEmployeeDetails(id, "performanceRating", updatedEmployee.getPerformanceRating());
-                    database.updateEmployeeDetails(id, "yearsOfExperience", updatedEmployee.getYearsOfExperience());
-                    database.updateEmployeeDetails(id, "isActive", updatedEmployee.isActive());
-
-                    updateEmployeeList();
+                    // Update all fields as one change
+                    database.updateEmployee(selectedEmployee.getEmployeeId(), EmployeePatch.of(updatedEmployee));
                 }
             }
         } catch (IOException e) {
@@ -225,48 +404,157 @@ public class MainController {
         }
     }
 
-    //Searches employees by name.
+    //Gets the employee of the selected row, or null if no row or a row that is still loading is selected.
+
+    private Employee<Integer> selectedEmployee() {
+        EmployeeRow<Integer> selectedRow = employeeTableView.getSelectionModel().getSelectedItem();
+        return selectedRow == null ? null : selectedRow.getEmployee();
+    }
 
+    /**
+     * Exports all employees to a CSV or JSON lines file chosen by the user.
+     * The file is written on the search thread, straight from the database, so large exports never block the UI.
+     */
     @FXML
-    private void searchByName() {
-        String searchText = searchNameField.getText().trim();
-        if (!searchText.isEmpty()) {
-            employeeList.setAll(database.searchByName(searchText));
-        } else {
-            updateEmployeeList();
+    private void exportEmployees() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Employees");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter("CSV", "*.csv");
+        FileChooser.ExtensionFilter jsonLines = new FileChooser.ExtensionFilter("JSON lines", "*.jsonl");
+        chooser.getExtensionFilters().addAll(csv, jsonLines);
+        chooser.setInitialFileName("employees.csv");
+        File file = chooser.showSaveDialog(rootPane.getScene().getWindow());
+        if (file == null) {
+            return;
         }
+        EmployeeExporter.Format format = chooser.getSelectedExtensionFilter() == jsonLines
+                || file.getName().endsWith(".jsonl") ? EmployeeExporter.Format.JSON_LINES : EmployeeExporter.Format.CSV;
+        searchExecutor.submit(() -> {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long count = new EmployeeExporter(format).export(database.streamAllEmployees(), channel);
+                Platform.runLater(() -> showAlert("Export Complete", count + " employees exported to " + file));
+            } catch (IOException e) {
+                Platform.runLater(() -> showAlert("Error", "Could not export employees: " + e.getMessage()));
+            }
+        });
+    }
+
+    //Searches employees by name, together with the other filters.
+
+    @FXML
+    private void searchByName() {
+        nameSearchDelay.stop();
+        applyFilters();
     }
 
-    //Searches employees by department.
+    //Searches employees by department, together with the other filters.
 
     @FXML
     private void searchByDepartment() {
-        String searchText = searchDeptField.getText().trim();
-        if (!searchText.isEmpty()) {
-            employeeList.setAll(database.searchByDepartment(searchText));
-        } else {
+        deptSearchDelay.stop();
+        applyFilters();
+    }
+
+    //Shows the employees that match every filter that is set: name, department and minimum rating.
+    //The database plans the combined query from its indexes. If only the name changed and it extends the
+    //previous one, only the previous matches are filtered again.
+
+    private void applyFilters() {
+        String name = searchNameField.getText().trim().toLowerCase();
+        String department = searchDeptField.getText().trim();
+        double rating = ratingSlider.getValue();
+        if (name.isEmpty() && department.isEmpty() && rating <= 0) {
             updateEmployeeList();
+            return;
+        }
+        EmployeeQuery query = new EmployeeQuery();
+        List<String> filterFields = new ArrayList<>();
+        if (!name.isEmpty()) {
+            query.nameContains(name);
+            filterFields.add(EmployeeSortKey.NAME.fieldName());
+        }
+        if (!department.isEmpty()) {
+            query.department(department);
+            filterFields.add(EmployeeSortKey.DEPARTMENT.fieldName());
         }
+        if (rating > 0) {
+            query.minRating(rating);
+            filterFields.add(EmployeeSortKey.PERFORMANCE_RATING.fieldName());
+        }
+        String otherFilters = department.toLowerCase() + "\n" + rating;
+        List<Employee<Integer>> previous = lastNameResult;
+        if (previous != null && !name.isEmpty() && name.contains(lastNameQuery)
+                && otherFilters.equals(lastOtherFilters)) {
+            // Every name containing the new query also contains the old one
+            runSearch(() -> previous.stream()
+                    .filter(employee -> employee.getName() != null && employee.getName().toLowerCase().contains(name))
+                    .toList(), name);
+        } else {
+            runSearch(() -> database.query(query), name.isEmpty() ? null : name);
+        }
+        lastOtherFilters = otherFilters;
+        currentQuery = () -> database.query(query);
+        currentQueryFields = filterFields;
     }
 
-    //Filters employees by minimum rating.
+    //Runs a query on the search thread and shows its result, unless a newer query has been started by then.
+    //Any previous query still running is cancelled. A non-null nameQuery records the result for refinement.
+    //The query becomes the current one, to be run again when the database changes.
+
+    private void runSearch(Supplier<List<Employee<Integer>>> query, String nameQuery) {
+        cancelSearch();
+        currentQuery = query;
+        long generation = searchGeneration;
+        pendingSearch = searchExecutor.submit(() -> {
+            List<Employee<Integer>> result = query.get();
+            Platform.runLater(() -> {
+                if (generation == searchGeneration) {
+                    lastNameQuery = nameQuery;
+                    lastNameResult = nameQuery == null ? null : result;
+                    tableModel.show(result);
+                }
+            });
+        });
+    }
+
+    //Discards the result of any query still running and forgets the last name search.
+
+    private void cancelSearch() {
+        searchGeneration++;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            pendingSearch = null;
+        }
+        forgetNameSearch();
+    }
+
+    //Forgets the last name search, which is no longer current once the database changes.
+
+    private void forgetNameSearch() {
+        lastNameQuery = null;
+        lastNameResult = null;
+    }
+
+    //Filters employees by minimum rating, together with the other filters.
 
     @FXML
     private void filterByRating() {
-        double rating = ratingSlider.getValue();
-        employeeList.setAll(database.filterByMinimumRating(rating));
+        applyFilters();
     }
 
-    //Sorts employees based on the selected sort option.
+    //Shows every employee sorted by the selected sort option, by sorting the table on the matching column.
 
     @FXML
     private void sortEmployees() {
-        String sortOption = sortComboBox.getValue();
-        switch (sortOption) {
-            case "By Experience" -> employeeList.setAll(database.sortByExperience());
-            case "By Salary" -> employeeList.setAll(database.sortBySalary());
-            case "By Performance" -> employeeList.setAll(database.sortByPerformance());
-        }
+        TableColumn<EmployeeRow<Integer>, ?> column = switch (sortComboBox.getValue()) {
+            case "By Salary" -> salaryColumn;
+            case "By Performance" -> ratingColumn;
+            default -> experienceColumn;
+        };
+        updateEmployeeList();
+        column.setSortType(TableColumn.SortType.DESCENDING);
+        employeeTableView.getSortOrder().setAll(List.of(column));
     }
 
     //Shows all employees.
@@ -279,7 +567,9 @@ public class MainController {
     //Updates the employee list view with all employees.
 
     private void updateEmployeeList() {
-        employeeList.setAll(database.getAllEmployees());
+        cancelSearch();
+        currentQuery = null;
+        tableModel.showAll();
     }
 
     //Shows an alert dialog.
@@ -292,6 +582,21 @@ public class MainController {
         alert.showAndWait();
     }
 
+    //Restores the last snapshot and replays the employee log into the database.
+    //Falls back to an in-memory database if the files cannot be opened.
+
+    private void openLog() {
+        try {
+            Files.createDirectories(DATA_DIR);
+            if (Files.exists(SNAPSHOT_FILE)) {
+                database = EmployeeDatabase.restoreSnapshot(SNAPSHOT_FILE, IdCodec.INTEGER, true);
+            }
+            database.attachLog(WriteAheadLog.open(LOG_FILE, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 64));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     //Manually adds some sample data to the database.
 
     private void addSampleData() {
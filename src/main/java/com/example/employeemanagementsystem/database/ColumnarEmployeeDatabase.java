@@ -0,0 +1,354 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import com.example.employeemanagementsystem.utils.EmployeePerformanceComparator;
+import com.example.employeemanagementsystem.utils.EmployeeSalaryComparator;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Storage engine that keeps every employee field in its own primitive column instead of one object per employee.
+ * <p>
+ * Salary and rating live in {@code double[]}, experience in {@code int[]}, the active flags in a bitset and
+ * departments as {@code int} codes into a dictionary of distinct department names. Rows are packed densely:
+ * removing an employee moves the last row into the gap. Rating, salary and department queries therefore run
+ * as tight loops over primitive arrays, and {@link Employee} objects are only created for the rows returned.
+ * <p>
+ * Returned employees are detached copies: changing them does not change the database, so updates must go
+ * through {@link #updateEmployeeDetails}. This class is not thread-safe.
+ *
+ * @param <T> Type of the employee ID
+ */
+public class ColumnarEmployeeDatabase<T> implements EmployeeStore<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<T, Integer> rowsById;
+    private int size;
+
+    private Object[] ids;
+    private String[] names;
+    private int[] departmentCodes;
+    private double[] salaries;
+    private double[] ratings;
+    private int[] experience;
+    private long[] active;
+
+    // Department dictionary: code -> department name as first added, and name -> code
+    private final List<String> departments = new ArrayList<>();
+    private final Map<String, Integer> departmentCodesByName = new HashMap<>();
+
+    public ColumnarEmployeeDatabase() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a database with room for an expected number of employees.
+     *
+     * @param expectedSize The number of employees the database is expected to hold
+     */
+    public ColumnarEmployeeDatabase(int expectedSize) {
+        int capacity = Math.max(expectedSize, INITIAL_CAPACITY);
+        rowsById = HashMap.newHashMap(capacity);
+        ids = new Object[capacity];
+        names = new String[capacity];
+        departmentCodes = new int[capacity];
+        salaries = new double[capacity];
+        ratings = new double[capacity];
+        experience = new int[capacity];
+        active = new long[(capacity + 63) >>> 6];
+    }
+
+    @Override
+    public boolean addEmployee(Employee<T> employee) {
+        if (rowsById.putIfAbsent(employee.getEmployeeId(), size) != null) {
+            return false;
+        }
+        ensureCapacity(size + 1);
+        int row = size++;
+        ids[row] = employee.getEmployeeId();
+        names[row] = employee.getName();
+        departmentCodes[row] = departmentCode(employee.getDepartment());
+        salaries[row] = employee.getSalary();
+        ratings[row] = employee.getPerformanceRating();
+        experience[row] = employee.getYearsOfExperience();
+        setActive(row, employee.isActive());
+        return true;
+    }
+
+    @Override
+    public boolean removeEmployee(T employeeId) {
+        Integer row = rowsById.remove(employeeId);
+        if (row == null) {
+            return false;
+        }
+        int last = --size;
+        if (row != last) {
+            // Keep the columns dense by moving the last row into the gap
+            ids[row] = ids[last];
+            names[row] = names[last];
+            departmentCodes[row] = departmentCodes[last];
+            salaries[row] = salaries[last];
+            ratings[row] = ratings[last];
+            experience[row] = experience[last];
+            setActive(row, isActive(last));
+            rowsById.put(idAt(row), row);
+        }
+        ids[last] = null;
+        names[last] = null;
+        setActive(last, false);
+        return true;
+    }
+
+    @Override
+    public boolean updateEmployeeDetails(T employeeId, String field, Object newValue) {
+        Integer row = rowsById.get(employeeId);
+        if (row == null) {
+            return false;
+        }
+        try {
+            switch (field.toLowerCase()) {
+                case "name" -> names[row] = (String) newValue;
+                case "department" -> departmentCodes[row] = departmentCode((String) newValue);
+                case "salary" -> salaries[row] = (Double) newValue;
+                case "performancerating" -> ratings[row] = (Double) newValue;
+                case "yearsofexperience" -> experience[row] = (Integer) newValue;
+                case "isactive" -> setActive(row, (Boolean) newValue);
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (ClassCastException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<Employee<T>> getAllEmployees() {
+        List<Employee<T>> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            result.add(materialize(row));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Employee<T>> searchByDepartment(String department) {
+        boolean[] matching = matchingDepartmentCodes(department);
+        List<Employee<T>> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (matching[departmentCodes[row]]) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Employee<T>> searchByName(String name) {
+        String query = name.toLowerCase();
+        List<Employee<T>> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (names[row].toLowerCase().contains(query)) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Employee<T>> filterByMinimumRating(double minRating) {
+        List<Employee<T>> result = new ArrayList<>();
+        double[] ratings = this.ratings;
+        for (int row = 0; row < size; row++) {
+            if (ratings[row] >= minRating) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Employee<T>> filterBySalaryRange(double minSalary, double maxSalary) {
+        List<Employee<T>> result = new ArrayList<>();
+        double[] salaries = this.salaries;
+        for (int row = 0; row < size; row++) {
+            double salary = salaries[row];
+            if (salary >= minSalary && salary <= maxSalary) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Employee<T>> filterEmployees(Predicate<Employee<T>> predicate) {
+        List<Employee<T>> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            Employee<T> employee = materialize(row);
+            if (predicate.test(employee)) {
+                result.add(employee);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Employee<T>> getEmployeeIterator() {
+        return Collections.unmodifiableList(getAllEmployees()).iterator();
+    }
+
+    @Override
+    public List<Employee<T>> sortBySalary() {
+        List<Employee<T>> sortedEmployees = getAllEmployees();
+        sortedEmployees.sort(new EmployeeSalaryComparator<>());
+        return sortedEmployees;
+    }
+
+    @Override
+    public List<Employee<T>> sortByPerformance() {
+        List<Employee<T>> sortedEmployees = getAllEmployees();
+        sortedEmployees.sort(new EmployeePerformanceComparator<>());
+        return sortedEmployees;
+    }
+
+    @Override
+    public List<Employee<T>> sortByExperience() {
+        List<Employee<T>> sortedEmployees = getAllEmployees();
+        Collections.sort(sortedEmployees); // Uses the natural ordering defined by compareTo
+        return sortedEmployees;
+    }
+
+    @Override
+    public int giveSalaryRaise(double minRating, double percentageRaise) {
+        double factor = 1 + percentageRaise / 100;
+        double[] ratings = this.ratings;
+        double[] salaries = this.salaries;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (ratings[row] >= minRating) {
+                salaries[row] *= factor;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Employee<T>> getTopPaidEmployees(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException(Integer.toString(n));
+        }
+        // Keep the n best rows in a min-heap of row numbers, ordered by salary
+        int limit = Math.min(n, size);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(limit, 1),
+                (a, b) -> Double.compare(salaries[a], salaries[b]));
+        for (int row = 0; row < size && limit > 0; row++) {
+            if (heap.size() < limit) {
+                heap.add(row);
+            } else if (Double.compare(salaries[row], salaries[heap.peek()]) > 0) {
+                heap.poll();
+                heap.add(row);
+            }
+        }
+        List<Employee<T>> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(materialize(heap.poll()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    @Override
+    public double getAverageSalaryByDepartment(String department) {
+        boolean[] matching = matchingDepartmentCodes(department);
+        int[] codes = departmentCodes;
+        double[] salaries = this.salaries;
+        double sum = 0;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (matching[codes[row]]) {
+                sum += salaries[row];
+                count++;
+            }
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    @Override
+    public Employee<T> getEmployee(T employeeId) {
+        Integer row = rowsById.get(employeeId);
+        return row == null ? null : materialize(row);
+    }
+
+    @Override
+    public int getEmployeeCount() {
+        return size;
+    }
+
+    /**
+     * Creates a detached employee from a row.
+     */
+    private Employee<T> materialize(int row) {
+        return new Employee<>(idAt(row), names[row], departments.get(departmentCodes[row]),
+                salaries[row], ratings[row], experience[row], isActive(row));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T idAt(int row) {
+        return (T) ids[row];
+    }
+
+    /**
+     * Looks up the dictionary code of a department, adding it if it is new.
+     */
+    private int departmentCode(String department) {
+        Integer code = departmentCodesByName.get(department);
+        if (code == null) {
+            code = departments.size();
+            departments.add(department);
+            departmentCodesByName.put(department, code);
+        }
+        return code;
+    }
+
+    /**
+     * Finds every dictionary code whose department equals the given one, ignoring case.
+     * The dictionary only holds distinct names, so this is cheap compared with the row scan.
+     */
+    private boolean[] matchingDepartmentCodes(String department) {
+        boolean[] matching = new boolean[departments.size()];
+        for (int code = 0; code < matching.length; code++) {
+            String candidate = departments.get(code);
+            matching[code] = candidate == null ? department == null : candidate.equalsIgnoreCase(department);
+        }
+        return matching;
+    }
+
+    private boolean isActive(int row) {
+        return (active[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private void setActive(int row, boolean value) {
+        if (value) {
+            active[row >>> 6] |= 1L << row;
+        } else {
+            active[row >>> 6] &= ~(1L << row);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= salaries.length) {
+            return;
+        }
+        int capacity = Math.max(required, salaries.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        departmentCodes = Arrays.copyOf(departmentCodes, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        experience = Arrays.copyOf(experience, capacity);
+        active = Arrays.copyOf(active, (capacity + 63) >>> 6);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Running totals for the employees of one department, updated by {@link EmployeeDatabase} on every change
+ * so that {@link EmployeeDatabase#getDepartmentStats} needs no scan.
+ * <p>
+ * Sums are kept exactly, so removing an employee undoes adding it and the totals never drift from a fresh
+ * scan. The lowest and highest salary cannot be undone that way: once an employee holding one of them leaves,
+ * both are recomputed from the department's employees on the next read. Not thread-safe; the database guards
+ * each aggregate with the index lock of its department.
+ */
+final class DepartmentAggregate {
+    private int count;
+    private int activeCount;
+    private final ExactSum salarySum = new ExactSum();
+    private final ExactSum ratingSum = new ExactSum();
+    private double minSalary;
+    private double maxSalary;
+    private boolean extremesStale;
+
+    void add(Employee<?> employee) {
+        double salary = employee.getSalary();
+        if (count == 0) {
+            minSalary = salary;
+            maxSalary = salary;
+            extremesStale = false;
+        } else if (!extremesStale) {
+            minSalary = Math.min(minSalary, salary);
+            maxSalary = Math.max(maxSalary, salary);
+        }
+        count++;
+        if (employee.isActive()) {
+            activeCount++;
+        }
+        salarySum.add(salary);
+        ratingSum.add(employee.getPerformanceRating());
+    }
+
+    void remove(Employee<?> employee) {
+        double salary = employee.getSalary();
+        count--;
+        if (employee.isActive()) {
+            activeCount--;
+        }
+        salarySum.subtract(salary);
+        ratingSum.subtract(employee.getPerformanceRating());
+        if (Double.compare(salary, minSalary) == 0 || Double.compare(salary, maxSalary) == 0) {
+            extremesStale = true;
+        }
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Gets the current figures.
+     *
+     * @param employees The employees of the department, used only if the lowest and highest salary are stale
+     */
+    DepartmentStats snapshot(Iterable<? extends Employee<?>> employees) {
+        if (count == 0) {
+            return DepartmentStats.EMPTY;
+        }
+        if (extremesStale) {
+            boolean first = true;
+            for (Employee<?> employee : employees) {
+                double salary = employee.getSalary();
+                minSalary = first ? salary : Math.min(minSalary, salary);
+                maxSalary = first ? salary : Math.max(maxSalary, salary);
+                first = false;
+            }
+            extremesStale = false;
+        }
+        return new DepartmentStats(count, salarySum.doubleValue(), minSalary, maxSalary,
+                salarySum.average(count), ratingSum.average(count), activeCount);
+    }
+
+    /**
+     * A sum of doubles kept exactly. Infinities and NaN cannot be subtracted back out of a double,
+     * so they are counted instead.
+     */
+    static final class ExactSum {
+        private BigDecimal finite = BigDecimal.ZERO;
+        private int nanCount;
+        private int positiveInfinityCount;
+        private int negativeInfinityCount;
+
+        void add(double value) {
+            update(value, 1);
+        }
+
+        void subtract(double value) {
+            update(value, -1);
+        }
+
+        private void update(double value, int sign) {
+            if (Double.isNaN(value)) {
+                nanCount += sign;
+            } else if (value == Double.POSITIVE_INFINITY) {
+                positiveInfinityCount += sign;
+            } else if (value == Double.NEGATIVE_INFINITY) {
+                negativeInfinityCount += sign;
+            } else if (value != 0) {
+                BigDecimal exact = new BigDecimal(value);
+                finite = sign > 0 ? finite.add(exact) : finite.subtract(exact);
+            }
+        }
+
+        /**
+         * @return The sum, rounded to the nearest double
+         */
+        double doubleValue() {
+            if (nanCount > 0 || positiveInfinityCount > 0 && negativeInfinityCount > 0) {
+                return Double.NaN;
+            }
+            if (positiveInfinityCount > 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            if (negativeInfinityCount > 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return finite.doubleValue();
+        }
+
+        /**
+         * @return The sum divided by a count, or 0 if the count is 0
+         */
+        double average(int count) {
+            if (count == 0) {
+                return 0;
+            }
+            if (nanCount > 0 || positiveInfinityCount > 0 || negativeInfinityCount > 0) {
+                return doubleValue();
+            }
+            return finite.divide(BigDecimal.valueOf(count), MathContext.DECIMAL128).doubleValue();
+        }
+    }
+}
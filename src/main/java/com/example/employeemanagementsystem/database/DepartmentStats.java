@@ -0,0 +1,18 @@
+package com.example.employeemanagementsystem.database;
+
+/**
+ * Aggregate figures for the employees of one department, as returned by
+ * {@link EmployeeDatabase#getDepartmentStats}. Every value is 0 for a department without employees.
+ *
+ * @param employeeCount The number of employees in the department
+ * @param salarySum The total salary
+ * @param minSalary The lowest salary
+ * @param maxSalary The highest salary
+ * @param averageSalary The mean salary
+ * @param averageRating The mean performance rating
+ * @param activeCount The number of active employees
+ */
+public record DepartmentStats(int employeeCount, double salarySum, double minSalary, double maxSalary,
+                              double averageSalary, double averageRating, int activeCount) {
+    static final DepartmentStats EMPTY = new DepartmentStats(0, 0, 0, 0, 0, 0, 0);
+}
@@ -0,0 +1,400 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Imports employees from a CSV file into an {@link EmployeeDatabase}.
+ * <p>
+ * The file is read through a {@link FileChannel} in large chunks cut at line ends, and the chunks are parsed
+ * on worker threads while the next ones are read. Every row is checked the way the employee dialog checks
+ * its input; a row that fails is reported with its line number and skipped, and the import carries on.
+ * The valid rows are inserted with a single {@link EmployeeDatabase#addAll} call.
+ * <p>
+ * The first line is a header. Every other line holds the columns
+ * {@code id,name,department,salary,performanceRating,yearsOfExperience,active}, where {@code active} is
+ * true/false, yes/no or 1/0. A field may be enclosed in double quotes, with {@code ""} standing for a quote
+ * inside it, but may not span lines. Blank lines are ignored.
+ *
+ * @param <T> Type of the employee ID
+ */
+public class EmployeeCsvImporter<T> {
+    static final String HEADER = "id,name,department,salary,performanceRating,yearsOfExperience,active";
+    private static final int COLUMNS = 7;
+    private static final int CHUNK_BYTES = 4 << 20;
+    private static final int MAX_REPORTED_BAD_ROWS = 1000;
+
+    private final Function<String, T> idParser;
+    private final int parallelism;
+
+    /**
+     * Creates an importer that parses on every available core.
+     *
+     * @param idParser Parses an employee ID, throwing IllegalArgumentException if it is invalid
+     */
+    public EmployeeCsvImporter(Function<String, T> idParser) {
+        this(idParser, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param idParser Parses an employee ID, throwing IllegalArgumentException if it is invalid
+     * @param parallelism The number of parsing threads
+     */
+    public EmployeeCsvImporter(Function<String, T> idParser, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.idParser = idParser;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * The outcome of an import.
+     *
+     * @param rowsImported The number of employees added to the database
+     * @param badRowCount The number of rows that were skipped
+     * @param badRows The first skipped rows, at most 1000, in line order
+     * @param elapsedNanos The time taken by the whole import, including inserting and indexing
+     * @param peakHeapBytes The sum of the peak usage of each heap memory pool during the import,
+     *                      an upper bound of the peak heap usage
+     */
+    public record ImportReport(long rowsImported, long badRowCount, List<BadRow> badRows,
+                               long elapsedNanos, long peakHeapBytes) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rowsImported * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * A row that was skipped.
+     *
+     * @param line The 1-based line number in the file
+     * @param message Why the row was skipped
+     */
+    public record BadRow(long line, String message) {
+    }
+
+    /**
+     * Imports every valid row of a CSV file.
+     *
+     * @param file The CSV file
+     * @param database The database to add the employees to
+     * @return What was imported and which rows were skipped
+     * @throws IOException If the file cannot be read
+     */
+    public ImportReport importFile(Path file, EmployeeDatabase<T> database) throws IOException {
+        resetPeakHeap();
+        long start = System.nanoTime();
+        Result<T> result = new Result<>();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "csv-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Deque<Future<Chunk<T>>> inFlight = new ArrayDeque<>();
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+            boolean firstChunk = true;
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(buffer) < 0;
+                if (!eof && buffer.hasRemaining()) {
+                    continue; // Fill the whole buffer before cutting a chunk
+                }
+                int end = eof ? buffer.position() : lastLineEnd(buffer);
+                if (end == 0 && !eof) {
+                    // A single line longer than the buffer
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+                    continue;
+                }
+                if (end > 0) {
+                    byte[] bytes = Arrays.copyOf(buffer.array(), end);
+                    boolean skipHeader = firstChunk;
+                    inFlight.add(workers.submit(() -> parse(bytes, skipHeader)));
+                    firstChunk = false;
+                    buffer.flip().position(end);
+                    buffer.compact();
+                }
+                // Bound the memory held by chunks that are read but not yet collected
+                while (inFlight.size() > 2 * parallelism) {
+                    result.collect(await(inFlight.poll()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                result.collect(await(inFlight.poll()));
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        List<Employee<T>> rejected = database.addAll(result.employees);
+        if (!rejected.isEmpty()) {
+            Set<Employee<T>> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+            duplicates.addAll(rejected);
+            for (int i = 0; i < result.employees.size(); i++) {
+                Employee<T> employee = result.employees.get(i);
+                if (duplicates.contains(employee)) {
+                    result.reject(result.lines[i], "Duplicate employee ID: " + employee.getEmployeeId());
+                }
+            }
+            result.badRows.sort(Comparator.comparingLong(BadRow::line));
+        }
+        return new ImportReport(result.employees.size() - rejected.size(), result.badRowCount,
+                List.copyOf(result.badRows), System.nanoTime() - start, peakHeap());
+    }
+
+    /**
+     * Parses the lines of one chunk. Line numbers in the returned chunk are relative to its first line.
+     */
+    private Chunk<T> parse(byte[] bytes, boolean skipHeader) {
+        Chunk<T> chunk = new Chunk<>();
+        String[] fields = new String[COLUMNS];
+        int line = 0;
+        int position = 0;
+        while (position < bytes.length) {
+            int lineEnd = position;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int end = lineEnd > position && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            if (end > position && !(skipHeader && line == 0)) {
+                parseRow(bytes, position, end, fields, chunk, line);
+            }
+            line++;
+            position = lineEnd + 1;
+        }
+        chunk.lineCount = line;
+        return chunk;
+    }
+
+    private void parseRow(byte[] bytes, int start, int end, String[] fields, Chunk<T> chunk, int line) {
+        int count = split(bytes, start, end, fields);
+        if (count < 0) {
+            chunk.reject(line, "Malformed quoted field");
+            return;
+        }
+        if (count != COLUMNS) {
+            chunk.reject(line, "Expected " + COLUMNS + " fields but found " + count);
+            return;
+        }
+        try {
+            T id = parseId(fields[0]);
+            String name = fields[1].trim();
+            String department = fields[2].trim();
+            double salary = parseNumber(fields[3], "salary");
+            double rating = parseNumber(fields[4], "performance rating");
+            int experience = parseWholeNumber(fields[5], "years of experience");
+            boolean active = parseActive(fields[6]);
+            chunk.add(new Employee<>(id, name, department, salary, rating, experience, active), line);
+        } catch (IllegalArgumentException e) {
+            chunk.reject(line, e.getMessage());
+        }
+    }
+
+    /**
+     * Splits a line into fields.
+     *
+     * @return The number of fields on the line, of which at most {@code fields.length} are stored,
+     *         or -1 if a quoted field is not closed properly
+     */
+    private static int split(byte[] bytes, int start, int end, String[] fields) {
+        int count = 0;
+        int position = start;
+        while (true) {
+            String value;
+            if (position < end && bytes[position] == '"') {
+                int close = position + 1;
+                boolean escapedQuotes = false;
+                while (true) {
+                    if (close >= end) {
+                        return -1;
+                    }
+                    if (bytes[close] == '"') {
+                        if (close + 1 < end && bytes[close + 1] == '"') {
+                            escapedQuotes = true;
+                            close += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    close++;
+                }
+                value = new String(bytes, position + 1, close - position - 1, StandardCharsets.UTF_8);
+                if (escapedQuotes) {
+                    value = value.replace("\"\"", "\"");
+                }
+                position = close + 1;
+                if (position < end && bytes[position] != ',') {
+                    return -1;
+                }
+            } else {
+                int comma = position;
+                while (comma < end && bytes[comma] != ',') {
+                    comma++;
+                }
+                value = new String(bytes, position, comma - position, StandardCharsets.UTF_8);
+                position = comma;
+            }
+            if (count < fields.length) {
+                fields[count] = value;
+            }
+            count++;
+            if (position >= end) {
+                return count;
+            }
+            position++; // Skip the comma
+        }
+    }
+
+    private T parseId(String field) {
+        try {
+            return idParser.apply(field.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid employee ID: " + field);
+        }
+    }
+
+    private static double parseNumber(String field, String description) {
+        try {
+            return Double.parseDouble(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The " + description + " must be a number: " + field);
+        }
+    }
+
+    private static int parseWholeNumber(String field, String description) {
+        try {
+            return Integer.parseInt(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The " + description + " must be a whole number: " + field);
+        }
+    }
+
+    private static boolean parseActive(String field) {
+        return switch (field.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("Active must be true or false: " + field);
+        };
+    }
+
+    /**
+     * Finds the end of the last complete line in a filled buffer.
+     *
+     * @return The position just after the last line feed, or 0 if there is none
+     */
+    private static int lastLineEnd(ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        for (int i = buffer.position() - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static <C> C await(Future<C> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV import interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * The rows parsed from one chunk, with line numbers relative to the chunk's first line.
+     */
+    private static final class Chunk<T> {
+        final List<Employee<T>> employees = new ArrayList<>();
+        int[] lines = new int[64];
+        final List<BadRow> badRows = new ArrayList<>();
+        int lineCount;
+
+        void add(Employee<T> employee, int line) {
+            if (employees.size() == lines.length) {
+                lines = Arrays.copyOf(lines, lines.length * 2);
+            }
+            lines[employees.size()] = line;
+            employees.add(employee);
+        }
+
+        void reject(int line, String message) {
+            badRows.add(new BadRow(line, message));
+        }
+    }
+
+    /**
+     * The rows of every chunk collected so far, in file order, with absolute line numbers.
+     */
+    private static final class Result<T> {
+        final List<Employee<T>> employees = new ArrayList<>();
+        long[] lines = new long[1024];
+        final List<BadRow> badRows = new ArrayList<>();
+        long badRowCount;
+        private long nextLine = 1;
+
+        void collect(Chunk<T> chunk) {
+            int size = employees.size();
+            if (size + chunk.employees.size() > lines.length) {
+                lines = Arrays.copyOf(lines, Math.max(lines.length * 2, size + chunk.employees.size()));
+            }
+            for (int i = 0; i < chunk.employees.size(); i++) {
+                lines[size + i] = nextLine + chunk.lines[i];
+            }
+            employees.addAll(chunk.employees);
+            for (BadRow row : chunk.badRows) {
+                reject(nextLine + row.line(), row.message());
+            }
+            nextLine += chunk.lineCount;
+        }
+
+        void reject(long line, String message) {
+            badRowCount++;
+            if (badRows.size() < MAX_REPORTED_BAD_ROWS) {
+                badRows.add(new BadRow(line, message));
+            }
+        }
+    }
+}
@@ -1,22 +1,345 @@
 package com.example.employeemanagementsystem.database;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import com.example.employeemanagementsystem.model.Employee;
-import com.example.employeemanagementsystem.utils.EmployeePerformanceComparator;
-import com.example.employeemanagementsystem.utils.EmployeeSalaryComparator;
 
 /**
  * EmployeeDatabase class that manages employee records using Collections.
+ * <p>
+ * In concurrent mode the database may be shared between threads: inserts and removals are atomic,
+ * writers are serialized per employee through striped locks, and reads never block. Updates are
+ * applied copy-on-write, so a reader always sees either the old or the new version of an employee.
+ * Secondary indexes are weakly consistent while a write is in flight.
+ * <p>
+ * A {@link WriteAheadLog} can be attached to make the database durable: every successful mutation is
+ * appended to the log and the database can be rebuilt from it on the next start. A {@link #checkpoint}
+ * writes a snapshot and empties the log, so a restart only replays the changes made since.
+ * <p>
+ * Every successful mutation is also reported to the registered {@link EmployeeListener}s, so views can
+ * apply the change instead of reloading every employee.
+ * <p>
+ * {@link #openView} gives a point-in-time {@link EmployeeView} for long-running reads, such as reports,
+ * that must not see changes made while they run.
+ * <p>
+ * {@link #enableMetrics} starts collecting call counts, latencies and result sizes of every operation, and
+ * {@link #enableQueryCache} keeps the results of repeated searches until something they depend on changes.
  *
  * @param <T> Type of the employee ID
  */
-public class EmployeeDatabase<T> {
-    private final Map<T, Employee<T>> employees;
+public class EmployeeDatabase<T> implements EmployeeStore<T> {
+    private static final int LOCK_STRIPES = 64;
+    private static final int NAME_GRAM_LENGTH = 3;
+    // The fields that department statistics depend on
+    private static final int STATS_FIELDS = EmployeePatch.DEPARTMENT | EmployeePatch.SALARY
+            | EmployeePatch.PERFORMANCE_RATING | EmployeePatch.ACTIVE;
+    // Bulk inserts commit the log after this many records, so the pending batch stays bounded
+    private static final int BULK_COMMIT_INTERVAL = 16 * 1024;
+    // Slot of the change counters that counts inserts and removals, after one slot per EmployeePatch field
+    private static final int MEMBERSHIP_CHANGES = Integer.bitCount(EmployeePatch.ALL_FIELDS);
+
+    private final boolean concurrent;
+    // Only replaced by presize(), which is never called in concurrent mode
+    private Map<T, Employee<T>> employees;
+
+    // Secondary index: lower-cased department -> employees in that department.
+    // Kept in step with the primary map by index()/unindex(), so employees must be
+    // mutated through this class rather than through their setters.
+    private final Map<String, Set<Employee<T>>> departmentIndex;
+
+    // Running totals per lower-cased department, changed together with the department index under the same lock
+    private final Map<String, DepartmentAggregate> departmentStats;
+
+    // Secondary index: salary -> employees earning exactly that salary, in ascending salary order.
+    private final NavigableMap<Double, Set<Employee<T>>> salaryIndex;
+
+    // Secondary index: performance rating -> employees with exactly that rating, in ascending rating order.
+    private final NavigableMap<Double, Set<Employee<T>>> ratingIndex;
+
+    // Secondary index: trigram of the lower-cased name, packed into a long -> employees whose name contains it.
+    private final Map<Long, Set<Employee<T>>> nameIndex;
+
+    // Writers lock the stripe of the employee ID, then briefly the stripe of each index key they touch.
+    // The two arrays are separate so that the lock order is always ID before index key.
+    private final Object[] employeeLocks = newLocks();
+    private final Object[] indexLocks = newLocks();
+
+    // Set once by attachLog, before the database is shared
+    private WriteAheadLog<T> log;
+
+    private final List<EmployeeListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    // Scans and aggregates over at least this many employees run on the common fork-join pool
+    private volatile int parallelThreshold = Integer.MAX_VALUE;
+
+    // Bumped after every change: one counter per EmployeePatch field bit, then one for inserts and removals
+    private final AtomicLongArray changeCounts = new AtomicLongArray(MEMBERSHIP_CHANGES + 1);
+
+    // Bumped after every change to an employee, per stripe of the lower-cased department, old and new
+    private final AtomicLongArray departmentChanges = new AtomicLongArray(LOCK_STRIPES);
+
+    // Bumped after every change made to a new copy of an employee instead of in place
+    private final AtomicLong replacements = new AtomicLong();
+
+    // Per EmployeeSortKey without an index: the last sorted order built, reused until its field changes
+    private final AtomicReferenceArray<SortedOrder<T>> sortedOrders =
+            new AtomicReferenceArray<>(EmployeeSortKey.values().length);
+
+    // The epoch that writes save replaced versions into, or null while no EmployeeView is open.
+    // Changed only while holding every employee lock, like openViews.
+    private volatile EmployeeView.Epoch<T> latestEpoch;
+    private int openViews;
+
+    // Held shared by salary batches in concurrent mode and exclusively by openView and checkpoint, so that
+    // neither a view nor a snapshot sees half of a batch
+    private final ReentrantReadWriteLock batchLock = new ReentrantReadWriteLock();
+
+    // Null while metrics are disabled, so that an operation only pays for one volatile read
+    private volatile EmployeeMetrics metrics;
+
+    // Null while the query cache is disabled
+    private volatile QueryCache queryCache;
 
     public EmployeeDatabase() {
-        employees = new HashMap<>();
+        this(false);
+    }
+
+    /**
+     * Creates a database.
+     *
+     * @param concurrent true to allow concurrent readers and writers, false for single-threaded use
+     */
+    public EmployeeDatabase(boolean concurrent) {
+        this(concurrent, 16);
+    }
+
+    /**
+     * Creates a database sized for an expected number of employees, so that it does not need to grow.
+     *
+     * @param concurrent true to allow concurrent readers and writers, false for single-threaded use
+     * @param expectedSize The number of employees the database is expected to hold
+     */
+    public EmployeeDatabase(boolean concurrent, int expectedSize) {
+        this.concurrent = concurrent;
+        if (concurrent) {
+            employees = new ConcurrentHashMap<>(expectedSize);
+            departmentIndex = new ConcurrentHashMap<>();
+            departmentStats = new ConcurrentHashMap<>();
+            salaryIndex = new ConcurrentSkipListMap<>();
+            ratingIndex = new ConcurrentSkipListMap<>();
+            nameIndex = new ConcurrentHashMap<>();
+        } else {
+            employees = HashMap.newHashMap(expectedSize);
+            departmentIndex = new HashMap<>();
+            departmentStats = new HashMap<>();
+            salaryIndex = new TreeMap<>();
+            ratingIndex = new TreeMap<>();
+            nameIndex = new HashMap<>();
+        }
+    }
+
+    /**
+     * Creates a single-threaded database that keeps its employees in the given map, for subclasses that
+     * specialize the primary map for their ID type.
+     *
+     * @param employees An empty map from employee ID to employee
+     */
+    protected EmployeeDatabase(Map<T, Employee<T>> employees) {
+        this.concurrent = false;
+        this.employees = employees;
+        departmentIndex = new HashMap<>();
+        departmentStats = new HashMap<>();
+        salaryIndex = new TreeMap<>();
+        ratingIndex = new TreeMap<>();
+        nameIndex = new HashMap<>();
+    }
+
+    /**
+     * Creates a database from a snapshot file written by {@link #writeSnapshot} or {@link #checkpoint}.
+     * The file is memory-mapped and read column by column, without parsing any text.
+     *
+     * @param file The snapshot file
+     * @param idCodec Codec for employee IDs
+     * @param concurrent true to allow concurrent readers and writers, false for single-threaded use
+     * @param <T> Type of the employee ID
+     * @return The restored database
+     * @throws IOException If the file cannot be read or is not a snapshot
+     */
+    public static <T> EmployeeDatabase<T> restoreSnapshot(Path file, IdCodec<T> idCodec, boolean concurrent)
+            throws IOException {
+        List<Employee<T>> restored = EmployeeSnapshot.read(file, idCodec);
+        EmployeeDatabase<T> database = new EmployeeDatabase<>(concurrent, restored.size());
+        database.load(restored);
+        return database;
+    }
+
+    /**
+     * Fills an empty database with restored employees, building the secondary indexes in one pass.
+     */
+    void load(List<Employee<T>> restored) {
+        for (Employee<T> employee : restored) {
+            employees.put(employee.getEmployeeId(), employee);
+        }
+        indexAll(restored);
+        changeCounts.incrementAndGet(MEMBERSHIP_CHANGES);
+        countAllDepartmentChanges();
+    }
+
+    /**
+     * Writes every employee to a snapshot file. Concurrent writers are not blocked, so the snapshot may
+     * include some of the changes made while it is being written; use {@link #checkpoint} for an exact one.
+     *
+     * @param file The snapshot file, replaced atomically if it exists
+     * @param idCodec Codec for employee IDs
+     * @throws IOException If the file cannot be written
+     */
+    public void writeSnapshot(Path file, IdCodec<T> idCodec) throws IOException {
+        // Rows are written in salary order so that restoring can build the salary index in one sweep
+        List<Employee<T>> rows = new ArrayList<>(employees.values());
+        rows.sort(Comparator.comparingDouble(Employee::getSalary));
+        EmployeeSnapshot.write(rows, file, idCodec);
+    }
+
+    /**
+     * Writes an exact snapshot and then empties the attached write-ahead log. Writers are blocked while
+     * the snapshot is written; readers are not. A salary batch is either entirely in the snapshot or entirely
+     * after it. If the process dies between the two steps, replaying the old log over the new snapshot still
+     * gives the same result, because every record holds absolute values.
+     *
+     * @param file The snapshot file, replaced atomically if it exists
+     * @param idCodec Codec for employee IDs
+     * @throws IOException If the snapshot cannot be written or the log cannot be emptied
+     */
+    public void checkpoint(Path file, IdCodec<T> idCodec) throws IOException {
+        // A batch in progress holds the read lock, so its log records cannot be split by the reset
+        batchLock.writeLock().lock();
+        try {
+            withAllEmployeeLocks(0, () -> {
+                writeSnapshot(file, idCodec);
+                if (log != null) {
+                    log.reset();
+                }
+            });
+        } finally {
+            batchLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Checks whether this database may be shared between threads.
+     *
+     * @return true if the database was created in concurrent mode
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * Rebuilds this database from a write-ahead log, then appends every later mutation to it.
+     * Must be called on an empty database, or one just restored from the log's last checkpoint,
+     * before it is shared between threads.
+     *
+     * @param log The log to replay and append to
+     * @throws IOException If the log cannot be read
+     */
+    public void attachLog(WriteAheadLog<T> log) throws IOException {
+        if (this.log != null) {
+            throw new IllegalStateException("A log is already attached");
+        }
+        log.replay(new WriteAheadLog.Handler<>() {
+            @Override
+            public void add(Employee<T> employee) {
+                addEmployee(employee);
+            }
+
+            @Override
+            public void remove(T employeeId) {
+                removeEmployee(employeeId);
+            }
+
+            @Override
+            public void update(T employeeId, String field, Object value) {
+                updateEmployeeDetails(employeeId, field, value);
+            }
+
+            @Override
+            public void patch(T employeeId, EmployeePatch patch) {
+                updateEmployee(employeeId, patch);
+            }
+        });
+        this.log = log;
+    }
+
+    /**
+     * Registers a listener for every later insert, removal and update.
+     *
+     * @param listener The listener to add
+     */
+    public void addListener(EmployeeListener<T> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Unregisters a listener added with {@link #addListener}.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeListener(EmployeeListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Lets scans and aggregates over large data run in parallel on the common fork-join pool. This applies to
+     * {@link #filterByMinimumRating}, {@link #filterBySalaryRange} and {@link #filterEmployees};
+     * results come back in the same order as sequentially.
+     * <p>
+     * Below the threshold the cost of splitting outweighs the extra cores; run {@code ParallelScanBenchmark}
+     * on the target machine to find where the crossover lies. Once this is set, predicates passed to
+     * {@link #filterEmployees} must be safe to call from several threads at once.
+     *
+     * @param threshold The minimum number of employees a scan must cover to run in parallel, or
+     *                  {@link Integer#MAX_VALUE} to always run sequentially, which is the default
+     */
+    public void setParallelThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be at least 1: " + threshold);
+        }
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * @return The minimum number of employees a scan must cover to run in parallel
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Syncs and closes the attached write-ahead log, if any. Later mutations are no longer logged.
+     *
+     * @throws IOException If pending records cannot be written
+     */
+    public void detachLog() throws IOException {
+        WriteAheadLog<T> attached = log;
+        log = null;
+        if (attached != null) {
+            attached.close();
+        }
     }
 
     /**
@@ -25,25 +348,149 @@ public class EmployeeDatabase<T> {
      * @param employee The employee to add
      * @return true if the employee was added successfully, false if an employee with the same ID already exists
      */
+    @Override
     public boolean addEmployee(Employee<T> employee) {
-        if (employees.containsKey(employee.getEmployeeId())) {
-            return false;
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : recorder.start(EmployeeMetrics.Operation.ADD);
+        boolean added = add(employee);
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.ADD, start, added ? 1 : 0);
+        }
+        return added;
+    }
+
+    private boolean add(Employee<T> employee) {
+        T employeeId = employee.getEmployeeId();
+        synchronized (lockFor(employeeLocks, employeeId)) {
+            if (!insert(employeeId, employee)) {
+                return false;
+            }
+            index(employee);
+            changeCounts.incrementAndGet(MEMBERSHIP_CHANGES);
+            countDepartmentChange(employee.getDepartment());
+            if (log != null) {
+                log.appendAdd(employee);
+            }
+            for (EmployeeListener<T> listener : listeners) {
+                listener.employeeAdded(employee);
+            }
         }
-        employees.put(employee.getEmployeeId(), employee);
+        commitLog();
         return true;
     }
 
+    /**
+     * Adds many employees in one call. The primary map is grown once up front, the secondary indexes are
+     * built in a single sweep at the end and the log is committed in large batches, so this is much faster
+     * than calling {@link #addEmployee} for each one. Listeners are told about each employee once all of
+     * them are indexed. In concurrent mode each employee is added as by {@link #addEmployee}.
+     *
+     * @param added The employees to add
+     * @return The employees that were not added because their ID was already taken
+     */
+    public List<Employee<T>> addAll(Collection<Employee<T>> added) {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        List<Employee<T>> rejected = addEach(added);
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.ADD_ALL, start, added.size() - rejected.size());
+        }
+        return rejected;
+    }
+
+    private List<Employee<T>> addEach(Collection<Employee<T>> added) {
+        List<Employee<T>> rejected = new ArrayList<>();
+        int logged = 0;
+        if (concurrent) {
+            for (Employee<T> employee : added) {
+                T employeeId = employee.getEmployeeId();
+                synchronized (lockFor(employeeLocks, employeeId)) {
+                    if (!insert(employeeId, employee)) {
+                        rejected.add(employee);
+                        continue;
+                    }
+                    index(employee);
+                    changeCounts.incrementAndGet(MEMBERSHIP_CHANGES);
+                    countDepartmentChange(employee.getDepartment());
+                    if (log != null) {
+                        log.appendAdd(employee);
+                    }
+                    for (EmployeeListener<T> listener : listeners) {
+                        listener.employeeAdded(employee);
+                    }
+                }
+                if (++logged % BULK_COMMIT_INTERVAL == 0) {
+                    commitLog();
+                }
+            }
+            commitLog();
+            return rejected;
+        }
+
+        presize(employees.size() + added.size());
+        List<Employee<T>> accepted = new ArrayList<>(added.size());
+        try {
+            for (Employee<T> employee : added) {
+                if (!insert(employee.getEmployeeId(), employee)) {
+                    rejected.add(employee);
+                    continue;
+                }
+                accepted.add(employee);
+                if (log != null) {
+                    log.appendAdd(employee);
+                    if (++logged % BULK_COMMIT_INTERVAL == 0) {
+                        commitLog();
+                    }
+                }
+            }
+        } finally {
+            // If the log fails, the employees already put stay, as after a failed addEmployee: earlier
+            // commits may have logged them. They are indexed either way, so queries agree with the primary map
+            indexAll(accepted);
+            changeCounts.incrementAndGet(MEMBERSHIP_CHANGES);
+            countAllDepartmentChanges();
+        }
+        commitLog();
+        for (EmployeeListener<T> listener : listeners) {
+            accepted.forEach(listener::employeeAdded);
+        }
+        return rejected;
+    }
+
     /**
      * Removes an employee from the database.
      *
      * @param employeeId The ID of the employee to remove
      * @return true if the employee was removed successfully, false if no employee with the given ID exists
      */
+    @Override
     public boolean removeEmployee(T employeeId) {
-        if (!employees.containsKey(employeeId)) {
-            return false;
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : recorder.start(EmployeeMetrics.Operation.REMOVE);
+        boolean removed = remove(employeeId);
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.REMOVE, start, removed ? 1 : 0);
+        }
+        return removed;
+    }
+
+    private boolean remove(T employeeId) {
+        synchronized (lockFor(employeeLocks, employeeId)) {
+            Employee<T> removed = delete(employeeId);
+            if (removed == null) {
+                return false;
+            }
+            unindex(removed);
+            changeCounts.incrementAndGet(MEMBERSHIP_CHANGES);
+            countDepartmentChange(removed.getDepartment());
+            if (log != null) {
+                log.appendRemove(employeeId);
+            }
+            for (EmployeeListener<T> listener : listeners) {
+                listener.employeeRemoved(removed);
+            }
         }
-        employees.remove(employeeId);
+        commitLog();
         return true;
     }
 
@@ -55,49 +502,125 @@ public class EmployeeDatabase<T> {
      * @param newValue The new value for the field
      * @return true if the update was successful, false otherwise
      */
+    @Override
     public boolean updateEmployeeDetails(T employeeId, String field, Object newValue) {
-        if (!employees.containsKey(employeeId)) {
-            return false;
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : recorder.start(EmployeeMetrics.Operation.UPDATE);
+        String key = field.toLowerCase();
+        boolean updated;
+        try {
+            updated = mutate(employeeId, EmployeePatch.fieldBit(key), employee -> {
+                switch (key) {
+                    case "name":
+                        employee.setName((String) newValue);
+                        break;
+                    case "department":
+                        employee.setDepartment((String) newValue);
+                        break;
+                    case "salary":
+                        employee.setSalary((Double) newValue);
+                        break;
+                    case "performancerating":
+                        employee.setPerformanceRating((Double) newValue);
+                        break;
+                    case "yearsofexperience":
+                        employee.setYearsOfExperience((Integer) newValue);
+                        break;
+                    case "isactive":
+                        employee.setActive((Boolean) newValue);
+                        break;
+                    default:
+                        return false;
+                }
+                if (log != null) {
+                    log.appendUpdate(employeeId, key, newValue);
+                }
+                return true;
+            });
+        } catch (ClassCastException e) {
+            updated = false;
+        }
+        if (updated) {
+            commitLog();
         }
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.UPDATE, start, updated ? 1 : 0);
+        }
+        return updated;
+    }
 
-        Employee<T> employee = employees.get(employeeId);
+    /**
+     * Updates several fields of an employee as one change. Readers in concurrent mode see either none or
+     * all of the new values, the indexes are updated once, and the change is logged as a single record.
+     *
+     * @param employeeId The ID of the employee to update
+     * @param patch The new field values
+     * @return true if the employee exists, false otherwise
+     */
+    public boolean updateEmployee(T employeeId, EmployeePatch patch) {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : recorder.start(EmployeeMetrics.Operation.UPDATE);
+        boolean updated = patch.isEmpty() ? employees.containsKey(employeeId) : applyPatch(employeeId, patch);
+        if (updated && !patch.isEmpty()) {
+            commitLog();
+        }
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.UPDATE, start, updated ? 1 : 0);
+        }
+        return updated;
+    }
 
-        try {
-            switch (field.toLowerCase()) {
-                case "name":
-                    employee.setName((String) newValue);
-                    break;
-                case "department":
-                    employee.setDepartment((String) newValue);
-                    break;
-                case "salary":
-                    employee.setSalary((Double) newValue);
-                    break;
-                case "performancerating":
-                    employee.setPerformanceRating((Double) newValue);
-                    break;
-                case "yearsofexperience":
-                    employee.setYearsOfExperience((Integer) newValue);
-                    break;
-                case "isactive":
-                    employee.setActive((Boolean) newValue);
-                    break;
-                default:
-                    return false;
+    /**
+     * Applies many patches in one call, committing the log once at the end. Each patch is atomic on its own;
+     * the batch as a whole is not.
+     *
+     * @param patches The patches to apply, by employee ID
+     * @return The number of employees that exist and were updated
+     */
+    public int updateEmployees(Map<T, EmployeePatch> patches) {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        int count = 0;
+        for (Map.Entry<T, EmployeePatch> entry : patches.entrySet()) {
+            EmployeePatch patch = entry.getValue();
+            if (patch.isEmpty() ? employees.containsKey(entry.getKey()) : applyPatch(entry.getKey(), patch)) {
+                count++;
             }
-            return true;
-        } catch (ClassCastException e) {
-            return false;
         }
+        if (count > 0) {
+            commitLog();
+        }
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.UPDATE_BATCH, start, count);
+        }
+        return count;
+    }
+
+    private boolean applyPatch(T employeeId, EmployeePatch patch) {
+        return mutate(employeeId, patch.fields(), employee -> {
+            patch.applyTo(employee);
+            if (log != null) {
+                log.appendPatch(employeeId, patch);
+            }
+            return true;
+        });
     }
 
     /**
-     * Retrieves all employees.
+     * Retrieves all employees. The employees are the stored ones, not copies; use {@link #openView} for
+     * employees that stay as they were while the database changes.
      *
      * @return A list of all employees
      */
+    @Override
     public List<Employee<T>> getAllEmployees() {
-        return new ArrayList<>(employees.values());
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        List<Employee<T>> all = new ArrayList<>(employees.values());
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.GET_ALL, start, all.size());
+        }
+        return all;
     }
 
     /**
@@ -106,10 +629,16 @@ public class EmployeeDatabase<T> {
      * @param department The department to search for
      * @return A list of employees in the specified department
      */
+    @Override
     public List<Employee<T>> searchByDepartment(String department) {
-        return employees.values().stream()
-                .filter(emp -> emp.getDepartment().equalsIgnoreCase(department))
-                .collect(Collectors.toList());
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        List<Employee<T>> found = cached(EmployeeMetrics.Operation.SEARCH_BY_DEPARTMENT, departmentKey(department), 0, department,
+                () -> new ArrayList<>(departmentIndex.getOrDefault(departmentKey(department), Collections.emptySet())));
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.SEARCH_BY_DEPARTMENT, start, found.size(), true);
+        }
+        return found;
     }
 
     /**
@@ -118,10 +647,17 @@ public class EmployeeDatabase<T> {
      * @param name The name or part of the name to search for
      * @return A list of employees whose names contain the search term
      */
+    @Override
     public List<Employee<T>> searchByName(String name) {
-        return employees.values().stream()
-                .filter(emp -> emp.getName().toLowerCase().contains(name.toLowerCase()))
-                .collect(Collectors.toList());
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        List<Employee<T>> found = cached(EmployeeMetrics.Operation.SEARCH_BY_NAME, name.toLowerCase(),
+                EmployeePatch.NAME, null, () -> streamByName(name).collect(Collectors.toList()));
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.SEARCH_BY_NAME, start, found.size(),
+                    name.length() >= NAME_GRAM_LENGTH);
+        }
+        return found;
     }
 
     /**
@@ -130,10 +666,16 @@ public class EmployeeDatabase<T> {
      * @param minRating The minimum performance rating
      * @return A list of employees with performance rating >= minRating
      */
+    @Override
     public List<Employee<T>> filterByMinimumRating(double minRating) {
-        return employees.values().stream()
-                .filter(emp -> emp.getPerformanceRating() >= minRating)
-                .collect(Collectors.toList());
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        List<Employee<T>> result = cached(EmployeeMetrics.Operation.FILTER_BY_RATING, minRating,
+                EmployeePatch.PERFORMANCE_RATING, null, () -> collect(ratingBuckets(minRating)));
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.FILTER_BY_RATING, start, result.size(), true);
+        }
+        return result;
     }
 
     /**
@@ -143,10 +685,75 @@ public class EmployeeDatabase<T> {
      * @param maxSalary The maximum salary
      * @return A list of employees with salary in the specified range
      */
+    @Override
     public List<Employee<T>> filterBySalaryRange(double minSalary, double maxSalary) {
-        return employees.values().stream()
-                .filter(emp -> emp.getSalary() >= minSalary && emp.getSalary() <= maxSalary)
-                .collect(Collectors.toList());
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        List<Employee<T>> result = cached(EmployeeMetrics.Operation.FILTER_BY_SALARY, List.of(minSalary, maxSalary),
+                EmployeePatch.SALARY, null, () -> !(minSalary <= maxSalary) ? new ArrayList<>()
+                        : collect(salaryIndex.subMap(numberKey(minSalary), true, numberKey(maxSalary), true).values()));
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.FILTER_BY_SALARY, start, result.size(), true);
+        }
+        return result;
+    }
+
+    /**
+     * Copies the employees of a range of index buckets, in parallel once the database reaches the parallel
+     * threshold.
+     */
+    private List<Employee<T>> collect(Collection<Set<Employee<T>>> buckets) {
+        if (employees.size() >= parallelThreshold) {
+            return buckets.parallelStream().flatMap(Set::stream).collect(Collectors.toList());
+        }
+        List<Employee<T>> result = new ArrayList<>();
+        for (Set<Employee<T>> bucket : buckets) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    /**
+     * Answers a search from the query cache while its result is current, or runs it and caches the result.
+     *
+     * @param operation The kind of search
+     * @param parameters The values that, with the operation, identify the search
+     * @param fields The {@link EmployeePatch} bits of the fields the result depends on, besides inserts and
+     *               removals
+     * @param department The department the search is limited to, or null; if set, the result depends on the
+     *                   employees of that department instead of on the fields
+     * @param search Runs the search
+     */
+    private List<Employee<T>> cached(EmployeeMetrics.Operation operation, Object parameters, int fields,
+                                     String department, Supplier<List<Employee<T>>> search) {
+        QueryCache cache = queryCache;
+        if (cache == null) {
+            return search.get();
+        }
+        List<Object> key = List.of(operation, parameters);
+        // Read before searching: a change made while searching leaves the result marked as older than it is
+        long stamp = department == null ? changeCount(fields)
+                : departmentChanges.get(stripe(departmentKey(department)));
+        QueryCache.Entry entry = cache.get(key, stamp);
+        if (entry == null) {
+            long replaced = replacements.get();
+            List<Employee<T>> result = search.get();
+            cache.put(key, stamp, replaced, result.toArray());
+            return result;
+        }
+        List<Employee<T>> result = new ArrayList<>(cachedEmployees(entry.employees()));
+        // Any change to an employee of the department invalidates the result, but a change to a field the
+        // result does not depend on may have replaced an employee with a new copy
+        if (department == null && entry.replacements() != replacements.get()) {
+            result.replaceAll(employee -> employees.get(employee.getEmployeeId()));
+            result.removeIf(Objects::isNull);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<Employee<T>> cachedEmployees(Object[] cached) {
+        return (List<Employee<T>>) (List<?>) Arrays.asList(cached);
     }
 
     /**
@@ -155,115 +762,1499 @@ public class EmployeeDatabase<T> {
      * @param predicate The filtering predicate
      * @return A list of employees that match the predicate
      */
+    @Override
     public List<Employee<T>> filterEmployees(Predicate<Employee<T>> predicate) {
-        return employees.values().stream()
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        List<Employee<T>> result = scan(employees.values())
                 .filter(predicate)
                 .collect(Collectors.toList());
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.FILTER, start, result.size(), false);
+        }
+        return result;
     }
 
     /**
-     * Gets an iterator for all employees.
+     * Runs a query. The planner estimates how many candidates each indexed condition leaves, from index
+     * bucket sizes alone, and reads only the smallest candidate set; the other conditions are checked on
+     * those candidates, the indexed ones by probing their index. A limited query sorted by salary or rating
+     * may instead walk that index in order and stop as soon as it has enough matches, and any other limited
+     * sort keeps only the first matches in a bounded heap. {@link #explain} shows the chosen plan.
+     *
+     * @param query The conditions, sort order and limit
+     * @return The matching employees
+     */
+    public List<Employee<T>> query(EmployeeQuery query) {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        // A cached result is read without a scan, so it counts as an index hit
+        boolean[] usesIndex = {true};
+        List<Employee<T>> result = cached(EmployeeMetrics.Operation.QUERY, query.cacheKey(), query.fields(),
+                query.getDepartment(), () -> {
+                    QueryPlan plan = new QueryPlan(query);
+                    usesIndex[0] = plan.usesIndex();
+                    return plan.run();
+                });
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.QUERY, start, result.size(), usesIndex[0]);
+        }
+        return result;
+    }
+
+    /**
+     * Describes how {@link #query} would run a query.
+     *
+     * @param query The query to plan
+     * @return A one-line description of the plan
+     */
+    public String explain(EmployeeQuery query) {
+        return new QueryPlan(query).toString();
+    }
+
+    /**
+     * Gets an iterator for all employees. In single-threaded mode the database must not be changed while
+     * iterating; {@link EmployeeView#getEmployeeIterator} has no such restriction.
      *
      * @return An iterator for the employees
      */
+    @Override
     public Iterator<Employee<T>> getEmployeeIterator() {
         return employees.values().iterator();
     }
 
     /**
-     * Sorts employees by salary (highest first).
+     * Streams all employees without copying them into a list.
+     * <p>
+     * Like every stream method below, the stream reads the database while it is consumed. In concurrent mode it
+     * is weakly consistent: it may or may not see changes made meanwhile, but never fails because of them.
+     * In single-threaded mode the database must not be changed until the stream has been consumed.
      *
-     * @return A list of employees sorted by salary in descending order
+     * @return A lazy stream of all employees
      */
-    public List<Employee<T>> sortBySalary() {
-        List<Employee<T>> sortedEmployees = new ArrayList<>(employees.values());
-        sortedEmployees.sort(new EmployeeSalaryComparator<>());
-        return sortedEmployees;
+    public Stream<Employee<T>> streamAllEmployees() {
+        return employees.values().stream();
     }
 
     /**
-     * Sorts employees by performance rating (best first).
+     * Streams the employees of a department, ignoring case.
      *
-     * @return A list of employees sorted by performance rating in descending order
+     * @param department The department to search for
+     * @return A lazy stream of the employees in the department
      */
-    public List<Employee<T>> sortByPerformance() {
-        List<Employee<T>> sortedEmployees = new ArrayList<>(employees.values());
-        sortedEmployees.sort(new EmployeePerformanceComparator<>());
-        return sortedEmployees;
+    public Stream<Employee<T>> streamByDepartment(String department) {
+        return departmentIndex.getOrDefault(departmentKey(department), Collections.emptySet()).stream();
     }
 
     /**
-     * Sorts employees by years of experience (most experienced first).
+     * Streams the employees whose names contain a search term, ignoring case.
      *
-     * @return A list of employees sorted by years of experience in descending order
+     * @param name The name or part of the name to search for
+     * @return A lazy stream of the matching employees
      */
-    public List<Employee<T>> sortByExperience() {
-        List<Employee<T>> sortedEmployees = new ArrayList<>(employees.values());
-        Collections.sort(sortedEmployees); // Uses the natural ordering defined by compareTo
-        return sortedEmployees;
+    public Stream<Employee<T>> streamByName(String name) {
+        String query = name.toLowerCase();
+        if (query.length() < NAME_GRAM_LENGTH) {
+            // Too short to have a trigram, so every name has to be checked
+            return employees.values().stream().filter(emp -> nameContains(emp, query));
+        }
+
+        // Every trigram of the query must occur in a matching name, so the rarest one bounds the candidates
+        List<Set<Employee<T>>> postings = new ArrayList<>();
+        for (int start = 0; start + NAME_GRAM_LENGTH <= query.length(); start++) {
+            Set<Employee<T>> posting = nameIndex.get(nameGram(query, start));
+            if (posting == null) {
+                return Stream.empty();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        List<Set<Employee<T>>> others = postings.subList(1, postings.size());
+        // The trigrams may occur in the name in a different order, so the actual substring is confirmed last
+        return postings.get(0).stream()
+                .filter(candidate -> inEvery(others, candidate))
+                .filter(candidate -> nameContains(candidate, query));
     }
 
     /**
-     * Gives a salary raise to employees with high performance ratings.
+     * Streams the employees with at least a minimum performance rating.
      *
-     * @param minRating The minimum performance rating required for a raise
-     * @param percentageRaise The percentage salary raise
-     * @return The number of employees who received a raise
+     * @param minRating The minimum performance rating
+     * @return A lazy stream of employees with performance rating >= minRating
      */
-    public int giveSalaryRaise(double minRating, double percentageRaise) {
-        int count = 0;
-        for (Employee<T> employee : employees.values()) {
-            if (employee.getPerformanceRating() >= minRating) {
-                double newSalary = employee.getSalary() * (1 + percentageRaise / 100);
-                employee.setSalary(newSalary);
-                count++;
-            }
-        }
-        return count;
+    public Stream<Employee<T>> streamByMinimumRating(double minRating) {
+        return ratingBuckets(minRating).stream().flatMap(Set::stream);
     }
 
     /**
-     * Retrieves the top N highest-paid employees.
+     * Streams the employees in a salary range, lowest salary first.
      *
-     * @param n The number of top employees to retrieve
-     * @return A list of the top N highest-paid employees
+     * @param minSalary The minimum salary
+     * @param maxSalary The maximum salary
+     * @return A lazy stream of employees with salary in the specified range
      */
-    public List<Employee<T>> getTopPaidEmployees(int n) {
-        return employees.values().stream()
-                .sorted(new EmployeeSalaryComparator<>())
-                .limit(n)
-                .collect(Collectors.toList());
+    public Stream<Employee<T>> streamBySalaryRange(double minSalary, double maxSalary) {
+        if (!(minSalary <= maxSalary)) {
+            return Stream.empty();
+        }
+        return salaryIndex.subMap(numberKey(minSalary), true, numberKey(maxSalary), true).values().stream()
+                .flatMap(Set::stream);
     }
 
     /**
-     * Calculates the average salary of employees in a specific department.
+     * Streams the employees that match a predicate.
      *
-     * @param department The department to calculate the average salary for
-     * @return The average salary, or 0 if no employees in the department
+     * @param predicate The filtering predicate
+     * @return A lazy stream of the matching employees
      */
-    public double getAverageSalaryByDepartment(String department) {
-        return employees.values().stream()
-                .filter(emp -> emp.getDepartment().equalsIgnoreCase(department))
-                .mapToDouble(Employee::getSalary)
-                .average()
-                .orElse(0);
+    public Stream<Employee<T>> streamFiltered(Predicate<Employee<T>> predicate) {
+        return employees.values().stream().filter(predicate);
     }
 
     /**
-     * Gets an employee by their ID.
+     * Streams all employees by salary (highest first), straight from the salary index. Equal salaries are
+     * ordered by ID, as by {@link #getSortedPage}. The other sort orders have no index and need the full sorted list anyway, so they have no stream variant.
      *
-     * @param employeeId The ID of the employee to retrieve
-     * @return The employee, or null if no employee with the given ID exists
+     * @return A lazy stream of employees sorted by salary in descending order
      */
-    public Employee<T> getEmployee(T employeeId) {
-        return employees.get(employeeId);
+    public Stream<Employee<T>> streamBySalary() {
+        Comparator<Employee<T>> order = EmployeeSortKey.SALARY.comparator(true);
+        return salaryIndex.descendingMap().values().stream().flatMap(bucket -> inOrder(bucket, order).stream());
     }
 
     /**
-     * Gets the number of employees.
-     * @return The number of employees
+     * Sorts employees by salary (highest first). Equal salaries are ordered by ID, as by {@link #getSortedPage}.
+     *
+     * @return A list of employees sorted by salary in descending order
      */
-    public int getEmployeeCount() {
-        return employees.size();
+    @Override
+    public List<Employee<T>> sortBySalary() {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        // The salary index is already ordered, so walking it backwards avoids a full sort
+        Comparator<Employee<T>> order = EmployeeSortKey.SALARY.comparator(true);
+        List<Employee<T>> sortedEmployees = new ArrayList<>(employees.size());
+        for (Set<Employee<T>> bucket : salaryIndex.descendingMap().values()) {
+            sortedEmployees.addAll(inOrder(bucket, order));
+        }
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.SORT_BY_SALARY, start, sortedEmployees.size(), true);
+        }
+        return sortedEmployees;
+    }
+
+    /**
+     * Sorts employees by performance rating (best first).
+     *
+     * @return A list of employees sorted by performance rating in descending order
+     */
+    @Override
+    public List<Employee<T>> sortByPerformance() {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        // Walking the rating index backwards gives the same order as EmployeePerformanceComparator, without a sort
+        List<Employee<T>> sortedEmployees = new ArrayList<>(employees.size());
+        for (Set<Employee<T>> bucket : ratingIndex.descendingMap().values()) {
+            sortedEmployees.addAll(bucket);
+        }
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.SORT_BY_PERFORMANCE, start, sortedEmployees.size(), true);
+        }
+        return sortedEmployees;
+    }
+
+    /**
+     * Sorts employees by years of experience (most experienced first).
+     *
+     * @return A list of employees sorted by years of experience in descending order
+     */
+    @Override
+    public List<Employee<T>> sortByExperience() {
+        // Same order as the natural ordering defined by compareTo; the sort is cached until experience changes
+        return measuredPage(EmployeeMetrics.Operation.SORT_BY_EXPERIENCE, EmployeeSortKey.YEARS_OF_EXPERIENCE, true,
+                0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the first employees in the given order, such as the ten most experienced.
+     *
+     * @param key The field to sort by
+     * @param descending Whether to sort highest first
+     * @param k The number of employees to return
+     * @return Up to k employees, in order
+     */
+    public List<Employee<T>> getTopEmployees(EmployeeSortKey key, boolean descending, int k) {
+        return measuredPage(EmployeeMetrics.Operation.TOP_EMPLOYEES, Objects.requireNonNull(key), descending, 0, k);
+    }
+
+    /**
+     * Gets one page of employees in the given order, for views that show a window of a large table.
+     * <p>
+     * Salary and rating orders are read from their index, skipping whole buckets up to the offset and sorting
+     * by ID only the buckets the page reaches into. The other orders are sorted once and the order is kept, so later pages cost only their own length until an
+     * employee is added or removed or the sorted field changes. A page near the top is answered by keeping
+     * the first employees in a bounded heap, in O(n log k), and a full sort is done only for pages further
+     * down. The kept order holds one reference per employee for each sort key used.
+     *
+     * @param key The field to sort by, or null for storage order
+     * @param descending Whether to sort highest first
+     * @param offset The number of employees to skip
+     * @param limit The maximum number of employees to return
+     * @return Up to limit employees, starting at offset
+     */
+    public List<Employee<T>> getSortedPage(EmployeeSortKey key, boolean descending, int offset, int limit) {
+        return measuredPage(EmployeeMetrics.Operation.SORTED_PAGE, key, descending, offset, limit);
+    }
+
+    private List<Employee<T>> measuredPage(EmployeeMetrics.Operation operation, EmployeeSortKey key,
+                                           boolean descending, int offset, int limit) {
+        EmployeeMetrics recorder = metrics;
+        if (recorder == null) {
+            return sortedPage(key, descending, offset, limit);
+        }
+        long start = System.nanoTime();
+        // Orders read from an index are never kept, so they compare equal too
+        SortedOrder<T> kept = key == null ? null : sortedOrders.get(key.ordinal());
+        List<Employee<T>> page = sortedPage(key, descending, offset, limit);
+        recorder.record(operation, start, page.size(), key == null || kept == sortedOrders.get(key.ordinal()));
+        return page;
+    }
+
+    private List<Employee<T>> sortedPage(EmployeeSortKey key, boolean descending, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Invalid page: offset " + offset + ", limit " + limit);
+        }
+        if (key == null) {
+            return page(List.of(employees.values()), offset, limit, null);
+        }
+        return switch (key) {
+            case SALARY -> page((descending ? salaryIndex.descendingMap() : salaryIndex).values(), offset, limit,
+                    key.comparator(descending));
+            case PERFORMANCE_RATING -> page((descending ? ratingIndex.descendingMap() : ratingIndex).values(),
+                    offset, limit, key.comparator(descending));
+            default -> sortedOrder(key, descending, (int) Math.min((long) offset + limit, Integer.MAX_VALUE))
+                    .page(descending, offset, limit, employees);
+        };
+    }
+
+    /**
+     * Gets a sorted order of an unindexed key that reaches at least a given position, reusing the kept one
+     * if no relevant change has happened since it was built.
+     */
+    private SortedOrder<T> sortedOrder(EmployeeSortKey key, boolean descending, int end) {
+        // Read before sorting: a change made while sorting leaves the order marked as older than it is
+        long changeCount = changeCount(key);
+        SortedOrder<T> order = sortedOrders.get(key.ordinal());
+        if (order != null && order.changeCount() == changeCount && order.reaches(descending, end)) {
+            return order;
+        }
+        int size = employees.size();
+        // Double the prefix each time, so that scrolling down rebuilds it only a logarithmic number of times
+        int k = (int) Math.min(Math.max(2L * end, 1024), Integer.MAX_VALUE);
+        if (k < size / 8) {
+            TopK<Employee<T>> first = new TopK<>(k, key.comparator(descending));
+            for (Employee<T> employee : employees.values()) {
+                first.offer(employee);
+            }
+            order = new SortedOrder<>(changeCount, descending, toArray(first.toSortedList()), false);
+        } else {
+            // Past an eighth of the employees a full sort costs about the same, and serves every page both ways
+            Employee<T>[] all = toArray(employees.values());
+            if (all.length >= parallelThreshold) {
+                Arrays.parallelSort(all, key.comparator(false));
+            } else {
+                Arrays.sort(all, key.comparator(false));
+            }
+            order = new SortedOrder<>(changeCount, false, all, true);
+        }
+        sortedOrders.set(key.ordinal(), order);
+        return order;
+    }
+
+    private long changeCount(EmployeeSortKey key) {
+        int field = key.field();
+        long count = changeCounts.get(MEMBERSHIP_CHANGES);
+        return field == 0 ? count : count + changeCounts.get(Integer.numberOfTrailingZeros(field));
+    }
+
+    /**
+     * Sums the change counters of inserts and removals and of the given fields. The counters only grow,
+     * so the sum changes whenever any of them does.
+     */
+    private long changeCount(int fields) {
+        long count = changeCounts.get(MEMBERSHIP_CHANGES);
+        for (int remaining = fields; remaining != 0; remaining &= remaining - 1) {
+            count += changeCounts.get(Integer.numberOfTrailingZeros(remaining));
+        }
+        return count;
+    }
+
+    private void countDepartmentChange(String department) {
+        departmentChanges.incrementAndGet(stripe(departmentKey(department)));
+    }
+
+    private void countAllDepartmentChanges() {
+        for (int stripe = 0; stripe < departmentChanges.length(); stripe++) {
+            departmentChanges.incrementAndGet(stripe);
+        }
+    }
+
+    private void countChanges(int fields) {
+        for (int remaining = fields; remaining != 0; remaining &= remaining - 1) {
+            changeCounts.incrementAndGet(Integer.numberOfTrailingZeros(remaining));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Employee<T>[] toArray(Collection<Employee<T>> employees) {
+        return employees.toArray(new Employee[0]);
+    }
+
+    /**
+     * A sorted order of one key: every employee in ascending order, or only the first ones in the requested
+     * direction when a bounded heap was enough.
+     *
+     * @param changeCount The change count of the key when the order was built
+     * @param descending The direction of a partial order; a complete order is always ascending
+     * @param employees The employees in order
+     * @param complete Whether every employee is included
+     */
+    private record SortedOrder<T>(long changeCount, boolean descending, Employee<T>[] employees, boolean complete) {
+
+        boolean reaches(boolean direction, int end) {
+            return complete || direction == descending && end <= employees.length;
+        }
+
+        /**
+         * Copies a page of the order.
+         *
+         * @param current The primary map to look up the newest version of each employee in
+         */
+        List<Employee<T>> page(boolean direction, int offset, int limit, Map<T, Employee<T>> current) {
+            int end = (int) Math.min((long) offset + limit, employees.length);
+            List<Employee<T>> page = new ArrayList<>(Math.max(end - offset, 0));
+            boolean reversed = complete && direction;
+            for (int position = offset; position < end; position++) {
+                // A copy-on-write change to another field may have replaced the employee without invalidating the order
+                Employee<T> employee = current.get(employees[reversed ? employees.length - 1 - position : position]
+                        .getEmployeeId());
+                if (employee != null) {
+                    page.add(employee);
+                }
+            }
+            return page;
+        }
+    }
+
+    /**
+     * Orders the employees of an index bucket, whose own iteration order is arbitrary.
+     *
+     * @param bucket The bucket
+     * @param order The order, which breaks ties by ID
+     * @return The employees in order, or the bucket itself if it holds at most one
+     */
+    private static <T> Collection<Employee<T>> inOrder(Set<Employee<T>> bucket, Comparator<Employee<T>> order) {
+        if (bucket.size() <= 1) {
+            return bucket;
+        }
+        List<Employee<T>> sorted = new ArrayList<>(bucket);
+        sorted.sort(order);
+        return sorted;
+    }
+
+    /**
+     * Collects one page from a sequence of buckets. Buckets that fall entirely before the offset are
+     * skipped by their size, without visiting their elements.
+     *
+     * @param order The order of the elements within a bucket, or null to take each bucket as it iterates
+     */
+    private static <E> List<E> page(Collection<? extends Collection<E>> buckets, int offset, int limit,
+                                    Comparator<? super E> order) {
+        List<E> page = new ArrayList<>(Math.min(limit, 1024));
+        int skip = offset;
+        for (Collection<E> bucket : buckets) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (skip >= bucket.size()) {
+                skip -= bucket.size();
+                continue;
+            }
+            Collection<E> elements = bucket;
+            if (order != null && bucket.size() > 1) {
+                List<E> sorted = new ArrayList<>(bucket);
+                sorted.sort(order);
+                elements = sorted;
+            }
+            for (E element : elements) {
+                if (skip > 0) {
+                    skip--;
+                } else if (page.size() < limit) {
+                    page.add(element);
+                } else {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Gives a salary raise to employees with high performance ratings.
+     *
+     * @param minRating The minimum performance rating required for a raise
+     * @param percentageRaise The percentage salary raise
+     * @return The number of employees who received a raise
+     */
+    @Override
+    public int giveSalaryRaise(double minRating, double percentageRaise) {
+        return applySalaryRaise(minRating, percentageRaise).size();
+    }
+
+    /**
+     * Gives a salary raise to employees with high performance ratings, as one batch.
+     * <p>
+     * In single-threaded mode candidates come from the rating index instead of a scan, and the salary index
+     * and department statistics are updated once for the whole batch. In concurrent mode each employee is
+     * still changed under its own lock, so readers never see a half-indexed employee. Either way, if the batch
+     * fails partway through, every salary it already changed is put back before the exception is rethrown.
+     *
+     * @param minRating The minimum performance rating required for a raise
+     * @param percentageRaise The percentage salary raise
+     * @return The salaries changed, with their old and new values
+     */
+    public SalaryJournal<T> applySalaryRaise(double minRating, double percentageRaise) {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        List<T> candidates = new ArrayList<>();
+        if (concurrent) {
+            // An employee being updated is briefly missing from the secondary indexes, which would cost
+            // them their raise, so candidates come from the primary map, which always holds every employee
+            for (Employee<T> employee : employees.values()) {
+                if (employee.getPerformanceRating() >= minRating) {
+                    candidates.add(employee.getEmployeeId());
+                }
+            }
+        } else {
+            for (Set<Employee<T>> bucket : ratingBuckets(minRating)) {
+                for (Employee<T> employee : bucket) {
+                    candidates.add(employee.getEmployeeId());
+                }
+            }
+        }
+        double factor = 1 + percentageRaise / 100;
+        // The rating is checked again in case another writer changed it since the index was read
+        SalaryJournal<T> journal = changeSalaries(candidates, (candidate, current) ->
+                current.getPerformanceRating() >= minRating ? current.getSalary() * factor : Double.NaN);
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.SALARY_RAISE, start, journal.size(), !concurrent);
+        }
+        return journal;
+    }
+
+    /**
+     * Puts back the salaries from before a batch. An employee whose salary has changed again since the batch,
+     * or who no longer exists, is left alone.
+     *
+     * @param journal The journal of the batch to undo
+     * @return The salaries changed back
+     */
+    public SalaryJournal<T> revertSalaryJournal(SalaryJournal<T> journal) {
+        return changeSalaries(journal.employeeIds(), (entry, current) ->
+                Double.compare(current.getSalary(), journal.getSalaryAfter(entry)) == 0
+                        ? journal.getSalaryBefore(entry) : Double.NaN);
+    }
+
+    /**
+     * Applies the salaries from after a batch again, for example to a database restored from before it.
+     * Only employees whose salary is still the one from before the batch are changed.
+     *
+     * @param journal The journal of the batch to apply
+     * @return The salaries changed
+     */
+    public SalaryJournal<T> replaySalaryJournal(SalaryJournal<T> journal) {
+        return changeSalaries(journal.employeeIds(), (entry, current) ->
+                Double.compare(current.getSalary(), journal.getSalaryBefore(entry)) == 0
+                        ? journal.getSalaryAfter(entry) : Double.NaN);
+    }
+
+    /**
+     * How one {@link EmployeeQuery} is answered: where the candidates are read from, and what is checked on each.
+     */
+    private final class QueryPlan {
+        private final EmployeeQuery query;
+        private boolean matchesNothing;
+
+        // Indexes probed for the department and name conditions, or null without such a condition
+        private Set<Employee<T>> departmentBucket;
+        private List<Set<Employee<T>>> namePostings;
+
+        // The candidates: buckets of an index, or the primary map for a full scan
+        private String source = "full scan";
+        private Collection<? extends Collection<Employee<T>>> candidates = List.of(employees.values());
+        private int estimate = employees.size();
+        // Set when the candidates come from a salary or rating range, which can also be read backwards
+        private NavigableMap<Double, Set<Employee<T>>> range;
+        private EmployeeSortKey rangeKey;
+        // Set when the sort index is walked in order instead: the expected number of employees visited
+        private long expectedVisits = -1;
+
+        QueryPlan(EmployeeQuery query) {
+            this.query = query;
+            if (query.matchesNothing()) {
+                matchesNothing = true;
+                return;
+            }
+            // Bucket and posting sizes are free, so they go first and cap the cost of counting the ranges
+            if (query.getDepartment() != null) {
+                departmentBucket = departmentIndex.getOrDefault(departmentKey(query.getDepartment()),
+                        Collections.emptySet());
+                consider("department index", List.of(departmentBucket), departmentBucket.size());
+            }
+            String name = query.getNameContains();
+            if (name != null && name.length() >= NAME_GRAM_LENGTH) {
+                namePostings = new ArrayList<>();
+                for (int start = 0; start + NAME_GRAM_LENGTH <= name.length(); start++) {
+                    Set<Employee<T>> posting = nameIndex.get(nameGram(name, start));
+                    if (posting == null) {
+                        matchesNothing = true;
+                        return;
+                    }
+                    namePostings.add(posting);
+                }
+                namePostings.sort(Comparator.comparingInt(Set::size));
+                consider("name index", List.of(namePostings.getFirst()), namePostings.getFirst().size());
+            }
+            NavigableMap<Double, Set<Employee<T>>> salaryRange = salaryIndex;
+            if (query.hasSalaryRange()) {
+                salaryRange = salaryIndex.subMap(numberKey(query.getMinSalary()), true,
+                        numberKey(query.getMaxSalary()), true);
+                considerRange("salary index", salaryRange, EmployeeSortKey.SALARY);
+            }
+            NavigableMap<Double, Set<Employee<T>>> ratingRange = ratingIndex;
+            if (query.hasMinRating()) {
+                ratingRange = ratingIndex.subMap(numberKey(query.getMinRating()), true, Double.POSITIVE_INFINITY, true);
+                considerRange("rating index", ratingRange, EmployeeSortKey.PERFORMANCE_RATING);
+            }
+
+            // Walking the sort index in order visits about limit * size / matches employees, if the matches
+            // are spread evenly over it; that beats reading the candidates when few matches are wanted
+            EmployeeSortKey sortKey = query.getSortKey();
+            NavigableMap<Double, Set<Employee<T>>> sortRange = sortKey == EmployeeSortKey.SALARY ? salaryRange
+                    : sortKey == EmployeeSortKey.PERFORMANCE_RATING ? ratingRange : null;
+            long visits = (long) query.getLimit() * employees.size() / Math.max(estimate, 1);
+            if (sortRange != null && rangeKey != sortKey && visits < estimate) {
+                expectedVisits = visits;
+                source = (sortKey == EmployeeSortKey.SALARY ? "salary" : "rating") + " index in order";
+                candidates = sortRange.values();
+                range = sortRange;
+                rangeKey = sortKey;
+            }
+        }
+
+        private void consider(String indexSource, Collection<? extends Collection<Employee<T>>> buckets, int size) {
+            if (size < estimate) {
+                source = indexSource;
+                candidates = buckets;
+                estimate = size;
+                range = null;
+                rangeKey = null;
+            }
+        }
+
+        private void considerRange(String indexSource, NavigableMap<Double, Set<Employee<T>>> buckets,
+                                   EmployeeSortKey key) {
+            // Counting stops at the best estimate so far, so a wide range costs no more than the scan it loses to
+            int size = 0;
+            for (Set<Employee<T>> bucket : buckets.values()) {
+                size += bucket.size();
+                if (size >= estimate) {
+                    return;
+                }
+            }
+            consider(indexSource, buckets.values(), size);
+            range = buckets;
+            rangeKey = key;
+        }
+
+        /**
+         * Checks whether the plan avoids reading every employee.
+         */
+        boolean usesIndex() {
+            return matchesNothing || !source.equals("full scan");
+        }
+
+        private boolean inSortOrder() {
+            return query.getSortKey() != null && query.getSortKey() == rangeKey;
+        }
+
+        private boolean matches(Employee<T> employee) {
+            return query.matchesNumbers(employee)
+                    && (departmentBucket == null || departmentBucket.contains(employee))
+                    && (query.getNameContains() == null
+                            || (namePostings == null || inEvery(namePostings, employee))
+                            && nameContains(employee, query.getNameContains()));
+        }
+
+        List<Employee<T>> run() {
+            if (matchesNothing) {
+                return new ArrayList<>();
+            }
+            int limit = query.getLimit();
+            EmployeeSortKey sortKey = query.getSortKey();
+            if (candidates.size() == 1 && range == null && limit == Integer.MAX_VALUE) {
+                // Nothing to stop early for, so a large scan may run in parallel
+                List<Employee<T>> result = scan(candidates.iterator().next()).filter(this::matches)
+                        .collect(Collectors.toList());
+                if (sortKey != null) {
+                    result.sort(sortKey.comparator(query.isDescending()));
+                }
+                return result;
+            }
+            if (sortKey == null || inSortOrder()) {
+                // Candidates arrive in the wanted order, so the first matches are the answer
+                Collection<? extends Collection<Employee<T>>> buckets =
+                        inSortOrder() && query.isDescending() ? range.descendingMap().values() : candidates;
+                List<Employee<T>> result = new ArrayList<>(Math.min(limit, estimate));
+                if (sortKey == null) {
+                    for (Collection<Employee<T>> bucket : buckets) {
+                        for (Employee<T> employee : bucket) {
+                            if (matches(employee)) {
+                                result.add(employee);
+                                if (result.size() == limit) {
+                                    return result;
+                                }
+                            }
+                        }
+                    }
+                    return result;
+                }
+                // The employees of one bucket tie on the sort key, so only their IDs remain to be ordered
+                Comparator<Employee<T>> order = sortKey.comparator(query.isDescending());
+                List<Employee<T>> tied = new ArrayList<>();
+                for (Collection<Employee<T>> bucket : buckets) {
+                    for (Employee<T> employee : bucket) {
+                        if (matches(employee)) {
+                            tied.add(employee);
+                        }
+                    }
+                    tied.sort(order);
+                    for (Employee<T> employee : tied) {
+                        result.add(employee);
+                        if (result.size() == limit) {
+                            return result;
+                        }
+                    }
+                    tied.clear();
+                }
+                return result;
+            }
+            Comparator<Employee<T>> order = sortKey.comparator(query.isDescending());
+            if (limit == Integer.MAX_VALUE) {
+                List<Employee<T>> result = new ArrayList<>();
+                for (Collection<Employee<T>> bucket : candidates) {
+                    for (Employee<T> employee : bucket) {
+                        if (matches(employee)) {
+                            result.add(employee);
+                        }
+                    }
+                }
+                result.sort(order);
+                return result;
+            }
+            TopK<Employee<T>> first = new TopK<>(limit, order);
+            for (Collection<Employee<T>> bucket : candidates) {
+                for (Employee<T> employee : bucket) {
+                    if (matches(employee)) {
+                        first.offer(employee);
+                    }
+                }
+            }
+            return first.toSortedList();
+        }
+
+        @Override
+        public String toString() {
+            if (matchesNothing) {
+                return "no match possible";
+            }
+            if (expectedVisits >= 0) {
+                return source + ", about " + expectedVisits + " visited, stop after " + query.getLimit() + " matches";
+            }
+            String plan = source + ", " + estimate + " candidates";
+            if (query.getSortKey() == null || inSortOrder()) {
+                return query.getLimit() < estimate ? plan + ", stop after " + query.getLimit() + " matches" : plan;
+            }
+            return query.getLimit() < estimate
+                    ? plan + ", first " + query.getLimit() + " by " + query.getSortKey() + " in a bounded heap"
+                    : plan + ", sorted by " + query.getSortKey();
+        }
+    }
+
+    /**
+     * Keeps the first k of the elements offered, in some order. The heap holds at most k elements, with the
+     * last of them at its head, so nothing needs to be sorted until the end.
+     */
+    private static final class TopK<E> {
+        private final int k;
+        private final Comparator<? super E> order;
+        private final PriorityQueue<E> heap;
+
+        TopK(int k, Comparator<? super E> order) {
+            this.k = k;
+            this.order = order;
+            heap = new PriorityQueue<>(Math.min(k, 1024) + 1, Collections.reverseOrder(order));
+        }
+
+        void offer(E element) {
+            if (heap.size() < k) {
+                heap.add(element);
+            } else if (k > 0 && order.compare(element, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(element);
+            }
+        }
+
+        List<E> toSortedList() {
+            List<E> sorted = new ArrayList<>(heap);
+            sorted.sort(order);
+            return sorted;
+        }
+    }
+
+    /**
+     * Works out the new salary of one employee in a salary batch.
+     */
+    @FunctionalInterface
+    private interface SalaryRule<T> {
+        /**
+         * @param candidate The position of the employee's ID in the batch
+         * @param current The employee
+         * @return The new salary, or NaN to leave the employee alone
+         */
+        double newSalary(int candidate, Employee<T> current);
+    }
+
+    /**
+     * Changes the salaries of a batch of employees and logs them with one commit.
+     *
+     * @param employeeIds The candidates; IDs without an employee are skipped
+     * @param rule Gives each candidate's new salary
+     * @return The salaries changed
+     */
+    private SalaryJournal<T> changeSalaries(List<T> employeeIds, SalaryRule<T> rule) {
+        SalaryJournal<T> journal = new SalaryJournal<>();
+        if (concurrent || latestEpoch != null) {
+            // Changed one by one, copy-on-write, as by updateEmployeeDetails
+            batchLock.readLock().lock();
+            try {
+                for (int candidate = 0; candidate < employeeIds.size(); candidate++) {
+                    int entry = candidate;
+                    T employeeId = employeeIds.get(entry);
+                    mutate(employeeId, EmployeePatch.SALARY, current -> {
+                        double salary = rule.newSalary(entry, current);
+                        if (Double.isNaN(salary)) {
+                            return false;
+                        }
+                        double before = current.getSalary();
+                        current.setSalary(salary);
+                        if (log != null) {
+                            // The new salary is logged rather than the raise, so replay is exact and idempotent
+                            log.appendUpdate(employeeId, "salary", salary);
+                        }
+                        journal.add(employeeId, before, salary);
+                        return true;
+                    });
+                }
+            } catch (RuntimeException e) {
+                // A failed mutation leaves its employee untouched, so only the journaled ones need undoing
+                try {
+                    revertSalaryJournal(journal);
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            } finally {
+                batchLock.readLock().unlock();
+            }
+            commitLog(); // One commit for the whole batch
+            return journal;
+        }
+
+        List<Employee<T>> changed = new ArrayList<>();
+        for (int candidate = 0; candidate < employeeIds.size(); candidate++) {
+            T employeeId = employeeIds.get(candidate);
+            Employee<T> current = employees.get(employeeId);
+            if (current == null) {
+                continue;
+            }
+            double salary = rule.newSalary(candidate, current);
+            if (!Double.isNaN(salary)) {
+                journal.add(employeeId, current.getSalary(), salary);
+                changed.add(current);
+            }
+        }
+        if (changed.isEmpty()) {
+            return journal;
+        }
+        reindexSalaries(changed, journal, false);
+        int logged = 0;
+        try {
+            if (log != null) {
+                for (; logged < changed.size(); logged++) {
+                    log.appendUpdate(journal.getEmployeeId(logged), "salary", journal.getSalaryAfter(logged));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Put every old salary back, and log it for the employees whose new salary made it into the log
+            reindexSalaries(changed, journal, true);
+            try {
+                for (int entry = 0; entry < logged; entry++) {
+                    log.appendUpdate(journal.getEmployeeId(entry), "salary", journal.getSalaryBefore(entry));
+                }
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        commitLog(); // One commit for the whole batch
+        for (EmployeeListener<T> listener : listeners) {
+            for (Employee<T> employee : changed) {
+                listener.employeeUpdated(employee, "salary");
+            }
+        }
+        return journal;
+    }
+
+    /**
+     * Retrieves the top N highest-paid employees. Equal salaries are ordered by ID, as by {@link #getSortedPage}.
+     *
+     * @param n The number of top employees to retrieve
+     * @return A list of the top N highest-paid employees
+     */
+    @Override
+    public List<Employee<T>> getTopPaidEmployees(int n) {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        // Only the highest salary buckets are visited, and only they are ordered
+        List<Employee<T>> topPaid = cached(EmployeeMetrics.Operation.TOP_PAID, n, EmployeePatch.SALARY, null,
+                () -> streamBySalary()
+                        .limit(n)
+                        .collect(Collectors.toList()));
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.TOP_PAID, start, topPaid.size(), true);
+        }
+        return topPaid;
+    }
+
+    /**
+     * Calculates the average salary of employees in a specific department.
+     *
+     * @param department The department to calculate the average salary for
+     * @return The average salary, or 0 if no employees in the department
+     */
+    @Override
+    public double getAverageSalaryByDepartment(String department) {
+        return getDepartmentStats(department).averageSalary();
+    }
+
+    /**
+     * Gets the aggregate figures of a department without scanning its employees.
+     * They are kept up to date on every change, and always equal what a fresh scan would compute.
+     *
+     * @param department The department, ignoring case
+     * @return The figures, all 0 if the department has no employees
+     */
+    public DepartmentStats getDepartmentStats(String department) {
+        EmployeeMetrics recorder = metrics;
+        long start = recorder == null ? 0 : System.nanoTime();
+        String key = departmentKey(department);
+        DepartmentStats stats;
+        synchronized (lockFor(indexLocks, key)) {
+            DepartmentAggregate aggregate = departmentStats.get(key);
+            stats = aggregate == null
+                    ? DepartmentStats.EMPTY
+                    : aggregate.snapshot(departmentIndex.getOrDefault(key, Collections.emptySet()));
+        }
+        if (recorder != null) {
+            recorder.record(EmployeeMetrics.Operation.DEPARTMENT_STATS, start, stats.employeeCount(), true);
+        }
+        return stats;
+    }
+
+    /**
+     * Gets an employee by their ID.
+     *
+     * @param employeeId The ID of the employee to retrieve
+     * @return The employee, or null if no employee with the given ID exists
+     */
+    @Override
+    public Employee<T> getEmployee(T employeeId) {
+        EmployeeMetrics recorder = metrics;
+        if (recorder == null) {
+            return employees.get(employeeId);
+        }
+        long start = recorder.start(EmployeeMetrics.Operation.GET);
+        Employee<T> employee = employees.get(employeeId);
+        recorder.record(EmployeeMetrics.Operation.GET, start, employee == null ? 0 : 1);
+        return employee;
+    }
+
+    /**
+     * Gets the number of employees.
+     * @return The number of employees
+     */
+    @Override
+    public int getEmployeeCount() {
+        return employees.size();
+    }
+
+    /**
+     * Starts collecting metrics for every operation, or keeps collecting if already started.
+     *
+     * @return The metrics, which keep counting until {@link #disableMetrics}
+     */
+    public synchronized EmployeeMetrics enableMetrics() {
+        EmployeeMetrics enabled = metrics;
+        if (enabled == null) {
+            enabled = new EmployeeMetrics();
+            metrics = enabled;
+        }
+        return enabled;
+    }
+
+    /**
+     * Stops collecting metrics. Operations then only check that metrics are off. The figures collected so far
+     * stay readable from the {@link EmployeeMetrics} returned by {@link #enableMetrics}.
+     */
+    public synchronized void disableMetrics() {
+        metrics = null;
+    }
+
+    /**
+     * @return The metrics being collected, or null if metrics are disabled
+     */
+    public EmployeeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts keeping the results of searches by department, name, rating and salary, of top-paid employees
+     * and of {@link #query}, replacing any cache enabled before. A repeated search is answered from the cache
+     * until one of the fields it depends on changes or an employee is added or removed; a search within a
+     * department is only invalidated by changes to the employees of that department.
+     *
+     * @param maxEntries The number of results to keep; the least recently used one is evicted beyond that
+     * @param timeToLive How long a result may be used for, or null to keep it until it is invalidated or evicted
+     * @return The cache, for its hit ratio and eviction counts
+     */
+    public synchronized QueryCache enableQueryCache(int maxEntries, Duration timeToLive) {
+        QueryCache enabled = new QueryCache(maxEntries, timeToLive);
+        queryCache = enabled;
+        return enabled;
+    }
+
+    /**
+     * Stops caching search results and drops the ones cached.
+     */
+    public synchronized void disableQueryCache() {
+        QueryCache disabled = queryCache;
+        queryCache = null;
+        if (disabled != null) {
+            disabled.clear();
+        }
+    }
+
+    /**
+     * @return The query cache, or null if it is disabled
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Opens a point-in-time view of the database, for reads that must not see later changes. Opening a view
+     * copies nothing; writers briefly wait for it, and for any salary batch in progress to finish, but are never
+     * blocked by reads through the view. Must not be called from a listener.
+     *
+     * @return The view, to be closed when done
+     */
+    public EmployeeView<T> openView() {
+        List<EmployeeView.Epoch<T>> opened = new ArrayList<>(1);
+        batchLock.writeLock().lock();
+        try {
+            withAllEmployeeLocks(0, () -> {
+                EmployeeView.Epoch<T> epoch = latestEpoch;
+                // Views opened with no write in between share an epoch
+                if (epoch == null || !epoch.saved.isEmpty()) {
+                    EmployeeView.Epoch<T> newer = new EmployeeView.Epoch<>(employees.size(), concurrent);
+                    if (epoch != null) {
+                        epoch.next = newer;
+                    }
+                    latestEpoch = epoch = newer;
+                }
+                openViews++;
+                opened.add(epoch);
+            });
+        } finally {
+            batchLock.writeLock().unlock();
+        }
+        return new EmployeeView<>(this, opened.getFirst());
+    }
+
+    /**
+     * Called once by each view when it is closed. Once the last view is closed, writers stop saving versions;
+     * epochs still needed by a view stay reachable from it.
+     */
+    void closeView() {
+        withAllEmployeeLocks(0, () -> {
+            if (--openViews == 0) {
+                latestEpoch = null;
+            }
+        });
+    }
+
+    /**
+     * Copies the IDs of the current employees, for {@link EmployeeView#stream}.
+     */
+    List<T> employeeIds() {
+        return new ArrayList<>(employees.keySet());
+    }
+
+    /**
+     * Puts a new employee into the primary map, first telling the open views, if any, that the ID was free.
+     * Called while holding the employee's lock.
+     *
+     * @return false if the ID is already taken
+     */
+    private boolean insert(T employeeId, Employee<T> employee) {
+        EmployeeView.Epoch<T> epoch = latestEpoch;
+        if (epoch == null) {
+            return employees.putIfAbsent(employeeId, employee) == null;
+        }
+        if (employees.containsKey(employeeId)) {
+            return false;
+        }
+        epoch.save(employeeId, null);
+        employees.put(employeeId, employee);
+        return true;
+    }
+
+    /**
+     * Removes an employee from the primary map, first saving them for the open views, if any.
+     * Called while holding the employee's lock.
+     *
+     * @return The removed employee, or null if there was none
+     */
+    private Employee<T> delete(T employeeId) {
+        EmployeeView.Epoch<T> epoch = latestEpoch;
+        if (epoch == null) {
+            return employees.remove(employeeId);
+        }
+        Employee<T> removed = employees.get(employeeId);
+        if (removed != null) {
+            epoch.save(employeeId, removed);
+            employees.remove(employeeId);
+        }
+        return removed;
+    }
+
+    /**
+     * Applies a change to a single employee while holding its lock, keeping the indexes in step.
+     * In concurrent mode, or while a view is open, the change is made to a copy which then replaces the stored
+     * employee.
+     *
+     * @param employeeId The ID of the employee to change
+     * @param fields The {@link EmployeePatch} bits of the fields being changed
+     * @param change Applies the change and returns true, or returns false if nothing was changed
+     * @return true if the employee exists and the change was applied
+     */
+    private boolean mutate(T employeeId, int fields, Predicate<Employee<T>> change) {
+        synchronized (lockFor(employeeLocks, employeeId)) {
+            Employee<T> current = employees.get(employeeId);
+            if (current == null) {
+                return false;
+            }
+            EmployeeView.Epoch<T> epoch = latestEpoch;
+            // Read before the change, which may move the employee in place to another department
+            String department = current.getDepartment();
+            boolean copy = concurrent || epoch != null;
+            Employee<T> target = copy ? new Employee<>(current) : current;
+            // A new version must replace the old one in every bucket; an in-place change only moves
+            // the employee between buckets of the indexes on the changed fields
+            int reindexed = copy ? EmployeePatch.ALL_FIELDS : fields;
+            boolean changed = false;
+            unindex(current, reindexed);
+            try {
+                changed = change.test(target);
+            } finally {
+                Employee<T> result = changed ? target : current;
+                if (result != current) {
+                    if (epoch != null) {
+                        epoch.save(employeeId, current);
+                    }
+                    employees.put(employeeId, result);
+                }
+                index(result, reindexed);
+            }
+            if (changed) {
+                countChanges(fields);
+                countDepartmentChange(department);
+                if ((fields & EmployeePatch.DEPARTMENT) != 0) {
+                    countDepartmentChange(target.getDepartment());
+                }
+                if (target != current) {
+                    replacements.incrementAndGet();
+                }
+            }
+            if (changed && !listeners.isEmpty()) {
+                for (String field : EmployeePatch.fieldNames(fields)) {
+                    for (EmployeeListener<T> listener : listeners) {
+                        listener.employeeUpdated(target, field);
+                    }
+                }
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * Commits the attached log, if any. Called after the employee lock is released so that other
+     * writers are not held up while records are forced to disk.
+     */
+    private void commitLog() {
+        WriteAheadLog<T> attached = log;
+        if (attached == null) {
+            return;
+        }
+        try {
+            attached.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the employee log", e);
+        }
+    }
+
+    /**
+     * Adds an employee to every secondary index.
+     *
+     * @param employee The employee to index
+     */
+    private void index(Employee<T> employee) {
+        index(employee, EmployeePatch.ALL_FIELDS);
+    }
+
+    /**
+     * Adds an employee to the secondary indexes on the given fields.
+     *
+     * @param employee The employee to index
+     * @param fields The {@link EmployeePatch} bits of the indexed fields to cover
+     */
+    private void index(Employee<T> employee, int fields) {
+        if ((fields & STATS_FIELDS) != 0) {
+            String department = departmentKey(employee.getDepartment());
+            synchronized (lockFor(indexLocks, department)) {
+                if ((fields & EmployeePatch.DEPARTMENT) != 0) {
+                    departmentIndex.computeIfAbsent(department, key -> newBucket()).add(employee);
+                }
+                departmentStats.computeIfAbsent(department, key -> new DepartmentAggregate()).add(employee);
+            }
+        }
+        if ((fields & EmployeePatch.SALARY) != 0) {
+            addToBucket(salaryIndex, numberKey(employee.getSalary()), employee);
+        }
+        if ((fields & EmployeePatch.PERFORMANCE_RATING) != 0) {
+            addToBucket(ratingIndex, numberKey(employee.getPerformanceRating()), employee);
+        }
+        if ((fields & EmployeePatch.NAME) != 0) {
+            for (long gram : nameGrams(employee.getName())) {
+                addToBucket(nameIndex, gram, employee);
+            }
+        }
+    }
+
+    /**
+     * Removes an employee from every secondary index. Must be called before any indexed field changes.
+     *
+     * @param employee The employee to unindex
+     */
+    private void unindex(Employee<T> employee) {
+        unindex(employee, EmployeePatch.ALL_FIELDS);
+    }
+
+    /**
+     * Removes an employee from the secondary indexes on the given fields.
+     *
+     * @param employee The employee to unindex
+     * @param fields The {@link EmployeePatch} bits of the indexed fields to cover
+     */
+    private void unindex(Employee<T> employee, int fields) {
+        if ((fields & STATS_FIELDS) != 0) {
+            String department = departmentKey(employee.getDepartment());
+            synchronized (lockFor(indexLocks, department)) {
+                if ((fields & EmployeePatch.DEPARTMENT) != 0) {
+                    Set<Employee<T>> bucket = departmentIndex.get(department);
+                    if (bucket != null && bucket.remove(employee) && bucket.isEmpty()) {
+                        departmentIndex.remove(department);
+                    }
+                }
+                DepartmentAggregate aggregate = departmentStats.get(department);
+                if (aggregate != null) {
+                    aggregate.remove(employee);
+                    if (aggregate.isEmpty()) {
+                        departmentStats.remove(department);
+                    }
+                }
+            }
+        }
+        if ((fields & EmployeePatch.SALARY) != 0) {
+            removeFromBucket(salaryIndex, numberKey(employee.getSalary()), employee);
+        }
+        if ((fields & EmployeePatch.PERFORMANCE_RATING) != 0) {
+            removeFromBucket(ratingIndex, numberKey(employee.getPerformanceRating()), employee);
+        }
+        if ((fields & EmployeePatch.NAME) != 0) {
+            for (long gram : nameGrams(employee.getName())) {
+                removeFromBucket(nameIndex, gram, employee);
+            }
+        }
+    }
+
+    /**
+     * Grows the primary map so that it holds the expected number of employees without rehashing.
+     * Only for single-threaded mode.
+     */
+    private void presize(int expectedSize) {
+        if (employees instanceof IntEmployeeMap<?> intMap) {
+            intMap.ensureCapacity(expectedSize);
+        } else if (employees instanceof HashMap<T, Employee<T>> && expectedSize > 2 * employees.size()) {
+            Map<T, Employee<T>> resized = HashMap.newHashMap(expectedSize);
+            resized.putAll(employees);
+            employees = resized;
+        }
+    }
+
+    /**
+     * Adds many employees to every secondary index in one sweep. Runs of employees with the same salary
+     * or department share a single index lookup. Only for a database that is not yet shared between threads.
+     *
+     * @param added The employees to index
+     */
+    private void indexAll(List<Employee<T>> added) {
+        List<Employee<T>> bySalary = new ArrayList<>(added);
+        bySalary.sort(Comparator.comparingDouble(Employee::getSalary)); // Linear when already in salary order
+
+        // Name buckets grow to a large share of all employees, so they are sized once up front instead of
+        // being rehashed again and again while they fill
+        long[][] grams = new long[bySalary.size()][];
+        Map<Long, int[]> gramCounts = new HashMap<>();
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = nameGrams(bySalary.get(i).getName());
+            for (long gram : grams[i]) {
+                gramCounts.computeIfAbsent(gram, key -> new int[1])[0]++;
+            }
+        }
+        gramCounts.forEach((gram, count) -> nameIndex.computeIfAbsent(gram, key -> newBucket(count[0])));
+
+        Map<String, Set<Employee<T>>> departmentBuckets = new HashMap<>();
+        Map<String, DepartmentAggregate> departmentAggregates = new HashMap<>();
+        Map<Double, Set<Employee<T>>> ratingBuckets = new HashMap<>();
+        double lastSalary = Double.NaN;
+        Set<Employee<T>> salaryBucket = null;
+        for (int i = 0; i < grams.length; i++) {
+            Employee<T> employee = bySalary.get(i);
+            double salary = numberKey(employee.getSalary());
+            if (salaryBucket == null || Double.compare(salary, lastSalary) != 0) {
+                salaryBucket = salaryIndex.computeIfAbsent(salary, key -> newBucket());
+                lastSalary = salary;
+            }
+            salaryBucket.add(employee);
+            // Departments repeat heavily, so each distinct string is normalized and looked up only once
+            departmentBuckets.computeIfAbsent(employee.getDepartment(),
+                    department -> departmentIndex.computeIfAbsent(departmentKey(department), key -> newBucket()))
+                    .add(employee);
+            departmentAggregates.computeIfAbsent(employee.getDepartment(), department ->
+                    departmentStats.computeIfAbsent(departmentKey(department), key -> new DepartmentAggregate()))
+                    .add(employee);
+            // Ratings take few distinct values, so they are cached like departments
+            ratingBuckets.computeIfAbsent(numberKey(employee.getPerformanceRating()),
+                    rating -> ratingIndex.computeIfAbsent(rating, key -> newBucket()))
+                    .add(employee);
+            for (long gram : grams[i]) {
+                nameIndex.get(gram).add(employee);
+            }
+            grams[i] = null;
+        }
+    }
+
+    /**
+     * Sets the salaries of a batch of employees in single-threaded mode, moving them in the salary index and
+     * department statistics with one sweep over the old salaries and one over the new ones, so that employees
+     * sharing a salary share a single bucket lookup.
+     *
+     * @param changed The employees, in journal order
+     * @param journal The old and new salaries
+     * @param revert true to set the old salaries, false to set the new ones
+     */
+    private void reindexSalaries(List<Employee<T>> changed, SalaryJournal<T> journal, boolean revert) {
+        Map<String, DepartmentAggregate> aggregates = new HashMap<>();
+        List<Employee<T>> bySalary = new ArrayList<>(changed);
+        bySalary.sort(Comparator.comparingDouble(Employee::getSalary));
+        Set<Employee<T>> bucket = null;
+        double bucketSalary = Double.NaN;
+        for (Employee<T> employee : bySalary) {
+            double salary = numberKey(employee.getSalary());
+            if (bucket == null || Double.compare(salary, bucketSalary) != 0) {
+                bucket = salaryIndex.get(salary);
+                bucketSalary = salary;
+            }
+            if (bucket.remove(employee) && bucket.isEmpty()) {
+                salaryIndex.remove(salary);
+            }
+            // Aggregates are not dropped when they empty here, since the same employees are added back below
+            aggregates.computeIfAbsent(employee.getDepartment(),
+                    department -> departmentStats.get(departmentKey(department))).remove(employee);
+        }
+
+        for (int entry = 0; entry < changed.size(); entry++) {
+            changed.get(entry).setSalary(revert ? journal.getSalaryBefore(entry) : journal.getSalaryAfter(entry));
+        }
+
+        bySalary.sort(Comparator.comparingDouble(Employee::getSalary));
+        bucket = null;
+        for (Employee<T> employee : bySalary) {
+            double salary = numberKey(employee.getSalary());
+            if (bucket == null || Double.compare(salary, bucketSalary) != 0) {
+                bucket = salaryIndex.computeIfAbsent(salary, key -> newBucket());
+                bucketSalary = salary;
+            }
+            bucket.add(employee);
+            aggregates.get(employee.getDepartment()).add(employee);
+        }
+        countChanges(EmployeePatch.SALARY);
+        aggregates.keySet().forEach(this::countDepartmentChange);
+    }
+
+    /**
+     * Gets the rating index buckets from a minimum rating up. Buckets of NaN ratings, which sort last,
+     * are left out because NaN is never {@code >=} a minimum.
+     */
+    private Collection<Set<Employee<T>>> ratingBuckets(double minRating) {
+        if (!(minRating <= Double.POSITIVE_INFINITY)) {
+            return Collections.emptyList();
+        }
+        return ratingIndex.subMap(numberKey(minRating), true, Double.POSITIVE_INFINITY, true).values();
+    }
+
+    /**
+     * Streams a collection, in parallel if it is at least as large as the parallel threshold.
+     */
+    private <E> Stream<E> scan(Collection<E> source) {
+        Stream<E> stream = source.stream();
+        return source.size() >= parallelThreshold ? stream.parallel() : stream;
+    }
+
+    private Set<Employee<T>> newBucket() {
+        return concurrent ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    }
+
+    private Set<Employee<T>> newBucket(int expectedSize) {
+        return concurrent ? ConcurrentHashMap.newKeySet(expectedSize) : HashSet.newHashSet(expectedSize);
+    }
+
+    private <K> void addToBucket(Map<K, Set<Employee<T>>> index, K key, Employee<T> employee) {
+        synchronized (lockFor(indexLocks, key)) {
+            index.computeIfAbsent(key, k -> newBucket()).add(employee);
+        }
+    }
+
+    private <K> void removeFromBucket(Map<K, Set<Employee<T>>> index, K key, Employee<T> employee) {
+        // Empty buckets are dropped under the same lock that creates them, so no add can be lost
+        synchronized (lockFor(indexLocks, key)) {
+            Set<Employee<T>> bucket = index.get(key);
+            if (bucket != null && bucket.remove(employee) && bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private <E extends Exception> void withAllEmployeeLocks(int stripe, LockedAction<E> action) throws E {
+        // Stripes are always taken in index order, and writers hold at most one, so this cannot deadlock
+        if (stripe == employeeLocks.length) {
+            action.run();
+            return;
+        }
+        synchronized (employeeLocks[stripe]) {
+            withAllEmployeeLocks(stripe + 1, action);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LockedAction<E extends Exception> {
+        void run() throws E;
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static Object lockFor(Object[] locks, Object key) {
+        return locks[stripe(key)];
+    }
+
+    private static int stripe(Object key) {
+        int hash = Objects.hashCode(key);
+        return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    /**
+     * Normalizes a department name so lookups are case-insensitive.
+     */
+    private static String departmentKey(String department) {
+        return department == null ? "" : department.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the trigrams of a lower-cased name, each packed into a long. Names shorter than a trigram have none.
+     */
+    private static long[] nameGrams(String name) {
+        if (name == null) {
+            return new long[0];
+        }
+        String normalized = name.toLowerCase();
+        long[] grams = new long[Math.max(normalized.length() - NAME_GRAM_LENGTH + 1, 0)];
+        for (int start = 0; start < grams.length; start++) {
+            grams[start] = nameGram(normalized, start);
+        }
+        return grams;
+    }
+
+    private static long nameGram(String normalized, int start) {
+        return (long) normalized.charAt(start) << 32 | (long) normalized.charAt(start + 1) << 16
+                | normalized.charAt(start + 2);
+    }
+
+    private static <E> boolean inEvery(List<Set<E>> sets, E element) {
+        for (Set<E> set : sets) {
+            if (!set.contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean nameContains(Employee<?> employee, String query) {
+        return employee.getName() != null && employee.getName().toLowerCase().contains(query);
+    }
+
+    /**
+     * Normalizes a salary or rating for use as an index key, folding -0.0 into 0.0 so range bounds behave like
+     * {@code >=}/{@code <=}.
+     */
+    private static double numberKey(double value) {
+        return value + 0.0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes employees to a channel as CSV or JSON lines, one employee at a time.
+ * <p>
+ * Each row is encoded into a fixed buffer that is written out whenever it fills, so memory use does not
+ * depend on how many employees are exported. Combined with the stream methods of {@link EmployeeDatabase},
+ * a query result is never collected into a list. CSV output can be read back by {@link EmployeeCsvImporter}.
+ */
+public class EmployeeExporter {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    public enum Format {
+        /**
+         * A header line, then {@code id,name,department,salary,performanceRating,yearsOfExperience,active}.
+         */
+        CSV,
+        /**
+         * One JSON object per line, with the same field names as the CSV header.
+         */
+        JSON_LINES
+    }
+
+    private final Format format;
+    private final int bufferBytes;
+
+    public EmployeeExporter(Format format) {
+        this(format, BUFFER_BYTES);
+    }
+
+    /**
+     * Creates an exporter with a smaller or larger buffer than the default 64 KB, for example for many
+     * concurrent exports of a few employees each.
+     *
+     * @param format The output format
+     * @param bufferBytes The number of bytes encoded before each write to the channel
+     */
+    public EmployeeExporter(Format format, int bufferBytes) {
+        if (bufferBytes < 64) {
+            throw new IllegalArgumentException("Buffer too small: " + bufferBytes);
+        }
+        this.format = format;
+        this.bufferBytes = bufferBytes;
+    }
+
+    /**
+     * Writes employees to a channel. The channel is not closed.
+     *
+     * @param employees The employees to write, consumed one by one
+     * @param channel The channel to write to
+     * @return The number of employees written
+     * @throws IOException If the channel cannot be written
+     */
+    public <T> long export(Stream<Employee<T>> employees, WritableByteChannel channel) throws IOException {
+        return export(employees.iterator(), channel);
+    }
+
+    /**
+     * Writes employees to a channel. The channel is not closed.
+     *
+     * @param employees The employees to write
+     * @param channel The channel to write to
+     * @return The number of employees written
+     * @throws IOException If the channel cannot be written
+     */
+    public <T> long export(Iterator<Employee<T>> employees, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bufferBytes);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        StringBuilder line = new StringBuilder(256);
+        if (format == Format.CSV) {
+            line.append(EmployeeCsvImporter.HEADER).append('\n');
+            encode(line, encoder, buffer, channel);
+        }
+        long count = 0;
+        while (employees.hasNext()) {
+            line.setLength(0);
+            if (format == Format.CSV) {
+                appendCsv(line, employees.next());
+            } else {
+                appendJson(line, employees.next());
+            }
+            encode(line, encoder, buffer, channel);
+            count++;
+        }
+        drain(buffer, channel);
+        return count;
+    }
+
+    private static void appendCsv(StringBuilder line, Employee<?> employee) {
+        appendCsvField(line, String.valueOf(employee.getEmployeeId()));
+        line.append(',');
+        appendCsvField(line, employee.getName() == null ? "" : employee.getName());
+        line.append(',');
+        appendCsvField(line, employee.getDepartment() == null ? "" : employee.getDepartment());
+        line.append(',').append(employee.getSalary())
+                .append(',').append(employee.getPerformanceRating())
+                .append(',').append(employee.getYearsOfExperience())
+                .append(',').append(employee.isActive())
+                .append('\n');
+    }
+
+    private static void appendCsvField(StringBuilder line, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void appendJson(StringBuilder line, Employee<?> employee) {
+        Object id = employee.getEmployeeId();
+        line.append("{\"id\":");
+        if (id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte) {
+            line.append(id);
+        } else {
+            appendJsonString(line, id == null ? null : id.toString());
+        }
+        line.append(",\"name\":");
+        appendJsonString(line, employee.getName());
+        line.append(",\"department\":");
+        appendJsonString(line, employee.getDepartment());
+        line.append(",\"salary\":");
+        appendJsonNumber(line, employee.getSalary());
+        line.append(",\"performanceRating\":");
+        appendJsonNumber(line, employee.getPerformanceRating());
+        line.append(",\"yearsOfExperience\":").append(employee.getYearsOfExperience())
+                .append(",\"active\":").append(employee.isActive())
+                .append("}\n");
+    }
+
+    private static void appendJsonNumber(StringBuilder line, double value) {
+        if (Double.isFinite(value)) {
+            line.append(value);
+        } else {
+            line.append("null"); // JSON has no NaN or infinity
+        }
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * Encodes a line into the buffer, writing the buffer out each time it fills.
+     */
+    private static void encode(CharSequence line, CharsetEncoder encoder, ByteBuffer buffer,
+                               WritableByteChannel channel) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain(buffer, channel);
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain(buffer, channel);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+/**
+ * Receives every change made to an {@link EmployeeDatabase}, after the change has been applied.
+ * <p>
+ * Listeners are called on the thread that made the change, while it still holds that employee's lock,
+ * so the changes to one employee always arrive in order. Listeners must return quickly and must not
+ * change the database themselves.
+ *
+ * @param <T> Type of the employee ID
+ */
+public interface EmployeeListener<T> {
+    void employeeAdded(Employee<T> employee);
+
+    void employeeRemoved(Employee<T> employee);
+
+    /**
+     * @param employee The employee as it is after the update. In concurrent mode this is a new version,
+     *                 equal to the old one by ID
+     * @param field The lower-case field name, as accepted by {@link EmployeeDatabase#updateEmployeeDetails}
+     */
+    void employeeUpdated(Employee<T> employee, String field);
+}
@@ -0,0 +1,227 @@
+package com.example.employeemanagementsystem.database;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counts, latency and result size histograms, and index hit and miss counts for each kind of
+ * {@link EmployeeDatabase} operation, collected once {@link EmployeeDatabase#enableMetrics} is called.
+ * While metrics are disabled, an operation only checks that they are.
+ * <p>
+ * Read the figures with {@link #getOperations}, or over JMX after {@link #registerMBean}. Recording never
+ * allocates or locks, so it is safe from any thread; a read taken while operations run may or may not
+ * include them.
+ * <p>
+ * Reading the clock costs more than a lookup by ID, since it waits for the lookup's memory reads, so the
+ * latency of operations on a single employee is sampled from one call in {@value #SAMPLE_EVERY}. Every call
+ * is still counted.
+ */
+public final class EmployeeMetrics implements EmployeeMetricsMXBean {
+
+    /**
+     * The operations measured. Lazy streams are not, since their work happens after they return.
+     */
+    public enum Operation {
+        ADD(true),
+        ADD_ALL,
+        REMOVE(true),
+        UPDATE(true),
+        UPDATE_BATCH,
+        GET(true),
+        GET_ALL,
+        SEARCH_BY_DEPARTMENT,
+        SEARCH_BY_NAME,
+        FILTER_BY_RATING,
+        FILTER_BY_SALARY,
+        FILTER,
+        QUERY,
+        SORT_BY_SALARY,
+        SORT_BY_PERFORMANCE,
+        SORT_BY_EXPERIENCE,
+        SORTED_PAGE,
+        TOP_EMPLOYEES,
+        TOP_PAID,
+        SALARY_RAISE,
+        DEPARTMENT_STATS;
+
+        private final boolean sampled;
+
+        Operation() {
+            this(false);
+        }
+
+        Operation(boolean sampled) {
+            this.sampled = sampled;
+        }
+    }
+
+    static final int SAMPLE_EVERY = 16;
+    // Returned by start() for a call whose latency is not sampled
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final Recorder[] recorders = new Recorder[Operation.values().length];
+    private ObjectName objectName;
+
+    EmployeeMetrics() {
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder();
+        }
+    }
+
+    /**
+     * Starts timing a call.
+     *
+     * @return The start time to pass to {@code record}, or a marker if this call is not timed
+     */
+    long start(Operation operation) {
+        if (operation.sampled && ThreadLocalRandom.current().nextInt(SAMPLE_EVERY) != 0) {
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a call that has no index to choose, such as an insert.
+     *
+     * @param operation The operation
+     * @param startNanos {@link System#nanoTime} when the call started, or the result of {@link #start}
+     * @param resultSize The number of employees returned or changed
+     */
+    void record(Operation operation, long startNanos, long resultSize) {
+        recorders[operation.ordinal()].record(startNanos, resultSize);
+    }
+
+    /**
+     * Records a call that is answered either from an index or by a scan.
+     *
+     * @param indexed true if an index or a kept sort order answered the call
+     */
+    void record(Operation operation, long startNanos, long resultSize, boolean indexed) {
+        Recorder recorder = recorders[operation.ordinal()];
+        recorder.record(startNanos, resultSize);
+        (indexed ? recorder.indexHits : recorder.indexMisses).increment();
+    }
+
+    /**
+     * Gets the figures of one operation.
+     *
+     * @param operation The operation
+     * @return Its figures, all 0 if it was never called
+     */
+    public OperationStats getStats(Operation operation) {
+        return recorders[operation.ordinal()].stats(operation);
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        List<OperationStats> operations = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            OperationStats stats = getStats(operation);
+            if (stats.count() > 0) {
+                operations.add(stats);
+            }
+        }
+        return operations;
+    }
+
+    @Override
+    public long getTotalCount() {
+        long total = 0;
+        for (Recorder recorder : recorders) {
+            total += recorder.calls.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public void reset() {
+        for (Recorder recorder : recorders) {
+            recorder.reset();
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, as
+     * {@code com.example.employeemanagementsystem:type=EmployeeDatabase,name=<name>}.
+     *
+     * @param name Tells databases in the same process apart
+     * @return The name registered
+     * @throws JMException If the name is invalid or already taken
+     */
+    public synchronized ObjectName registerMBean(String name) throws JMException {
+        if (objectName != null) {
+            throw new IllegalStateException("Already registered as " + objectName);
+        }
+        ObjectName registered = new ObjectName("com.example.employeemanagementsystem:type=EmployeeDatabase,name="
+                + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, registered);
+        objectName = registered;
+        return registered;
+    }
+
+    /**
+     * Removes the registration made by {@link #registerMBean}, if any.
+     *
+     * @throws JMException If the MBean server refuses
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // Already unregistered through the MBean server
+        } finally {
+            objectName = null;
+        }
+    }
+
+    private static final class Recorder {
+        final LongAdder calls = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder indexHits = new LongAdder();
+        final LongAdder indexMisses = new LongAdder();
+        final LogHistogram latencies = new LogHistogram();
+        final LogHistogram resultSizes = new LogHistogram();
+
+        void record(long startNanos, long resultSize) {
+            if (startNanos != NOT_TIMED) {
+                long nanos = System.nanoTime() - startNanos;
+                totalNanos.add(nanos);
+                latencies.record(nanos);
+            }
+            calls.increment();
+            resultSizes.record(resultSize);
+        }
+
+        OperationStats stats(Operation operation) {
+            long[] latencyCounts = latencies.counts();
+            long[] sizeCounts = resultSizes.counts();
+            long timed = LogHistogram.total(latencyCounts);
+            return new OperationStats(operation.name(), calls.sum(), indexHits.sum(), indexMisses.sum(),
+                    timed == 0 ? 0 : totalNanos.sum() / timed,
+                    LogHistogram.percentile(latencyCounts, timed, 50),
+                    LogHistogram.percentile(latencyCounts, timed, 99),
+                    LogHistogram.max(latencyCounts),
+                    LogHistogram.percentile(sizeCounts, LogHistogram.total(sizeCounts), 50),
+                    LogHistogram.percentile(sizeCounts, LogHistogram.total(sizeCounts), 99),
+                    LogHistogram.max(sizeCounts));
+        }
+
+        void reset() {
+            calls.reset();
+            totalNanos.reset();
+            indexHits.reset();
+            indexMisses.reset();
+            latencies.reset();
+            resultSizes.reset();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.employeemanagementsystem.database;
+
+import java.util.List;
+
+/**
+ * The JMX view of {@link EmployeeMetrics}, registered with {@link EmployeeMetrics#registerMBean}.
+ */
+public interface EmployeeMetricsMXBean {
+
+    /**
+     * @return The figures of every operation called at least once
+     */
+    List<OperationStats> getOperations();
+
+    /**
+     * @return The number of calls of every operation together
+     */
+    long getTotalCount();
+
+    /**
+     * Starts counting again from zero.
+     */
+    void reset();
+}
@@ -0,0 +1,174 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of new field values for one employee, applied all at once by {@link EmployeeDatabase#updateEmployee}.
+ * Only the fields that were set are changed; the employee ID can never be changed.
+ * <p>
+ * Example: {@code new EmployeePatch().salary(80000).department("Finance")}
+ */
+public final class EmployeePatch {
+    static final int NAME = 1;
+    static final int DEPARTMENT = 1 << 1;
+    static final int SALARY = 1 << 2;
+    static final int PERFORMANCE_RATING = 1 << 3;
+    static final int YEARS_OF_EXPERIENCE = 1 << 4;
+    static final int ACTIVE = 1 << 5;
+    static final int ALL_FIELDS = (1 << 6) - 1;
+
+    // Field names in bit order, as accepted by EmployeeDatabase#updateEmployeeDetails
+    private static final String[] FIELD_NAMES = {"name", "department", "salary", "performancerating",
+            "yearsofexperience", "isactive"};
+
+    private int fields;
+    private String name;
+    private String department;
+    private double salary;
+    private double performanceRating;
+    private int yearsOfExperience;
+    private boolean active;
+
+    /**
+     * Creates a patch that sets every field to the values of an employee.
+     *
+     * @param employee The employee to copy the values from
+     * @return The new patch
+     */
+    public static EmployeePatch of(Employee<?> employee) {
+        return new EmployeePatch()
+                .name(employee.getName())
+                .department(employee.getDepartment())
+                .salary(employee.getSalary())
+                .performanceRating(employee.getPerformanceRating())
+                .yearsOfExperience(employee.getYearsOfExperience())
+                .active(employee.isActive());
+    }
+
+    public EmployeePatch name(String name) {
+        this.name = name;
+        fields |= NAME;
+        return this;
+    }
+
+    public EmployeePatch department(String department) {
+        this.department = department;
+        fields |= DEPARTMENT;
+        return this;
+    }
+
+    public EmployeePatch salary(double salary) {
+        this.salary = salary;
+        fields |= SALARY;
+        return this;
+    }
+
+    public EmployeePatch performanceRating(double performanceRating) {
+        this.performanceRating = performanceRating;
+        fields |= PERFORMANCE_RATING;
+        return this;
+    }
+
+    public EmployeePatch yearsOfExperience(int yearsOfExperience) {
+        this.yearsOfExperience = yearsOfExperience;
+        fields |= YEARS_OF_EXPERIENCE;
+        return this;
+    }
+
+    public EmployeePatch active(boolean active) {
+        this.active = active;
+        fields |= ACTIVE;
+        return this;
+    }
+
+    /**
+     * Checks whether no field has been set.
+     *
+     * @return true if applying this patch changes nothing
+     */
+    public boolean isEmpty() {
+        return fields == 0;
+    }
+
+    int fields() {
+        return fields;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getDepartment() {
+        return department;
+    }
+
+    double getSalary() {
+        return salary;
+    }
+
+    double getPerformanceRating() {
+        return performanceRating;
+    }
+
+    int getYearsOfExperience() {
+        return yearsOfExperience;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Copies the fields that were set to an employee.
+     */
+    void applyTo(Employee<?> employee) {
+        if ((fields & NAME) != 0) {
+            employee.setName(name);
+        }
+        if ((fields & DEPARTMENT) != 0) {
+            employee.setDepartment(department);
+        }
+        if ((fields & SALARY) != 0) {
+            employee.setSalary(salary);
+        }
+        if ((fields & PERFORMANCE_RATING) != 0) {
+            employee.setPerformanceRating(performanceRating);
+        }
+        if ((fields & YEARS_OF_EXPERIENCE) != 0) {
+            employee.setYearsOfExperience(yearsOfExperience);
+        }
+        if ((fields & ACTIVE) != 0) {
+            employee.setActive(active);
+        }
+    }
+
+    /**
+     * Gets the field bit for a lower-case field name.
+     *
+     * @return The bit, or 0 if there is no such field
+     */
+    static int fieldBit(String field) {
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if (FIELD_NAMES[i].equals(field)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the lower-case names of the fields in a set of field bits, in bit order.
+     */
+    static List<String> fieldNames(int fields) {
+        List<String> names = new ArrayList<>(Integer.bitCount(fields));
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if ((fields & (1 << i)) != 0) {
+                names.add(FIELD_NAMES[i]);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A set of conditions on employees, all of which must hold, run by {@link EmployeeDatabase#query}.
+ * Unlike a {@link java.util.function.Predicate}, the database can see each condition, so it answers
+ * the query from its most selective index instead of scanning every employee.
+ * <p>
+ * Example: {@code new EmployeeQuery().department("IT").minRating(4).sortBy(EmployeeSortKey.SALARY, true).limit(10)}
+ */
+public final class EmployeeQuery {
+    private String department;
+    private String nameContains;
+    private boolean hasSalaryRange;
+    private double minSalary;
+    private double maxSalary;
+    private boolean hasMinRating;
+    private double minRating;
+    private Boolean active;
+    private EmployeeSortKey sortKey;
+    private boolean descending;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Keeps the employees of a department, ignoring case.
+     */
+    public EmployeeQuery department(String department) {
+        this.department = Objects.requireNonNull(department);
+        return this;
+    }
+
+    /**
+     * Keeps the employees whose names contain a search term, ignoring case.
+     */
+    public EmployeeQuery nameContains(String name) {
+        this.nameContains = name.toLowerCase();
+        return this;
+    }
+
+    /**
+     * Keeps the employees with a salary in a range, bounds included.
+     */
+    public EmployeeQuery salaryBetween(double minSalary, double maxSalary) {
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        hasSalaryRange = true;
+        return this;
+    }
+
+    /**
+     * Keeps the employees with at least a minimum performance rating.
+     */
+    public EmployeeQuery minRating(double minRating) {
+        this.minRating = minRating;
+        hasMinRating = true;
+        return this;
+    }
+
+    /**
+     * Keeps the active or the inactive employees.
+     */
+    public EmployeeQuery active(boolean active) {
+        this.active = active;
+        return this;
+    }
+
+    /**
+     * Sorts the result; unsorted results come in whatever order is cheapest.
+     *
+     * @param key The field to sort by
+     * @param descending Whether to sort highest first
+     */
+    public EmployeeQuery sortBy(EmployeeSortKey key, boolean descending) {
+        this.sortKey = Objects.requireNonNull(key);
+        this.descending = descending;
+        return this;
+    }
+
+    /**
+     * Keeps at most a number of employees: the first ones in sort order, or any of them if unsorted.
+     */
+    public EmployeeQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    String getDepartment() {
+        return department;
+    }
+
+    String getNameContains() {
+        return nameContains;
+    }
+
+    boolean hasSalaryRange() {
+        return hasSalaryRange;
+    }
+
+    double getMinSalary() {
+        return minSalary;
+    }
+
+    double getMaxSalary() {
+        return maxSalary;
+    }
+
+    boolean hasMinRating() {
+        return hasMinRating;
+    }
+
+    double getMinRating() {
+        return minRating;
+    }
+
+    EmployeeSortKey getSortKey() {
+        return sortKey;
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return The {@link EmployeePatch} bits of the fields the result depends on, besides the department
+     */
+    int fields() {
+        int fields = sortKey == null ? 0 : sortKey.field();
+        if (nameContains != null) {
+            fields |= EmployeePatch.NAME;
+        }
+        if (hasSalaryRange) {
+            fields |= EmployeePatch.SALARY;
+        }
+        if (hasMinRating) {
+            fields |= EmployeePatch.PERFORMANCE_RATING;
+        }
+        if (active != null) {
+            fields |= EmployeePatch.ACTIVE;
+        }
+        return fields;
+    }
+
+    /**
+     * @return The conditions, sort order and limit as a value that stays the same if this query is changed later
+     */
+    Object cacheKey() {
+        return Arrays.asList(department == null ? null : department.toLowerCase(Locale.ROOT), nameContains,
+                hasSalaryRange ? minSalary : null, hasSalaryRange ? maxSalary : null, hasMinRating ? minRating : null,
+                active, sortKey, descending, limit);
+    }
+
+    /**
+     * Checks whether no employee can match, without looking at any.
+     */
+    boolean matchesNothing() {
+        return limit == 0 || hasSalaryRange && !(minSalary <= maxSalary) || hasMinRating && Double.isNaN(minRating);
+    }
+
+    /**
+     * Checks the conditions on salary, rating and active status. The department and name are checked
+     * by the database against its indexes.
+     */
+    boolean matchesNumbers(Employee<?> employee) {
+        return (!hasSalaryRange || employee.getSalary() >= minSalary && employee.getSalary() <= maxSalary)
+                && (!hasMinRating || employee.getPerformanceRating() >= minRating)
+                && (active == null || employee.isActive() == active);
+    }
+
+    @Override
+    public String toString() {
+        List<String> conditions = new ArrayList<>();
+        if (department != null) {
+            conditions.add("department = " + department);
+        }
+        if (nameContains != null) {
+            conditions.add("name contains " + nameContains);
+        }
+        if (hasSalaryRange) {
+            conditions.add("salary between " + minSalary + " and " + maxSalary);
+        }
+        if (hasMinRating) {
+            conditions.add("rating >= " + minRating);
+        }
+        if (active != null) {
+            conditions.add("active = " + active);
+        }
+        String query = conditions.isEmpty() ? "all employees" : String.join(" and ", conditions);
+        if (sortKey != null) {
+            query += ", by " + sortKey + (descending ? " descending" : "");
+        }
+        return limit == Integer.MAX_VALUE ? query : query + ", first " + limit;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-layout binary snapshot of a set of employees, read back through a memory-mapped buffer.
+ * <p>
+ * Layout (little-endian):
+ * <pre>
+ * header      magic, version, rows, strings (int each), ID section offset, string section offset (long each)
+ * salary      double[rows]
+ * rating      double[rows]
+ * experience  int[rows]
+ * name        int[rows]    index into the string table, -1 for null
+ * department  int[rows]    index into the string table, -1 for null
+ * active      long[(rows + 63) / 64]  one bit per row
+ * IDs         rows IDs written by the {@link IdCodec}
+ * strings     int[strings + 1] byte offsets, then the UTF-8 bytes of every distinct string
+ * </pre>
+ * Each distinct name and department is stored once, and restored as a single shared {@code String}.
+ */
+final class EmployeeSnapshot {
+    private static final int MAGIC = 0x454D5053; // "EMPS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private EmployeeSnapshot() {
+    }
+
+    /**
+     * Writes the employees to a snapshot file. The file is written next to the target and then moved into
+     * place, so an existing snapshot is never left half-written.
+     */
+    static <T> void write(List<Employee<T>> rows, Path file, IdCodec<T> idCodec) throws IOException {
+        int rowCount = rows.size();
+
+        // Intern every distinct name and department into the string table
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] nameRefs = new int[rowCount];
+        int[] departmentRefs = new int[rowCount];
+        long stringBytes = 0;
+        long idBytes = 0;
+        for (int row = 0; row < rowCount; row++) {
+            Employee<T> employee = rows.get(row);
+            for (int column = 0; column < 2; column++) {
+                String value = column == 0 ? employee.getName() : employee.getDepartment();
+                int ref = -1;
+                if (value != null) {
+                    Integer existing = stringIndex.get(value);
+                    if (existing == null) {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        existing = strings.size();
+                        stringIndex.put(value, existing);
+                        strings.add(bytes);
+                        stringBytes += bytes.length;
+                    }
+                    ref = existing;
+                }
+                if (column == 0) {
+                    nameRefs[row] = ref;
+                } else {
+                    departmentRefs[row] = ref;
+                }
+            }
+            idBytes += idCodec.size(employee.getEmployeeId());
+        }
+
+        long idsOffset = HEADER_BYTES + (long) rowCount * (2 * Double.BYTES + 3 * Integer.BYTES)
+                + (long) bitsetWords(rowCount) * Long.BYTES;
+        long stringsOffset = idsOffset + idBytes;
+        long totalBytes = stringsOffset + (long) (strings.size() + 1) * Integer.BYTES + stringBytes;
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + rowCount + " employees exceeds the 2 GB format limit");
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ColumnWriter out = new ColumnWriter(channel);
+            out.ensure(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(rowCount).putInt(strings.size())
+                    .putLong(idsOffset).putLong(stringsOffset);
+            for (Employee<T> employee : rows) {
+                out.ensure(Double.BYTES).putDouble(employee.getSalary());
+            }
+            for (Employee<T> employee : rows) {
+                out.ensure(Double.BYTES).putDouble(employee.getPerformanceRating());
+            }
+            for (Employee<T> employee : rows) {
+                out.ensure(Integer.BYTES).putInt(employee.getYearsOfExperience());
+            }
+            for (int ref : nameRefs) {
+                out.ensure(Integer.BYTES).putInt(ref);
+            }
+            for (int ref : departmentRefs) {
+                out.ensure(Integer.BYTES).putInt(ref);
+            }
+            long word = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (rows.get(row).isActive()) {
+                    word |= 1L << (row & 63);
+                }
+                if ((row & 63) == 63 || row == rowCount - 1) {
+                    out.ensure(Long.BYTES).putLong(word);
+                    word = 0;
+                }
+            }
+            for (Employee<T> employee : rows) {
+                T id = employee.getEmployeeId();
+                idCodec.write(id, out.ensure(idCodec.size(id)));
+            }
+            int offset = 0;
+            for (byte[] bytes : strings) {
+                out.ensure(Integer.BYTES).putInt(offset);
+                offset += bytes.length;
+            }
+            out.ensure(Integer.BYTES).putInt(offset);
+            for (byte[] bytes : strings) {
+                out.put(bytes);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads every employee from a snapshot file.
+     *
+     * @return The employees, in the order they were written
+     */
+    static <T> List<Employee<T>> read(Path file, IdCodec<T> idCodec) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE || channel.size() < HEADER_BYTES) {
+                throw new IOException("Not an employee snapshot: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an employee snapshot: " + file);
+        }
+        int rowCount = buffer.getInt(8);
+        int stringCount = buffer.getInt(12);
+        int idsOffset = (int) buffer.getLong(16);
+        int stringsOffset = (int) buffer.getLong(24);
+
+        String[] strings = new String[stringCount];
+        int bytesStart = stringsOffset + (stringCount + 1) * Integer.BYTES;
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < stringCount; i++) {
+            int start = buffer.getInt(stringsOffset + i * Integer.BYTES);
+            int length = buffer.getInt(stringsOffset + (i + 1) * Integer.BYTES) - start;
+            if (scratch.length < length) {
+                scratch = new byte[length];
+            }
+            buffer.get(bytesStart + start, scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int salaryOffset = HEADER_BYTES;
+        int ratingOffset = salaryOffset + rowCount * Double.BYTES;
+        int experienceOffset = ratingOffset + rowCount * Double.BYTES;
+        int nameOffset = experienceOffset + rowCount * Integer.BYTES;
+        int departmentOffset = nameOffset + rowCount * Integer.BYTES;
+        int activeOffset = departmentOffset + rowCount * Integer.BYTES;
+
+        ByteBuffer ids = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(idsOffset);
+        List<Employee<T>> employees = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            int nameRef = buffer.getInt(nameOffset + row * Integer.BYTES);
+            int departmentRef = buffer.getInt(departmentOffset + row * Integer.BYTES);
+            long activeWord = buffer.getLong(activeOffset + (row >>> 6) * Long.BYTES);
+            employees.add(new Employee<>(
+                    idCodec.read(ids),
+                    nameRef < 0 ? null : strings[nameRef],
+                    departmentRef < 0 ? null : strings[departmentRef],
+                    buffer.getDouble(salaryOffset + row * Double.BYTES),
+                    buffer.getDouble(ratingOffset + row * Double.BYTES),
+                    buffer.getInt(experienceOffset + row * Integer.BYTES),
+                    (activeWord & (1L << (row & 63))) != 0));
+        }
+        return employees;
+    }
+
+    private static int bitsetWords(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    /**
+     * Sequential writer that batches small puts into one large buffer per channel write.
+     */
+    private static final class ColumnWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        ColumnWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int length = Math.min(ensure(1).remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
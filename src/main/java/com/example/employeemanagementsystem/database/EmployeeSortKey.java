@@ -0,0 +1,98 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.util.Comparator;
+
+/**
+ * A field that employees can be sorted by, as used by {@link EmployeeDatabase#getSortedPage}
+ * and {@link EmployeeDatabase#getTopEmployees}.
+ */
+public enum EmployeeSortKey {
+    ID,
+    NAME,
+    DEPARTMENT,
+    SALARY,
+    PERFORMANCE_RATING,
+    YEARS_OF_EXPERIENCE,
+    ACTIVE;
+
+    /**
+     * Gets the value of this field.
+     *
+     * @param employee The employee to read
+     * @return The value, boxed
+     */
+    public Object valueOf(Employee<?> employee) {
+        return switch (this) {
+            case ID -> employee.getEmployeeId();
+            case NAME -> employee.getName();
+            case DEPARTMENT -> employee.getDepartment();
+            case SALARY -> employee.getSalary();
+            case PERFORMANCE_RATING -> employee.getPerformanceRating();
+            case YEARS_OF_EXPERIENCE -> employee.getYearsOfExperience();
+            case ACTIVE -> employee.isActive();
+        };
+    }
+
+    /**
+     * Gets a comparator that orders employees by this field, lowest first.
+     * Names and departments compare ignoring case, with missing values first. IDs that are not
+     * {@link Comparable} compare by their string form.
+     * <p>
+     * Employees with equal values are ordered by ID, in the same direction, so the order is total and the
+     * descending order is exactly the ascending one reversed. Pages of a sort therefore neither overlap nor
+     * skip employees, however the order behind them was built.
+     *
+     * @param descending Whether to order highest first instead
+     * @return The comparator
+     */
+    public <T> Comparator<Employee<T>> comparator(boolean descending) {
+        Comparator<Employee<T>> comparator = switch (this) {
+            case ID -> (e1, e2) -> compareIds(e1.getEmployeeId(), e2.getEmployeeId());
+            case NAME -> Comparator.comparing(Employee::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+            case DEPARTMENT -> Comparator.comparing(Employee::getDepartment,
+                    Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+            case SALARY -> (e1, e2) -> Double.compare(e1.getSalary(), e2.getSalary());
+            case PERFORMANCE_RATING -> (e1, e2) -> Double.compare(e1.getPerformanceRating(), e2.getPerformanceRating());
+            case YEARS_OF_EXPERIENCE -> (e1, e2) -> Integer.compare(e1.getYearsOfExperience(), e2.getYearsOfExperience());
+            case ACTIVE -> (e1, e2) -> Boolean.compare(e1.isActive(), e2.isActive());
+        };
+        if (this != ID) {
+            comparator = comparator.thenComparing((e1, e2) -> compareIds(e1.getEmployeeId(), e2.getEmployeeId()));
+        }
+        return descending ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * Gets the name of this field as reported to {@link EmployeeListener#employeeUpdated}.
+     *
+     * @return The lower-case name, or null for the ID, which never changes
+     */
+    public String fieldName() {
+        return this == ID ? null : EmployeePatch.fieldNames(field()).getFirst();
+    }
+
+    /**
+     * Gets the {@link EmployeePatch} bit of this field, or 0 for the ID, which never changes.
+     */
+    int field() {
+        return switch (this) {
+            case ID -> 0;
+            case NAME -> EmployeePatch.NAME;
+            case DEPARTMENT -> EmployeePatch.DEPARTMENT;
+            case SALARY -> EmployeePatch.SALARY;
+            case PERFORMANCE_RATING -> EmployeePatch.PERFORMANCE_RATING;
+            case YEARS_OF_EXPERIENCE -> EmployeePatch.YEARS_OF_EXPERIENCE;
+            case ACTIVE -> EmployeePatch.ACTIVE;
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareIds(Object id1, Object id2) {
+        if (id1 instanceof Comparable comparable && id2 != null && id1.getClass() == id2.getClass()) {
+            return comparable.compareTo(id2);
+        }
+        return String.valueOf(id1).compareTo(String.valueOf(id2));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The operations shared by every employee storage engine, so callers can switch between
+ * {@link EmployeeDatabase} and {@link ColumnarEmployeeDatabase} without other changes.
+ *
+ * @param <T> Type of the employee ID
+ */
+public interface EmployeeStore<T> {
+
+    /**
+     * Adds a new employee.
+     *
+     * @param employee The employee to add
+     * @return true if the employee was added successfully, false if an employee with the same ID already exists
+     */
+    boolean addEmployee(Employee<T> employee);
+
+    /**
+     * Removes an employee.
+     *
+     * @param employeeId The ID of the employee to remove
+     * @return true if the employee was removed successfully, false if no employee with the given ID exists
+     */
+    boolean removeEmployee(T employeeId);
+
+    /**
+     * Updates a single field of an employee.
+     *
+     * @param employeeId The ID of the employee to update
+     * @param field The field to update (name, department, salary, performanceRating, yearsOfExperience, isActive)
+     * @param newValue The new value for the field
+     * @return true if the update was successful, false otherwise
+     */
+    boolean updateEmployeeDetails(T employeeId, String field, Object newValue);
+
+    /**
+     * @return A list of all employees
+     */
+    List<Employee<T>> getAllEmployees();
+
+    /**
+     * @param department The department to search for, ignoring case
+     * @return A list of employees in the specified department
+     */
+    List<Employee<T>> searchByDepartment(String department);
+
+    /**
+     * @param name The name or part of the name to search for, ignoring case
+     * @return A list of employees whose names contain the search term
+     */
+    List<Employee<T>> searchByName(String name);
+
+    /**
+     * @param minRating The minimum performance rating
+     * @return A list of employees with performance rating >= minRating
+     */
+    List<Employee<T>> filterByMinimumRating(double minRating);
+
+    /**
+     * @param minSalary The minimum salary
+     * @param maxSalary The maximum salary
+     * @return A list of employees with salary in the specified range
+     */
+    List<Employee<T>> filterBySalaryRange(double minSalary, double maxSalary);
+
+    /**
+     * @param predicate The filtering predicate
+     * @return A list of employees that match the predicate
+     */
+    List<Employee<T>> filterEmployees(Predicate<Employee<T>> predicate);
+
+    /**
+     * @return An iterator for the employees
+     */
+    Iterator<Employee<T>> getEmployeeIterator();
+
+    /**
+     * @return A list of employees sorted by salary in descending order
+     */
+    List<Employee<T>> sortBySalary();
+
+    /**
+     * @return A list of employees sorted by performance rating in descending order
+     */
+    List<Employee<T>> sortByPerformance();
+
+    /**
+     * @return A list of employees sorted by years of experience in descending order
+     */
+    List<Employee<T>> sortByExperience();
+
+    /**
+     * Gives a salary raise to employees with high performance ratings.
+     *
+     * @param minRating The minimum performance rating required for a raise
+     * @param percentageRaise The percentage salary raise
+     * @return The number of employees who received a raise
+     */
+    int giveSalaryRaise(double minRating, double percentageRaise);
+
+    /**
+     * @param n The number of top employees to retrieve
+     * @return A list of the top N highest-paid employees
+     */
+    List<Employee<T>> getTopPaidEmployees(int n);
+
+    /**
+     * @param department The department to calculate the average salary for, ignoring case
+     * @return The average salary, or 0 if no employees in the department
+     */
+    double getAverageSalaryByDepartment(String department);
+
+    /**
+     * @param employeeId The ID of the employee to retrieve
+     * @return The employee, or null if no employee with the given ID exists
+     */
+    Employee<T> getEmployee(T employeeId);
+
+    /**
+     * @return The number of employees
+     */
+    int getEmployeeCount();
+}
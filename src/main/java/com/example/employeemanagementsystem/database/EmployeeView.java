@@ -0,0 +1,156 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A read-only view of an {@link EmployeeDatabase} as it was when the view was opened, from
+ * {@link EmployeeDatabase#openView}. Reads through a view are never affected by later changes, including
+ * a salary batch that is still running, and never block writers.
+ * <p>
+ * Opening a view copies nothing. Instead, while any view is open, every write first saves the version of the
+ * employee it replaces, and employees are changed copy-on-write in both modes, so that the objects a view
+ * returns are never modified by the database. A view reads the current employee unless a version was saved
+ * for it since the view was opened. Saved versions are kept until the views that need them are closed, so
+ * views should be closed promptly, preferably with try-with-resources.
+ * <p>
+ * A view may be shared between threads if its database is concurrent.
+ *
+ * @param <T> Type of the employee ID
+ */
+public final class EmployeeView<T> implements AutoCloseable {
+    private final EmployeeDatabase<T> database;
+    private final Epoch<T> epoch;
+    private boolean closed;
+
+    EmployeeView(EmployeeDatabase<T> database, Epoch<T> epoch) {
+        this.database = database;
+        this.epoch = epoch;
+    }
+
+    /**
+     * Gets an employee as they were when the view was opened.
+     *
+     * @param employeeId The ID of the employee to retrieve
+     * @return The employee, or null if no employee with the given ID existed
+     */
+    public Employee<T> getEmployee(T employeeId) {
+        // The current employee is read first: a writer saves the old version before replacing it,
+        // so a newer current employee always comes with a saved version that is found below
+        Employee<T> current = database.getEmployee(employeeId);
+        for (Epoch<T> newer = epoch; newer != null; newer = newer.next) {
+            Object saved = newer.saved.get(employeeId);
+            if (saved != null) {
+                return saved == Epoch.ADDED ? null : cast(saved);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return The number of employees when the view was opened
+     */
+    public int getEmployeeCount() {
+        return epoch.size;
+    }
+
+    /**
+     * Streams every employee as they were when the view was opened, in no particular order.
+     * The IDs of the current employees are copied by this call, so the stream does not fail if the database
+     * changes while it is consumed.
+     *
+     * @return A lazy stream of the employees
+     */
+    public Stream<Employee<T>> stream() {
+        List<T> currentIds = database.employeeIds();
+        // Taken after the current IDs, so an employee removed meanwhile has its saved version in here
+        Set<T> changedIds = new HashSet<>();
+        for (Epoch<T> newer = epoch; newer != null; newer = newer.next) {
+            changedIds.addAll(newer.saved.keySet());
+        }
+        return Stream.concat(currentIds.stream().filter(employeeId -> !changedIds.contains(employeeId)),
+                        changedIds.stream())
+                .map(this::getEmployee)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * @return Every employee as they were when the view was opened
+     */
+    public List<Employee<T>> getAllEmployees() {
+        return stream().collect(Collectors.toList());
+    }
+
+    /**
+     * @return An iterator over every employee as they were when the view was opened
+     */
+    public Iterator<Employee<T>> getEmployeeIterator() {
+        return stream().iterator();
+    }
+
+    /**
+     * Filters the employees as they were when the view was opened.
+     *
+     * @param predicate The condition to keep an employee
+     * @return The employees that match
+     */
+    public List<Employee<T>> filterEmployees(Predicate<Employee<T>> predicate) {
+        return stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    /**
+     * Releases the view, so that writers stop saving old versions once no view is open. Reading a closed
+     * view is not checked, but its results are no longer reliable. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        database.closeView();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Employee<T> cast(Object saved) {
+        return (Employee<T>) saved;
+    }
+
+    /**
+     * The versions replaced between the opening of one or more views and the opening of the next newer ones.
+     * Writes only save into the newest epoch, so a view also looks in every newer epoch: an employee that was
+     * not changed before them still had its value from when the view was opened.
+     */
+    static final class Epoch<T> {
+        // Saved for an employee added since the epoch began
+        static final Object ADDED = new Object();
+
+        final int size;
+        // Employee ID -> the employee when the epoch began, or ADDED
+        final Map<T, Object> saved;
+        // The epoch begun by the next newer views, set once
+        volatile Epoch<T> next;
+
+        Epoch(int size, boolean concurrent) {
+            this.size = size;
+            this.saved = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+        }
+
+        /**
+         * Saves the version an employee had when the epoch began, unless an earlier write already did.
+         *
+         * @param employeeId The ID of the employee about to change
+         * @param before The employee being replaced or removed, or null if the employee is being added
+         */
+        void save(T employeeId, Employee<T> before) {
+            saved.putIfAbsent(employeeId, before == null ? ADDED : before);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.employeemanagementsystem.database;
+
+/**
+ * Controls when a {@link WriteAheadLog} forces its records to stable storage.
+ */
+public enum FsyncPolicy {
+    /**
+     * Every mutation is written and forced before the mutating call returns.
+     * Concurrent writers share a single force (group commit).
+     */
+    EVERY_OPERATION,
+
+    /**
+     * Records are written and forced once a full batch has accumulated, so at most one batch can be lost in a crash.
+     */
+    EVERY_BATCH,
+
+    /**
+     * Records are written once a full batch has accumulated and flushing to disk is left to the operating system.
+     */
+    NEVER
+}
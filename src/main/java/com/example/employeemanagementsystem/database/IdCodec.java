@@ -0,0 +1,80 @@
+package com.example.employeemanagementsystem.database;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts employee IDs to and from their binary form in log and snapshot files.
+ *
+ * @param <T> Type of the employee ID
+ */
+public interface IdCodec<T> {
+
+    /**
+     * Codec for {@code Integer} IDs, stored as four bytes.
+     */
+    IdCodec<Integer> INTEGER = new IdCodec<>() {
+        @Override
+        public int size(Integer id) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(Integer id, ByteBuffer buffer) {
+            buffer.putInt(id);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    /**
+     * Codec for {@code String} IDs, stored as a length-prefixed UTF-8 string.
+     */
+    IdCodec<String> STRING = new IdCodec<>() {
+        @Override
+        public int size(String id) {
+            return Integer.BYTES + id.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        @Override
+        public void write(String id, ByteBuffer buffer) {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+
+        @Override
+        public String read(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Gets the number of bytes {@link #write} will use for an ID.
+     *
+     * @param id The ID to measure
+     * @return The encoded size in bytes
+     */
+    int size(T id);
+
+    /**
+     * Writes an ID at the buffer's position.
+     *
+     * @param id The ID to write
+     * @param buffer The buffer to write to
+     */
+    void write(T id, ByteBuffer buffer);
+
+    /**
+     * Reads an ID from the buffer's position.
+     *
+     * @param buffer The buffer to read from
+     * @return The decoded ID
+     */
+    T read(ByteBuffer buffer);
+}
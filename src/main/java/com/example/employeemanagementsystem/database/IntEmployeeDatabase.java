@@ -0,0 +1,100 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * EmployeeDatabase for {@code int} employee IDs, backed by an open-addressing primitive hash map.
+ * <p>
+ * The primary map stores IDs in an {@code int[]} and employees in a parallel array, so inserts and
+ * the {@code int} overloads allocate no key and every employee saves a map node and a boxed key.
+ * Queries, indexes and the write-ahead log behave exactly as in {@link EmployeeDatabase}.
+ * This class is single-threaded; use {@code new EmployeeDatabase<>(true)} to share a database between threads.
+ */
+public class IntEmployeeDatabase extends EmployeeDatabase<Integer> {
+    private final IntEmployeeMap<Employee<Integer>> employees;
+
+    public IntEmployeeDatabase() {
+        this(16);
+    }
+
+    /**
+     * Creates a database sized for an expected number of employees, so that it does not need to grow.
+     *
+     * @param expectedSize The number of employees the database is expected to hold
+     */
+    public IntEmployeeDatabase(int expectedSize) {
+        this(new IntEmployeeMap<>(expectedSize));
+    }
+
+    private IntEmployeeDatabase(IntEmployeeMap<Employee<Integer>> employees) {
+        super(employees);
+        this.employees = employees;
+    }
+
+    /**
+     * Creates a database from a snapshot file written by {@link #writeSnapshot} or {@link #checkpoint}.
+     *
+     * @param file The snapshot file
+     * @return The restored database
+     * @throws IOException If the file cannot be read or is not a snapshot
+     */
+    public static IntEmployeeDatabase restoreSnapshot(Path file) throws IOException {
+        List<Employee<Integer>> restored = EmployeeSnapshot.read(file, IdCodec.INTEGER);
+        IntEmployeeDatabase database = new IntEmployeeDatabase(restored.size());
+        database.load(restored);
+        return database;
+    }
+
+    /**
+     * Gets an employee by ID without boxing the ID.
+     *
+     * @param employeeId The employee ID
+     * @return The employee or null if not found
+     */
+    public Employee<Integer> getEmployee(int employeeId) {
+        return employees.get(employeeId);
+    }
+
+    /**
+     * Removes an employee by ID without boxing the ID.
+     *
+     * @param employeeId The employee ID
+     * @return true if the employee was removed, false if no employee with the given ID exists
+     */
+    public boolean removeEmployee(int employeeId) {
+        return removeEmployee(idFor(employeeId));
+    }
+
+    /**
+     * Updates several fields of an employee by ID without boxing the ID.
+     * There is no {@code int} overload of {@link #updateEmployeeDetails}: it would make calls with a primitive
+     * value, such as {@code updateEmployeeDetails(1, "salary", 50000.0)}, ambiguous.
+     *
+     * @param employeeId The employee ID
+     * @param patch The fields to update
+     * @return true if the employee exists, false otherwise
+     * @see EmployeeDatabase#updateEmployee
+     */
+    public boolean updateEmployee(int employeeId, EmployeePatch patch) {
+        return updateEmployee(idFor(employeeId), patch);
+    }
+
+    @Override
+    public Employee<Integer> getEmployee(Integer employeeId) {
+        return employeeId == null ? null : employees.get(employeeId.intValue());
+    }
+
+    /**
+     * Gets the ID to pass to the generic write paths: the {@code Integer} the stored employee already holds,
+     * or a new box for an ID that is not in the database, which then fails exactly as through the
+     * {@code Integer} overloads.
+     */
+    private Integer idFor(int employeeId) {
+        Employee<Integer> employee = employees.get(employeeId);
+        return employee != null ? employee.getEmployeeId() : Integer.valueOf(employeeId);
+    }
+}
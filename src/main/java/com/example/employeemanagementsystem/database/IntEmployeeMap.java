@@ -0,0 +1,390 @@
+package com.example.employeemanagementsystem.database;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from primitive {@code int} keys to non-null values.
+ * <p>
+ * Keys and values live in two parallel arrays probed linearly, so a lookup or insert allocates nothing and an
+ * entry costs two array slots instead of a {@code HashMap.Node} plus a boxed {@code Integer}. Removal shifts
+ * later entries of the probe run back instead of leaving tombstones. The {@link java.util.Map} methods box and
+ * unbox for compatibility; the {@code int} overloads do not. This class is not thread-safe.
+ * <p>
+ * As in {@code HashMap}, iterators and spliterators of the views are fail-fast: they throw
+ * {@link ConcurrentModificationException} once the map is structurally modified, other than through them,
+ * after they were created. Replacing the value of an existing key is not a structural modification.
+ * The views do not support removal.
+ *
+ * @param <V> Type of the values
+ */
+class IntEmployeeMap<V> extends AbstractMap<Integer, V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values; // null marks an empty slot
+    private int mask;
+    private int shift;
+    private int size;
+    private int resizeAt;
+    private int modCount; // structural modifications, for the fail-fast iterators
+
+    IntEmployeeMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Grows the table so that it holds the expected number of entries without rehashing again.
+     *
+     * @param expectedSize The number of entries the map is expected to hold
+     */
+    void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    /**
+     * Gets the value for a key.
+     *
+     * @param key The key
+     * @return The value, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            Object value = values[slot];
+            if (value == null || keys[slot] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Inserts a value if the key is absent.
+     *
+     * @param key The key
+     * @param value The value, not null
+     * @return The existing value, or null if the value was inserted
+     */
+    @SuppressWarnings("unchecked")
+    V putIfAbsent(int key, V value) {
+        int slot = findSlot(key);
+        if (values[slot] != null) {
+            return (V) values[slot];
+        }
+        insertAt(slot, key, value);
+        return null;
+    }
+
+    /**
+     * Inserts or replaces the value for a key.
+     *
+     * @param key The key
+     * @param value The value, not null
+     * @return The previous value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        int slot = findSlot(key);
+        Object previous = values[slot];
+        if (previous != null) {
+            values[slot] = value;
+            return (V) previous;
+        }
+        insertAt(slot, key, value);
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key
+     * @return The removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int slot = findSlot(key);
+        Object removed = values[slot];
+        if (removed == null) {
+            return null;
+        }
+        // Backward-shift deletion: pull later entries of the probe run into the gap
+        int gap = slot;
+        for (int next = (gap + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            // Move the entry unless its home slot lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = null;
+        size--;
+        modCount++;
+        return (V) removed;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), requireValue(value));
+    }
+
+    @Override
+    public V putIfAbsent(Integer key, V value) {
+        return putIfAbsent(key.intValue(), requireValue(value));
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V at(int slot) {
+                        return (V) values[slot];
+                    }
+                };
+            }
+
+            @Override
+            public Spliterator<V> spliterator() {
+                return new ValueSpliterator(0, values.length, size);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    Entry<Integer, V> at(int slot) {
+                        return new SimpleImmutableEntry<>(keys[slot], (V) values[slot]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing: the top bits of the product spread sequential IDs across the table
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private int findSlot(int key) {
+        int slot = slot(key);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertAt(int slot, int key, Object value) {
+        keys[slot] = key;
+        values[slot] = value;
+        modCount++;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        modCount++;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void checkModCount(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        // Keep the load factor at or below one half, so probe runs stay short
+        return Integer.highestOneBit(Math.max(expectedSize, MIN_CAPACITY / 2) * 2 - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        resizeAt = capacity / 2;
+    }
+
+    private static <V> V requireValue(V value) {
+        if (value == null) {
+            throw new NullPointerException("IntEmployeeMap does not store null values");
+        }
+        return value;
+    }
+
+    /**
+     * Splits the value slots into halves of the table, so parallel streams divide the work evenly
+     * without copying. Fails on structural modification after it was created, like the iterators.
+     */
+    private final class ValueSpliterator implements Spliterator<V> {
+        private int next;
+        private final int end;
+        private long estimate;
+        private final int expectedModCount;
+
+        ValueSpliterator(int from, int end, long estimate) {
+            this(from, end, estimate, modCount);
+        }
+
+        private ValueSpliterator(int from, int end, long estimate, int expectedModCount) {
+            this.next = from;
+            this.end = end;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super V> action) {
+            checkModCount(expectedModCount);
+            while (next < end) {
+                Object value = values[next++];
+                if (value != null) {
+                    action.accept((V) value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super V> action) {
+            Object[] slots = values;
+            for (int slot = next; slot < end; slot++) {
+                if (slots[slot] != null) {
+                    action.accept((V) slots[slot]);
+                }
+            }
+            next = end;
+            // Checked once at the end, as HashMap does, to keep the loop tight
+            checkModCount(expectedModCount);
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            int middle = (next + end) >>> 1;
+            if (middle - next < MIN_CAPACITY) {
+                return null;
+            }
+            // Fibonacci hashing spreads entries evenly, so each half holds about half of them
+            estimate >>>= 1;
+            ValueSpliterator prefix = new ValueSpliterator(next, middle, estimate, expectedModCount);
+            next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return next == 0 && end == values.length ? ORDERED | NONNULL | SIZED : ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * Iterates the occupied slots, failing on structural modification after it was created.
+     */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+        private final int expectedModCount = modCount;
+        private int next = advance(0);
+
+        abstract E at(int slot);
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public E next() {
+            checkModCount(expectedModCount);
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E element = at(next);
+            next = advance(next + 1);
+            return element;
+        }
+
+        private int advance(int from) {
+            while (from < values.length && values[from] == null) {
+                from++;
+            }
+            return from;
+        }
+    }
+}
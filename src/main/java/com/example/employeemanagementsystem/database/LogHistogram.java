@@ -0,0 +1,103 @@
+package com.example.employeemanagementsystem.database;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative longs with log-linear buckets, in the style of HdrHistogram: values below 32
+ * get a bucket each, and every power of two above that is split into 16 buckets, so any value is reported
+ * within about 6% of its true value. Recording is one atomic increment and never allocates; the fixed bucket
+ * array covers the whole {@code long} range in under 8 KB.
+ */
+final class LogHistogram {
+    private static final int SUB_BUCKETS = 16;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = bucketOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long value) {
+        counts.incrementAndGet(bucketOf(Math.max(value, 0)));
+    }
+
+    /**
+     * Copies the bucket counts. Values recorded meanwhile may or may not be included.
+     */
+    long[] counts() {
+        long[] copy = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            copy[bucket] = counts.get(bucket);
+        }
+        return copy;
+    }
+
+    void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+    }
+
+    /**
+     * Gets a percentile from bucket counts copied by {@link #counts}.
+     *
+     * @param counts The bucket counts
+     * @param total The sum of the counts
+     * @param percentile The percentile, from 0 to 100
+     * @return The highest value of the bucket that holds the percentile, or 0 if nothing was recorded
+     */
+    static long percentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return highestValueOf(bucket);
+            }
+        }
+        return highestValueOf(counts.length - 1);
+    }
+
+    /**
+     * Gets the number of values in bucket counts copied by {@link #counts}.
+     */
+    static long total(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the highest value recorded, to the precision of its bucket.
+     */
+    static long max(long[] counts) {
+        for (int bucket = counts.length - 1; bucket >= 0; bucket--) {
+            if (counts[bucket] != 0) {
+                return highestValueOf(bucket);
+            }
+        }
+        return 0;
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        // The top five bits select the bucket: their position is the power of two, the lower four the step
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 4;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long top = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        long highest = ((top + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.employeemanagementsystem.database;
+
+/**
+ * Figures for one kind of {@link EmployeeDatabase} operation since metrics were enabled or last reset,
+ * as returned by {@link EmployeeMetrics#getOperations}. Latencies and result sizes come from histograms,
+ * so percentiles and maxima are accurate to about 6%. Latencies of operations on a single employee are
+ * sampled, see {@link EmployeeMetrics}.
+ *
+ * @param operation The operation, as named by {@link EmployeeMetrics.Operation}
+ * @param count The number of calls
+ * @param indexHits The calls answered from an index or a kept sort order
+ * @param indexMisses The calls that had to scan or sort every employee
+ * @param meanNanos The mean latency
+ * @param p50Nanos The median latency
+ * @param p99Nanos The 99th percentile latency
+ * @param maxNanos The highest latency
+ * @param p50ResultSize The median number of employees returned or changed
+ * @param p99ResultSize The 99th percentile number of employees returned or changed
+ * @param maxResultSize The highest number of employees returned or changed
+ */
+public record OperationStats(String operation, long count, long indexHits, long indexMisses,
+                             long meanNanos, long p50Nanos, long p99Nanos, long maxNanos,
+                             long p50ResultSize, long p99ResultSize, long maxResultSize) {
+}
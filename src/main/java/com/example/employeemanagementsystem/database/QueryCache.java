@@ -0,0 +1,162 @@
+package com.example.employeemanagementsystem.database;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of recent searches of one {@link EmployeeDatabase}, started by {@link EmployeeDatabase#enableQueryCache}.
+ * A repeated search with the same parameters is answered from here until something it depends on changes.
+ * <p>
+ * Each result is stamped with the change counters of what it was computed from: the fields it filters and
+ * sorts on, and whether employees were added or removed, or, for a search within a department, any change
+ * to an employee of that department. A change to anything else leaves the result cached. The least recently
+ * used result is evicted when the cache is full, and results older than the time to live are dropped when
+ * next asked for. Each result holds one reference per employee it contains.
+ */
+public final class QueryCache {
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+
+    // Key -> result, least recently used first; guarded by this
+    private final LinkedHashMap<Object, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    QueryCache(int maxEntries, Duration timeToLive) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.timeToLiveNanos = timeToLive == null ? 0 : timeToLive.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > QueryCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up a result, dropping it if it is out of date.
+     *
+     * @param key The search and its parameters
+     * @param stamp The current change stamp of what the search depends on
+     * @return The result, or null if it has to be computed
+     */
+    Entry get(Object key, long stamp) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.stamp() != stamp) {
+                entries.remove(key);
+                invalidations.increment();
+                entry = null;
+            } else if (entry != null && timeToLiveNanos > 0
+                    && System.nanoTime() - entry.createdNanos() > timeToLiveNanos) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+        }
+        (entry == null ? misses : hits).increment();
+        return entry;
+    }
+
+    /**
+     * Stores a result.
+     *
+     * @param key The search and its parameters
+     * @param stamp The change stamp of what the search depends on, read before the result was computed
+     * @param replacements The database's replacement count, read before the result was computed
+     * @param employees The employees found, in order
+     */
+    void put(Object key, long stamp, long replacements, Object[] employees) {
+        Entry entry = new Entry(stamp, replacements, timeToLiveNanos > 0 ? System.nanoTime() : 0, employees);
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Drops every result. The counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return The number of results cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The share of lookups answered from the cache, from 0 to 1, or 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return The number of results dropped to make room for newer ones
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of results dropped because something they depend on changed
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return The number of results dropped because they outlived the time to live
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d results, hit ratio %.1f%%, %d evictions, %d invalidations, %d expirations",
+                size(), maxEntries, 100 * getHitRatio(), getEvictions(), getInvalidations(), getExpirations());
+    }
+
+    /**
+     * One cached result.
+     *
+     * @param stamp The change stamp of what the result depends on, read before it was computed
+     * @param replacements The database's count of employees replaced copy-on-write, read before it was computed
+     * @param createdNanos {@link System#nanoTime} when the result was stored, or 0 without a time to live
+     * @param employees The employees found, in order
+     */
+    record Entry(long stamp, long replacements, long createdNanos, Object[] employees) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.employeemanagementsystem.database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The salaries changed by one batch, each with its value before and after, in the order they were applied.
+ * Returned by {@link EmployeeDatabase#applySalaryRaise}, and accepted by
+ * {@link EmployeeDatabase#revertSalaryJournal} and {@link EmployeeDatabase#replaySalaryJournal}.
+ * <p>
+ * File layout (little-endian):
+ * <pre>
+ * header   magic, version, entries (int each)
+ * entries  ID written by the {@link IdCodec}, salary before, salary after (double each)
+ * </pre>
+ *
+ * @param <T> Type of the employee ID
+ */
+public final class SalaryJournal<T> {
+    private static final int MAGIC = 0x454D504A; // "EMPJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final List<T> employeeIds = new ArrayList<>();
+    private double[] salariesBefore = new double[16];
+    private double[] salariesAfter = new double[16];
+
+    SalaryJournal() {
+    }
+
+    void add(T employeeId, double salaryBefore, double salaryAfter) {
+        int entry = employeeIds.size();
+        if (entry == salariesBefore.length) {
+            salariesBefore = Arrays.copyOf(salariesBefore, entry * 2);
+            salariesAfter = Arrays.copyOf(salariesAfter, entry * 2);
+        }
+        employeeIds.add(employeeId);
+        salariesBefore[entry] = salaryBefore;
+        salariesAfter[entry] = salaryAfter;
+    }
+
+    /**
+     * @return The number of salaries changed
+     */
+    public int size() {
+        return employeeIds.size();
+    }
+
+    public T getEmployeeId(int entry) {
+        return employeeIds.get(entry);
+    }
+
+    public double getSalaryBefore(int entry) {
+        return salariesBefore[entry];
+    }
+
+    public double getSalaryAfter(int entry) {
+        return salariesAfter[entry];
+    }
+
+    List<T> employeeIds() {
+        return employeeIds;
+    }
+
+    /**
+     * Writes the journal to a file. The file is written next to the target and then moved into place,
+     * so an existing journal is never left half-written.
+     *
+     * @param file The file to write
+     * @param idCodec Encodes the employee IDs
+     * @throws IOException If the file cannot be written
+     */
+    public void write(Path file, IdCodec<T> idCodec) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size());
+            for (int entry = 0; entry < size(); entry++) {
+                T employeeId = employeeIds.get(entry);
+                int entryBytes = idCodec.size(employeeId) + 2 * Double.BYTES;
+                if (buffer.remaining() < entryBytes) {
+                    drain(buffer, channel);
+                    if (buffer.capacity() < entryBytes) {
+                        buffer = ByteBuffer.allocate(entryBytes).order(ByteOrder.LITTLE_ENDIAN);
+                    }
+                }
+                idCodec.write(employeeId, buffer);
+                buffer.putDouble(salariesBefore[entry]).putDouble(salariesAfter[entry]);
+            }
+            drain(buffer, channel);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a journal written by {@link #write}.
+     *
+     * @param file The file to read
+     * @param idCodec Decodes the employee IDs
+     * @return The journal
+     * @throws IOException If the file cannot be read or is not a salary journal
+     */
+    public static <T> SalaryJournal<T> read(Path file, IdCodec<T> idCodec) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a salary journal: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported salary journal version " + version + ": " + file);
+        }
+        int entries = buffer.getInt();
+        SalaryJournal<T> journal = new SalaryJournal<>();
+        try {
+            for (int entry = 0; entry < entries; entry++) {
+                journal.add(idCodec.read(buffer), buffer.getDouble(), buffer.getDouble());
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Truncated salary journal: " + file, e);
+        }
+        return journal;
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,526 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary log of every mutation made to an {@link EmployeeDatabase}.
+ * <p>
+ * Each record is stored as {@code [payload length][CRC32C of payload][payload]}, where the payload is an
+ * operation code followed by the employee ID and the changed values. Records are encoded into an in-memory
+ * batch and written to the file channel in one call per batch; when several threads commit at once, the
+ * first one writes and forces everything appended so far and the others return without further I/O.
+ * <p>
+ * On {@link #replay} the log is read from the start, and a torn or corrupt record left by a crash is
+ * truncated away so that new records are appended after the last good one.
+ * <p>
+ * A batch that fails to be written is kept and written again, ahead of any later records, by the next
+ * commit. A failed force is not retried: the operating system may have dropped the unwritten data, and a
+ * later force could succeed without it. The log then fails every commit until {@link #reset}, typically
+ * after a snapshot of the database has been written.
+ *
+ * @param <T> Type of the employee ID
+ */
+public class WriteAheadLog<T> implements Closeable {
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte SET_NAME = 3;
+    private static final byte SET_DEPARTMENT = 4;
+    private static final byte SET_SALARY = 5;
+    private static final byte SET_RATING = 6;
+    private static final byte SET_EXPERIENCE = 7;
+    private static final byte SET_ACTIVE = 8;
+    private static final byte PATCH = 9;
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 1 << 24;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final IdCodec<T> idCodec;
+    private final FsyncPolicy policy;
+    private final int batchSize;
+
+    // Guarded by this: the batch currently being filled by appenders
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private int pendingRecords;
+    private long appended;
+
+    // Guarded by ioLock: the batch being written, reused for the next swap, and a batch whose write failed,
+    // positioned at its first byte not written, with the number of records appended up to its end
+    private final Object ioLock = new Object();
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private ByteBuffer unwritten;
+    private long unwrittenUpTo;
+    private volatile long written;
+    private volatile long forced;
+    // Set when a force fails, until the next reset
+    private volatile IOException failure;
+
+    WriteAheadLog(FileChannel channel, IdCodec<T> idCodec, FsyncPolicy policy, int batchSize) {
+        this.channel = channel;
+        this.idCodec = idCodec;
+        this.policy = policy;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Opens or creates a log file.
+     *
+     * @param path The log file
+     * @param idCodec Codec for employee IDs
+     * @param policy When records are forced to disk
+     * @param batchSize The number of records per batch for {@link FsyncPolicy#EVERY_BATCH} and {@link FsyncPolicy#NEVER}
+     * @param <T> Type of the employee ID
+     * @return The opened log, positioned at its end
+     * @throws IOException If the file cannot be opened
+     */
+    public static <T> WriteAheadLog<T> open(Path path, IdCodec<T> idCodec, FsyncPolicy policy, int batchSize)
+            throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return new WriteAheadLog<>(channel, idCodec, policy, batchSize);
+    }
+
+    /**
+     * Receives the records of a log during {@link #replay}.
+     *
+     * @param <T> Type of the employee ID
+     */
+    public interface Handler<T> {
+        void add(Employee<T> employee);
+
+        void remove(T employeeId);
+
+        /**
+         * @param field The lower-case field name, as accepted by {@link EmployeeDatabase#updateEmployeeDetails}
+         */
+        void update(T employeeId, String field, Object value);
+
+        void patch(T employeeId, EmployeePatch patch);
+    }
+
+    /**
+     * Reads every intact record from the start of the log, then truncates anything after the last one.
+     *
+     * @param handler Receives the records in the order they were appended
+     * @return The number of records replayed
+     * @throws IOException If the file cannot be read
+     */
+    public long replay(Handler<T> handler) throws IOException {
+        synchronized (ioLock) {
+            long validBytes = 0;
+            long records = 0;
+            CRC32C crc = new CRC32C();
+            channel.position(0);
+            // The stream must not be closed, as that would close the channel
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+            try {
+                while (true) {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    crc.reset();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    decode(ByteBuffer.wrap(payload), handler);
+                    validBytes += HEADER_BYTES + length;
+                    records++;
+                }
+            } catch (EOFException e) {
+                // A partial record at the end of the file was cut off by a crash
+            }
+            channel.truncate(validBytes);
+            channel.position(validBytes);
+            return records;
+        }
+    }
+
+    /**
+     * Appends an employee insert to the current batch.
+     *
+     * @param employee The inserted employee
+     */
+    public void appendAdd(Employee<T> employee) {
+        byte[] name = encode(employee.getName());
+        byte[] department = encode(employee.getDepartment());
+        int size = 1 + idCodec.size(employee.getEmployeeId()) + stringSize(name) + stringSize(department)
+                + 2 * Double.BYTES + Integer.BYTES + 1;
+        synchronized (this) {
+            ByteBuffer buffer = beginRecord(size);
+            buffer.put(ADD);
+            idCodec.write(employee.getEmployeeId(), buffer);
+            putString(buffer, name);
+            putString(buffer, department);
+            buffer.putDouble(employee.getSalary());
+            buffer.putDouble(employee.getPerformanceRating());
+            buffer.putInt(employee.getYearsOfExperience());
+            buffer.put((byte) (employee.isActive() ? 1 : 0));
+            endRecord(size);
+        }
+    }
+
+    /**
+     * Appends an employee removal to the current batch.
+     *
+     * @param employeeId The ID of the removed employee
+     */
+    public void appendRemove(T employeeId) {
+        int size = 1 + idCodec.size(employeeId);
+        synchronized (this) {
+            ByteBuffer buffer = beginRecord(size);
+            buffer.put(REMOVE);
+            idCodec.write(employeeId, buffer);
+            endRecord(size);
+        }
+    }
+
+    /**
+     * Appends a single-field update to the current batch.
+     *
+     * @param employeeId The ID of the updated employee
+     * @param field The lower-case field name, as accepted by {@link EmployeeDatabase#updateEmployeeDetails}
+     * @param value The new value
+     */
+    public void appendUpdate(T employeeId, String field, Object value) {
+        byte op;
+        byte[] text = null;
+        int valueSize;
+        switch (field) {
+            case "name" -> {
+                op = SET_NAME;
+                text = encode((String) value);
+                valueSize = stringSize(text);
+            }
+            case "department" -> {
+                op = SET_DEPARTMENT;
+                text = encode((String) value);
+                valueSize = stringSize(text);
+            }
+            case "salary" -> {
+                op = SET_SALARY;
+                valueSize = Double.BYTES;
+            }
+            case "performancerating" -> {
+                op = SET_RATING;
+                valueSize = Double.BYTES;
+            }
+            case "yearsofexperience" -> {
+                op = SET_EXPERIENCE;
+                valueSize = Integer.BYTES;
+            }
+            case "isactive" -> {
+                op = SET_ACTIVE;
+                valueSize = 1;
+            }
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        }
+        int size = 1 + idCodec.size(employeeId) + valueSize;
+        synchronized (this) {
+            ByteBuffer buffer = beginRecord(size);
+            buffer.put(op);
+            idCodec.write(employeeId, buffer);
+            switch (op) {
+                case SET_NAME, SET_DEPARTMENT -> putString(buffer, text);
+                case SET_SALARY, SET_RATING -> buffer.putDouble((Double) value);
+                case SET_EXPERIENCE -> buffer.putInt((Integer) value);
+                default -> buffer.put((byte) ((Boolean) value ? 1 : 0));
+            }
+            endRecord(size);
+        }
+    }
+
+    /**
+     * Appends a multi-field update to the current batch as a single record, so that replay applies
+     * either all of its fields or, if the record was torn by a crash, none of them.
+     *
+     * @param employeeId The ID of the updated employee
+     * @param patch The new field values
+     */
+    public void appendPatch(T employeeId, EmployeePatch patch) {
+        int fields = patch.fields();
+        byte[] name = (fields & EmployeePatch.NAME) != 0 ? encode(patch.getName()) : null;
+        byte[] department = (fields & EmployeePatch.DEPARTMENT) != 0 ? encode(patch.getDepartment()) : null;
+        int size = 1 + idCodec.size(employeeId) + 1
+                + ((fields & EmployeePatch.NAME) != 0 ? stringSize(name) : 0)
+                + ((fields & EmployeePatch.DEPARTMENT) != 0 ? stringSize(department) : 0)
+                + ((fields & EmployeePatch.SALARY) != 0 ? Double.BYTES : 0)
+                + ((fields & EmployeePatch.PERFORMANCE_RATING) != 0 ? Double.BYTES : 0)
+                + ((fields & EmployeePatch.YEARS_OF_EXPERIENCE) != 0 ? Integer.BYTES : 0)
+                + ((fields & EmployeePatch.ACTIVE) != 0 ? 1 : 0);
+        synchronized (this) {
+            ByteBuffer buffer = beginRecord(size);
+            buffer.put(PATCH);
+            idCodec.write(employeeId, buffer);
+            buffer.put((byte) fields);
+            if ((fields & EmployeePatch.NAME) != 0) {
+                putString(buffer, name);
+            }
+            if ((fields & EmployeePatch.DEPARTMENT) != 0) {
+                putString(buffer, department);
+            }
+            if ((fields & EmployeePatch.SALARY) != 0) {
+                buffer.putDouble(patch.getSalary());
+            }
+            if ((fields & EmployeePatch.PERFORMANCE_RATING) != 0) {
+                buffer.putDouble(patch.getPerformanceRating());
+            }
+            if ((fields & EmployeePatch.YEARS_OF_EXPERIENCE) != 0) {
+                buffer.putInt(patch.getYearsOfExperience());
+            }
+            if ((fields & EmployeePatch.ACTIVE) != 0) {
+                buffer.put((byte) (patch.isActive() ? 1 : 0));
+            }
+            endRecord(size);
+        }
+    }
+
+    /**
+     * Makes the records appended so far durable according to the fsync policy. With
+     * {@link FsyncPolicy#EVERY_OPERATION} this always writes and forces; otherwise it only does I/O once a
+     * full batch has accumulated.
+     *
+     * @throws IOException If the records cannot be written
+     */
+    public void commit() throws IOException {
+        checkNotFailed();
+        long target;
+        boolean due;
+        synchronized (this) {
+            target = appended;
+            due = policy == FsyncPolicy.EVERY_OPERATION || pendingRecords >= batchSize;
+        }
+        if (due) {
+            flush(target, policy != FsyncPolicy.NEVER);
+        }
+    }
+
+    /**
+     * Writes and forces every record appended so far, regardless of the fsync policy.
+     *
+     * @throws IOException If the records cannot be written
+     */
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        flush(target, true);
+    }
+
+    /**
+     * Discards every record, both written and pending. Used once the records are covered by a snapshot;
+     * the caller must make sure no record is appended concurrently. A log that failed can be used again
+     * afterwards.
+     *
+     * @throws IOException If the file cannot be truncated
+     */
+    public void reset() throws IOException {
+        synchronized (ioLock) {
+            synchronized (this) {
+                pending.clear();
+                pendingRecords = 0;
+                if (unwritten != null) {
+                    unwritten.clear();
+                    spare = unwritten;
+                    unwritten = null;
+                }
+                // Commits still waiting on discarded records must find nothing left to do
+                written = appended;
+                forced = appended;
+            }
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            failure = null;
+        }
+    }
+
+    /**
+     * Gets the fsync policy of this log.
+     *
+     * @return The fsync policy
+     */
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Syncs any pending records and closes the file.
+     *
+     * @throws IOException If the records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush(long target, boolean force) throws IOException {
+        synchronized (ioLock) {
+            checkNotFailed();
+            // A commit by another thread may already have covered our records
+            if ((force ? forced : written) >= target) {
+                return;
+            }
+            while (written < target) {
+                if (unwritten == null) {
+                    synchronized (this) {
+                        unwritten = pending;
+                        pending = spare != null ? spare : ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+                        pendingRecords = 0;
+                        unwrittenUpTo = appended;
+                    }
+                    spare = null;
+                    unwritten.flip();
+                }
+                // If this throws, the batch stays unwritten from where the write stopped, for the next commit
+                while (unwritten.hasRemaining()) {
+                    channel.write(unwritten);
+                }
+                unwritten.clear();
+                spare = unwritten;
+                unwritten = null;
+                written = unwrittenUpTo;
+            }
+            if (force) {
+                long upTo = written;
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    failure = e;
+                    throw e;
+                }
+                forced = upTo;
+            }
+        }
+    }
+
+    private void checkNotFailed() throws IOException {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new IOException("The log could not be forced to disk earlier and must be reset", failed);
+        }
+    }
+
+    private ByteBuffer beginRecord(int payloadSize) {
+        if (pending.remaining() < HEADER_BYTES + payloadSize) {
+            int capacity = Math.max(pending.capacity() * 2, pending.position() + HEADER_BYTES + payloadSize);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        pending.putInt(payloadSize);
+        pending.putInt(0); // Checksum, filled in by endRecord
+        return pending;
+    }
+
+    private void endRecord(int payloadSize) {
+        int payloadStart = pending.position() - payloadSize;
+        CRC32C crc = new CRC32C();
+        crc.update(pending.slice(payloadStart, payloadSize));
+        pending.putInt(payloadStart - Integer.BYTES, (int) crc.getValue());
+        pendingRecords++;
+        appended++;
+    }
+
+    private void decode(ByteBuffer payload, Handler<T> handler) {
+        byte op = payload.get();
+        T employeeId = idCodec.read(payload);
+        switch (op) {
+            case ADD -> {
+                String name = getString(payload);
+                String department = getString(payload);
+                double salary = payload.getDouble();
+                double rating = payload.getDouble();
+                int experience = payload.getInt();
+                boolean active = payload.get() != 0;
+                handler.add(new Employee<>(employeeId, name, department, salary, rating, experience, active));
+            }
+            case REMOVE -> handler.remove(employeeId);
+            case SET_NAME -> handler.update(employeeId, "name", getString(payload));
+            case SET_DEPARTMENT -> handler.update(employeeId, "department", getString(payload));
+            case SET_SALARY -> handler.update(employeeId, "salary", payload.getDouble());
+            case SET_RATING -> handler.update(employeeId, "performancerating", payload.getDouble());
+            case SET_EXPERIENCE -> handler.update(employeeId, "yearsofexperience", payload.getInt());
+            case SET_ACTIVE -> handler.update(employeeId, "isactive", payload.get() != 0);
+            case PATCH -> {
+                int fields = payload.get();
+                EmployeePatch patch = new EmployeePatch();
+                if ((fields & EmployeePatch.NAME) != 0) {
+                    patch.name(getString(payload));
+                }
+                if ((fields & EmployeePatch.DEPARTMENT) != 0) {
+                    patch.department(getString(payload));
+                }
+                if ((fields & EmployeePatch.SALARY) != 0) {
+                    patch.salary(payload.getDouble());
+                }
+                if ((fields & EmployeePatch.PERFORMANCE_RATING) != 0) {
+                    patch.performanceRating(payload.getDouble());
+                }
+                if ((fields & EmployeePatch.YEARS_OF_EXPERIENCE) != 0) {
+                    patch.yearsOfExperience(payload.getInt());
+                }
+                if ((fields & EmployeePatch.ACTIVE) != 0) {
+                    patch.active(payload.get() != 0);
+                }
+                handler.patch(employeeId, patch);
+            }
+            default -> throw new IllegalStateException("Unknown log operation: " + op);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] bytes) {
+        return Integer.BYTES + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
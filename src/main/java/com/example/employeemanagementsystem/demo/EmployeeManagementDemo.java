@@ -3,8 +3,12 @@ package com.example.employeemanagementsystem.demo;
 
 
 import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeExporter;
+import com.example.employeemanagementsystem.database.IntEmployeeDatabase;
 import com.example.employeemanagementsystem.model.Employee;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.Iterator;
 import java.util.List;
 
@@ -15,7 +19,7 @@ public class EmployeeManagementDemo {
 
     public static void main(String[] args) {
         // Create a new employee database
-        EmployeeDatabase<Integer> database = new EmployeeDatabase<>();
+        EmployeeDatabase<Integer> database = new IntEmployeeDatabase();
 
         // Add some employees
         System.out.println("Adding employees...");
@@ -84,6 +88,12 @@ public class EmployeeManagementDemo {
             System.out.println(iterator.next());
         }
 
+        // Export query results straight from the database, without collecting them into a list first
+        System.out.println("\n--- Exporting IT department as CSV ---");
+        export(database, EmployeeExporter.Format.CSV);
+        System.out.println("\n--- Exporting IT department as JSON lines ---");
+        export(database, EmployeeExporter.Format.JSON_LINES);
+
         // Update an employee
         System.out.println("\n--- Updating employee with ID 3 ---");
         database.updateEmployeeDetails(3, "salary", 90000.0);
@@ -96,6 +106,17 @@ public class EmployeeManagementDemo {
         System.out.println("Employee count after removal: " + database.getEmployeeCount());
     }
 
+    // Helper method to export the IT department to the console.
+
+    private static void export(EmployeeDatabase<Integer> database, EmployeeExporter.Format format) {
+        try {
+            new EmployeeExporter(format).export(database.streamByDepartment("IT"), Channels.newChannel(System.out));
+            System.out.flush();
+        } catch (IOException e) {
+            System.out.println("Export failed: " + e.getMessage());
+        }
+    }
+
     // Helper method to display a list of employees.
 
     private static <T> void displayEmployees(List<Employee<T>> employees) {
@@ -0,0 +1,39 @@
+package com.example.employeemanagementsystem.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical department names. A company has only a handful of departments, repeated across every employee,
+ * so employees share one {@code String} per distinct name instead of each holding the copy it was parsed
+ * into from a CSV file or the write-ahead log.
+ */
+final class Departments {
+    // Past this many distinct names, new ones are kept as given, so unusual input cannot grow the pool forever
+    private static final int MAX_NAMES = 4096;
+
+    private static final ConcurrentHashMap<String, String> NAMES = new ConcurrentHashMap<>();
+
+    private Departments() {
+    }
+
+    /**
+     * Gets the shared instance of a department name.
+     *
+     * @param department The department name, or null
+     * @return An equal string, the same instance for every equal name while the pool has room
+     */
+    static String canonical(String department) {
+        if (department == null) {
+            return null;
+        }
+        String canonical = NAMES.get(department);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (NAMES.size() >= MAX_NAMES) {
+            return department;
+        }
+        canonical = NAMES.putIfAbsent(department, department);
+        return canonical == null ? department : canonical;
+    }
+}
@@ -18,13 +18,26 @@ public class Employee<T> implements Comparable<Employee<T>> {
                     double performanceRating, int yearsOfExperience, boolean isActive) {
         this.employeeId = employeeId;
         this.name = name;
-        this.department = department;
+        this.department = Departments.canonical(department);
         this.salary = salary;
         this.performanceRating = performanceRating;
         this.yearsOfExperience = yearsOfExperience;
         this.isActive = isActive;
     }
 
+    //Copy constructor, used to publish changes as a new version of the employee
+
+    public Employee(Employee<T> other) {
+        // The department is already canonical, so it is not looked up again
+        this.employeeId = other.employeeId;
+        this.name = other.name;
+        this.department = other.department;
+        this.salary = other.salary;
+        this.performanceRating = other.performanceRating;
+        this.yearsOfExperience = other.yearsOfExperience;
+        this.isActive = other.isActive;
+    }
+
     // Getters and Setters
     public T getEmployeeId() {
         return employeeId;
@@ -43,7 +56,7 @@ public class Employee<T> implements Comparable<Employee<T>> {
     }
 
     public void setDepartment(String department) {
-        this.department = department;
+        this.department = Departments.canonical(department);
     }
 
     public double getSalary() {
@@ -97,7 +110,8 @@ public class Employee<T> implements Comparable<Employee<T>> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(employeeId);
+        // Same value as Objects.hash(employeeId), without allocating its varargs array on every call
+        return 31 + Objects.hashCode(employeeId);
     }
 
     @Override
@@ -0,0 +1,588 @@
+package com.example.employeemanagementsystem.server;
+
+import com.example.employeemanagementsystem.database.DepartmentStats;
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeExporter;
+import com.example.employeemanagementsystem.database.EmployeeMetrics;
+import com.example.employeemanagementsystem.database.EmployeePatch;
+import com.example.employeemanagementsystem.database.EmployeeQuery;
+import com.example.employeemanagementsystem.database.EmployeeSortKey;
+import com.example.employeemanagementsystem.database.FsyncPolicy;
+import com.example.employeemanagementsystem.database.IdCodec;
+import com.example.employeemanagementsystem.database.OperationStats;
+import com.example.employeemanagementsystem.database.QueryCache;
+import com.example.employeemanagementsystem.database.WriteAheadLog;
+import com.example.employeemanagementsystem.model.Employee;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import javax.management.JMException;
+
+/**
+ * Serves an {@link EmployeeDatabase} over a local HTTP/JSON API, so that it can run headless instead of inside
+ * the GUI.
+ * <p>
+ * Built on the JDK's HTTP server, with every exchange handled on its own virtual thread, so a slow client or a
+ * large result never holds up the others. Connections are kept alive and requests may be pipelined; the
+ * responses come back in request order. Lists of employees are streamed as JSON lines
+ * ({@code application/x-ndjson}), one employee per line in the format of {@link EmployeeExporter}, and are
+ * never held in memory as text.
+ * <ul>
+ *   <li>{@code GET /employees}: every employee, or those matching the query parameters {@code department},
+ *       {@code name}, {@code minSalary}, {@code maxSalary}, {@code minRating} and {@code active}, sorted by
+ *       {@code sort} (an {@link EmployeeSortKey}, such as {@code salary} or {@code performanceRating}) in
+ *       {@code order} {@code asc} or {@code desc}, at most {@code limit} of them</li>
+ *   <li>{@code POST /employees}: adds the employee in the JSON body</li>
+ *   <li>{@code GET}, {@code PUT} and {@code DELETE /employees/{id}}: reads one employee, changes the fields
+ *       given in the JSON body, or removes the employee</li>
+ *   <li>{@code GET /departments/{name}/stats}: the {@link DepartmentStats} of a department</li>
+ *   <li>{@code POST /raises?minRating=...&percent=...}: gives a salary raise, as
+ *       {@link EmployeeDatabase#giveSalaryRaise}</li>
+ *   <li>{@code GET /metrics}: the database metrics and query cache figures, if enabled</li>
+ * </ul>
+ * Errors are answered with a 4xx status and a body of {@code {"error": "..."}}, or 500 if the server failed,
+ * such as when the attached log cannot be written.
+ */
+public final class EmployeeServer implements AutoCloseable {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int QUERY_CACHE_SIZE = 1024;
+    // Connections waiting to be accepted; the system default of 50 refuses connections under load
+    private static final int BACKLOG = 1024;
+    // Most responses hold a few employees, and every exchange being streamed has a buffer of its own
+    private static final int STREAM_BUFFER_BYTES = 8 * 1024;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    static {
+        // Read once by the JDK server, so they are set before the first one is created unless given on the
+        // command line. Without TCP_NODELAY, a response written as headers and then body waits about 40 ms
+        // for the client's delayed ACK, and by default the server closes keep-alive connections beyond 200
+        // idle ones, which a few hundred clients reach whenever they are all between requests.
+        setDefault("sun.net.httpserver.nodelay", "true");
+        setDefault("sun.net.httpserver.maxIdleConnections", "10000");
+    }
+
+    private final EmployeeDatabase<Integer> database;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates a server for a database, listening on the loopback address only. Call {@link #start} to serve.
+     *
+     * @param database The database, which must be concurrent
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public EmployeeServer(EmployeeDatabase<Integer> database, int port) throws IOException {
+        if (!database.isConcurrent()) {
+            throw new IllegalArgumentException("The server needs a concurrent database");
+        }
+        this.database = database;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/employees", exchange -> handle(exchange, this::employees));
+        server.createContext("/departments", exchange -> handle(exchange, this::departments));
+        server.createContext("/raises", exchange -> handle(exchange, this::raises));
+        server.createContext("/metrics", exchange -> handle(exchange, this::metrics));
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     * <p>
+     * Usage: {@code EmployeeServer [--port N] [--data DIRECTORY]}. With a data directory, the employees are
+     * restored from its snapshot and log, every change is logged, and a checkpoint is written on shutdown;
+     * without one, the database starts empty and is lost on exit.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        Path dataDir = null;
+        for (int arg = 0; arg < args.length; arg++) {
+            switch (args[arg]) {
+                case "--port" -> port = Integer.parseInt(args[++arg]);
+                case "--data" -> dataDir = Path.of(args[++arg]);
+                default -> {
+                    System.err.println("Usage: EmployeeServer [--port N] [--data DIRECTORY]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>(true);
+        Path snapshotFile = null;
+        if (dataDir != null) {
+            Files.createDirectories(dataDir);
+            snapshotFile = dataDir.resolve("employees.snapshot");
+            if (Files.exists(snapshotFile)) {
+                database = EmployeeDatabase.restoreSnapshot(snapshotFile, IdCodec.INTEGER, true);
+            }
+            database.attachLog(WriteAheadLog.open(dataDir.resolve("employees.wal"), IdCodec.INTEGER,
+                    FsyncPolicy.EVERY_OPERATION, 64));
+        }
+        EmployeeMetrics metrics = database.enableMetrics();
+        try {
+            metrics.registerMBean("server");
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        database.enableQueryCache(QUERY_CACHE_SIZE, null);
+
+        EmployeeServer server = new EmployeeServer(database, port);
+        EmployeeDatabase<Integer> served = database;
+        Path checkpointFile = snapshotFile;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            if (checkpointFile != null) {
+                try {
+                    served.checkpoint(checkpointFile, IdCodec.INTEGER);
+                    served.detachLog();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }));
+        server.start();
+        System.out.printf("Serving %,d employees on http://localhost:%d/employees%n",
+                database.getEmployeeCount(), server.getPort());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return The port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops listening and closes every connection. Exchanges still running are left to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private interface Route {
+        void serve(HttpExchange exchange, String path) throws IOException;
+    }
+
+    /**
+     * Runs a route, turning invalid requests and failures into error responses. The exchange is then closed,
+     * which keeps the connection open for the next request.
+     */
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        try {
+            route.serve(exchange, exchange.getRequestURI().getPath());
+        } catch (HttpError e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            if (exchange.getResponseCode() != -1) {
+                // Closing the exchange would end a streamed response as if it were complete. Left open, the
+                // server drops the connection, and the client sees the response cut off.
+                throw e;
+            }
+            e.printStackTrace();
+            sendError(exchange, 500, "Internal error: " + e);
+        }
+        exchange.close();
+    }
+
+    private void employees(HttpExchange exchange, String path) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (path.equals("/employees") || path.equals("/employees/")) {
+            switch (method) {
+                case "GET" -> listEmployees(exchange);
+                case "POST" -> addEmployee(exchange);
+                default -> throw methodNotAllowed(exchange, "GET, POST");
+            }
+            return;
+        }
+        if (!path.startsWith("/employees/")) {
+            throw new HttpError(404, "Not found: " + path);
+        }
+        int employeeId = parseInt("employee ID", path.substring("/employees/".length()));
+        switch (method) {
+            case "GET" -> sendEmployee(exchange, 200, found(employeeId, database.getEmployee(employeeId)));
+            case "PUT" -> updateEmployee(exchange, employeeId);
+            case "DELETE" -> {
+                if (!database.removeEmployee(employeeId)) {
+                    throw notFound(employeeId);
+                }
+                exchange.sendResponseHeaders(204, -1);
+            }
+            default -> throw methodNotAllowed(exchange, "GET, PUT, DELETE");
+        }
+    }
+
+    private void listEmployees(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = queryParameters(exchange.getRequestURI());
+        if (parameters.isEmpty()) {
+            streamEmployees(exchange, database.streamAllEmployees());
+            return;
+        }
+        EmployeeQuery query = new EmployeeQuery();
+        EmployeeSortKey sortKey = null;
+        Boolean descending = null;
+        double minSalary = Double.NEGATIVE_INFINITY;
+        double maxSalary = Double.POSITIVE_INFINITY;
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            String value = parameter.getValue();
+            switch (parameter.getKey()) {
+                case "department" -> query.department(value);
+                case "name" -> query.nameContains(value);
+                case "minSalary" -> minSalary = parseDouble("minSalary", value);
+                case "maxSalary" -> maxSalary = parseDouble("maxSalary", value);
+                case "minRating" -> query.minRating(parseDouble("minRating", value));
+                case "active" -> query.active(parseBoolean("active", value));
+                case "sort" -> sortKey = parseSortKey(value);
+                case "order" -> descending = switch (value) {
+                    case "asc" -> false;
+                    case "desc" -> true;
+                    default -> throw new IllegalArgumentException("order must be asc or desc, not " + value);
+                };
+                case "limit" -> query.limit(parseInt("limit", value));
+                default -> throw new IllegalArgumentException("Unknown parameter: " + parameter.getKey());
+            }
+        }
+        if (parameters.containsKey("minSalary") || parameters.containsKey("maxSalary")) {
+            query.salaryBetween(minSalary, maxSalary);
+        }
+        if (sortKey != null) {
+            query.sortBy(sortKey, descending != null && descending);
+        } else if (descending != null) {
+            throw new IllegalArgumentException("order needs a sort field");
+        }
+        streamEmployees(exchange, database.query(query).stream());
+    }
+
+    private void addEmployee(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        Employee<Integer> employee = new Employee<>(
+                intMember(body, "id"),
+                stringMember(body, "name"),
+                stringMember(body, "department"),
+                numberMember(body, "salary"),
+                numberMember(body, "performanceRating"),
+                intMember(body, "yearsOfExperience"),
+                !body.containsKey("active") || booleanMember(body, "active"));
+        if (!database.addEmployee(employee)) {
+            throw new HttpError(409, "Employee " + employee.getEmployeeId() + " already exists");
+        }
+        exchange.getResponseHeaders().set("Location", "/employees/" + employee.getEmployeeId());
+        sendEmployee(exchange, 201, employee);
+    }
+
+    private void updateEmployee(HttpExchange exchange, int employeeId) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        EmployeePatch patch = new EmployeePatch();
+        for (String member : body.keySet()) {
+            switch (member) {
+                case "id" -> {
+                    if (intMember(body, "id") != employeeId) {
+                        throw new IllegalArgumentException("The employee ID cannot be changed");
+                    }
+                }
+                case "name" -> patch.name(stringMember(body, member));
+                case "department" -> patch.department(stringMember(body, member));
+                case "salary" -> patch.salary(numberMember(body, member));
+                case "performanceRating" -> patch.performanceRating(numberMember(body, member));
+                case "yearsOfExperience" -> patch.yearsOfExperience(intMember(body, member));
+                case "active" -> patch.active(booleanMember(body, member));
+                default -> throw new IllegalArgumentException("Unknown field: " + member);
+            }
+        }
+        if (!database.updateEmployee(employeeId, patch)) {
+            throw notFound(employeeId);
+        }
+        // Read back, since another request may have changed other fields meanwhile
+        sendEmployee(exchange, 200, found(employeeId, database.getEmployee(employeeId)));
+    }
+
+    private void departments(HttpExchange exchange, String path) throws IOException {
+        if (!path.startsWith("/departments/") || !path.endsWith("/stats")
+                || path.length() <= "/departments//stats".length()) {
+            throw new HttpError(404, "Not found: " + path);
+        }
+        if (!exchange.getRequestMethod().equals("GET")) {
+            throw methodNotAllowed(exchange, "GET");
+        }
+        String department = path.substring("/departments/".length(), path.length() - "/stats".length());
+        DepartmentStats stats = database.getDepartmentStats(department);
+        StringBuilder json = new StringBuilder("{\"department\":");
+        Json.appendString(json, department);
+        json.append(",\"employeeCount\":").append(stats.employeeCount())
+                .append(",\"salarySum\":");
+        Json.appendNumber(json, stats.salarySum());
+        json.append(",\"minSalary\":");
+        Json.appendNumber(json, stats.minSalary());
+        json.append(",\"maxSalary\":");
+        Json.appendNumber(json, stats.maxSalary());
+        json.append(",\"averageSalary\":");
+        Json.appendNumber(json, stats.averageSalary());
+        json.append(",\"averageRating\":");
+        Json.appendNumber(json, stats.averageRating());
+        json.append(",\"activeCount\":").append(stats.activeCount()).append("}\n");
+        sendJson(exchange, 200, json.toString());
+    }
+
+    private void raises(HttpExchange exchange, String path) throws IOException {
+        if (!path.equals("/raises")) {
+            throw new HttpError(404, "Not found: " + path);
+        }
+        if (!exchange.getRequestMethod().equals("POST")) {
+            throw methodNotAllowed(exchange, "POST");
+        }
+        Map<String, String> parameters = queryParameters(exchange.getRequestURI());
+        int raised = database.giveSalaryRaise(parseDouble("minRating", required(parameters, "minRating")),
+                parseDouble("percent", required(parameters, "percent")));
+        sendJson(exchange, 200, "{\"raised\":" + raised + "}\n");
+    }
+
+    private void metrics(HttpExchange exchange, String path) throws IOException {
+        if (!path.equals("/metrics")) {
+            throw new HttpError(404, "Not found: " + path);
+        }
+        if (!exchange.getRequestMethod().equals("GET")) {
+            throw methodNotAllowed(exchange, "GET");
+        }
+        EmployeeMetrics metrics = database.getMetrics();
+        if (metrics == null) {
+            throw new HttpError(404, "Metrics are disabled");
+        }
+        StringBuilder json = new StringBuilder("{\"operations\":[");
+        List<OperationStats> operations = metrics.getOperations();
+        for (int i = 0; i < operations.size(); i++) {
+            OperationStats stats = operations.get(i);
+            json.append(i == 0 ? "{" : ",{").append("\"operation\":");
+            Json.appendString(json, stats.operation());
+            json.append(",\"count\":").append(stats.count())
+                    .append(",\"indexHits\":").append(stats.indexHits())
+                    .append(",\"indexMisses\":").append(stats.indexMisses())
+                    .append(",\"meanNanos\":").append(stats.meanNanos())
+                    .append(",\"p50Nanos\":").append(stats.p50Nanos())
+                    .append(",\"p99Nanos\":").append(stats.p99Nanos())
+                    .append(",\"maxNanos\":").append(stats.maxNanos())
+                    .append(",\"p50ResultSize\":").append(stats.p50ResultSize())
+                    .append(",\"p99ResultSize\":").append(stats.p99ResultSize())
+                    .append(",\"maxResultSize\":").append(stats.maxResultSize())
+                    .append('}');
+        }
+        json.append("],\"queryCache\":");
+        QueryCache cache = database.getQueryCache();
+        if (cache == null) {
+            json.append("null");
+        } else {
+            json.append("{\"size\":").append(cache.size())
+                    .append(",\"hits\":").append(cache.getHits())
+                    .append(",\"misses\":").append(cache.getMisses())
+                    .append(",\"hitRatio\":");
+            Json.appendNumber(json, cache.getHitRatio());
+            json.append(",\"evictions\":").append(cache.getEvictions())
+                    .append(",\"invalidations\":").append(cache.getInvalidations())
+                    .append(",\"expirations\":").append(cache.getExpirations())
+                    .append('}');
+        }
+        sendJson(exchange, 200, json.append("}\n").toString());
+    }
+
+    /**
+     * Streams employees as JSON lines, with chunked encoding, so the response starts before the last employee
+     * has been encoded.
+     */
+    private static void streamEmployees(HttpExchange exchange, Stream<Employee<Integer>> employees)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        new EmployeeExporter(EmployeeExporter.Format.JSON_LINES, STREAM_BUFFER_BYTES)
+                .export(employees, Channels.newChannel(exchange.getResponseBody()));
+    }
+
+    private static void sendEmployee(HttpExchange exchange, int status, Employee<Integer> employee)
+            throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(256);
+        new EmployeeExporter(EmployeeExporter.Format.JSON_LINES, 256)
+                .export(Stream.of(employee), Channels.newChannel(json));
+        send(exchange, status, json.toByteArray());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        Json.appendString(json, message);
+        sendJson(exchange, status, json.append("}\n").toString());
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        send(exchange, status, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+        exchange.getResponseBody().write(json);
+    }
+
+    private static void setDefault(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            throw new HttpError(413, "The body is larger than " + MAX_BODY_BYTES + " bytes");
+        }
+        return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> queryParameters(URI uri) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            if (parameters.put(name, value) != null) {
+                throw new IllegalArgumentException("Repeated parameter: " + name);
+            }
+        }
+        return parameters;
+    }
+
+    private static String required(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static EmployeeSortKey parseSortKey(String value) {
+        // performanceRating -> PERFORMANCE_RATING
+        String name = value.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+        for (EmployeeSortKey key : EmployeeSortKey.values()) {
+            if (key.name().equals(name)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort field: " + value);
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an integer, not " + value);
+        }
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, not " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String name, String value) {
+        return switch (value) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException(name + " must be true or false, not " + value);
+        };
+    }
+
+    private static Object member(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field: " + name);
+        }
+        return value;
+    }
+
+    private static String stringMember(Map<String, Object> body, String name) {
+        if (member(body, name) instanceof String value) {
+            return value;
+        }
+        throw new IllegalArgumentException(name + " must be a string");
+    }
+
+    private static double numberMember(Map<String, Object> body, String name) {
+        if (member(body, name) instanceof Number value) {
+            return value.doubleValue();
+        }
+        throw new IllegalArgumentException(name + " must be a number");
+    }
+
+    private static int intMember(Map<String, Object> body, String name) {
+        if (member(body, name) instanceof Long value && value == value.intValue()) {
+            return value.intValue();
+        }
+        throw new IllegalArgumentException(name + " must be a 32-bit integer");
+    }
+
+    private static boolean booleanMember(Map<String, Object> body, String name) {
+        if (member(body, name) instanceof Boolean value) {
+            return value;
+        }
+        throw new IllegalArgumentException(name + " must be true or false");
+    }
+
+    private static Employee<Integer> found(int employeeId, Employee<Integer> employee) {
+        if (employee == null) {
+            throw notFound(employeeId);
+        }
+        return employee;
+    }
+
+    private static HttpError notFound(int employeeId) {
+        return new HttpError(404, "No employee with ID " + employeeId);
+    }
+
+    private static HttpError methodNotAllowed(HttpExchange exchange, String allowed) {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        return new HttpError(405, exchange.getRequestMethod() + " is not allowed here");
+    }
+
+    /**
+     * A request that cannot be served, answered with its status code.
+     */
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.employeemanagementsystem.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The little JSON the server needs: reading one flat object from a request body, and writing strings and
+ * numbers into small response objects. Employees themselves are written by
+ * {@link com.example.employeemanagementsystem.database.EmployeeExporter}.
+ */
+final class Json {
+    private final String text;
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses an object whose values are strings, numbers, booleans or null. Integral numbers are read as
+     * {@link Long}, others as {@link Double}.
+     *
+     * @param text The JSON text
+     * @return The members, in order
+     * @throws IllegalArgumentException If the text is not such an object
+     */
+    static Map<String, Object> parseObject(String text) {
+        Json json = new Json(text);
+        Map<String, Object> members = new LinkedHashMap<>();
+        json.expect('{');
+        if (!json.consume('}')) {
+            do {
+                String name = json.readString();
+                json.expect(':');
+                if (members.put(name, json.readValue()) != null) {
+                    throw json.error("Duplicate member \"" + name + "\"");
+                }
+            } while (json.consume(','));
+            json.expect('}');
+        }
+        json.skipWhitespace();
+        if (json.position < text.length()) {
+            throw json.error("Unexpected text after the object");
+        }
+        return members;
+    }
+
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    static void appendNumber(StringBuilder json, double value) {
+        if (Double.isFinite(value)) {
+            json.append(value);
+        } else {
+            json.append("null"); // JSON has no NaN or infinity
+        }
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("Missing value");
+        }
+        char c = text.charAt(position);
+        if (c == '"') {
+            return readString();
+        }
+        if (text.startsWith("true", position)) {
+            position += 4;
+            return Boolean.TRUE;
+        }
+        if (text.startsWith("false", position)) {
+            position += 5;
+            return Boolean.FALSE;
+        }
+        if (text.startsWith("null", position)) {
+            position += 4;
+            return null;
+        }
+        if (c == '-' || c >= '0' && c <= '9') {
+            return readNumber();
+        }
+        throw error("Only strings, numbers, booleans and null are accepted as values");
+    }
+
+    private Object readNumber() {
+        int start = position;
+        boolean integral = true;
+        while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            integral &= Character.isDigit(text.charAt(position)) || position == start;
+            position++;
+        }
+        String number = text.substring(start, position);
+        try {
+            return integral ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number " + number);
+        }
+    }
+
+    private String readString() {
+        skipWhitespace();
+        if (position >= text.length() || text.charAt(position) != '"') {
+            throw error("Expected a string");
+        }
+        StringBuilder value = new StringBuilder();
+        for (position++; position < text.length(); position++) {
+            char c = text.charAt(position);
+            if (c == '"') {
+                position++;
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (++position >= text.length()) {
+                break;
+            }
+            switch (text.charAt(position)) {
+                case '"' -> value.append('"');
+                case '\\' -> value.append('\\');
+                case '/' -> value.append('/');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (position + 4 >= text.length()) {
+                        throw error("Incomplete escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(position + 1, position + 5), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid escape");
+                    }
+                    position += 4;
+                }
+                default -> throw error("Invalid escape");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position + " of the JSON body");
+    }
+}
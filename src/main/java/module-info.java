@@ -1,6 +1,8 @@
 module com.example.employeemanagementsystem {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.management;
+    requires jdk.httpserver;
 
     requires org.controlsfx.controls;
     requires com.dlsc.formsfx;
@@ -10,5 +12,7 @@ module com.example.employeemanagementsystem {
     opens com.example.employeemanagementsystem to javafx.fxml;
     exports com.example.employeemanagementsystem;
     exports com.example.employeemanagementsystem.controllers;
+    // Lets JMX read the database metrics MXBean
+    exports com.example.employeemanagementsystem.database to java.management;
     opens com.example.employeemanagementsystem.controllers to javafx.fxml;
 }
\ No newline at end of file
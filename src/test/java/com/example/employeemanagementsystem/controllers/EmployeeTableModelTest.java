@@ -0,0 +1,222 @@
+package com.example.employeemanagementsystem.controllers;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeSortKey;
+import com.example.employeemanagementsystem.model.Employee;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeTableModelTest {
+
+    private EmployeeDatabase<Integer> database;
+    private final Queue<Runnable> pendingTasks = new ArrayDeque<>();
+    private EmployeeTableModel<Integer> model;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmployeeDatabase<>();
+        for (int id = 0; id < 1000; id++) {
+            database.addEmployee(new Employee<>(id, "Employee " + id, id % 2 == 0 ? "IT" : "HR",
+                    40000 + (id * 7919) % 50000, (id % 11) / 2.0, id % 30, true));
+        }
+        // Both the loader and the delivery of its results wait until runPendingTasks is called
+        model = new EmployeeTableModel<>(database, pendingTasks::add, pendingTasks::add);
+    }
+
+    @Test
+    void loadsOnlyRequestedPages() {
+        assertEquals(1000, model.size());
+        assertNull(model.get(300)); // Loading
+        assertNull(model.get(301)); // Same page, not loaded twice
+        assertEquals(1, pendingTasks.size());
+
+        List<Integer> replacedFrom = new ArrayList<>();
+        model.addListener((ListChangeListener<EmployeeRow<Integer>>) change -> {
+            while (change.next()) {
+                replacedFrom.add(change.getFrom());
+            }
+        });
+        runPendingTasks();
+        assertEquals(List.of(EmployeeTableModel.PAGE_SIZE), replacedFrom);
+        assertNotNull(model.get(300));
+        assertNull(model.get(0)); // The first page was never asked for
+    }
+
+    @Test
+    void sortIsReadFromTheDatabase() {
+        model.sort(EmployeeSortKey.SALARY, true);
+        List<Employee<Integer>> expected = database.sortBySalary();
+        for (int row = 0; row < model.size(); row += 97) {
+            model.get(row);
+            runPendingTasks();
+            assertEquals(expected.get(row).getSalary(), model.get(row).getEmployee().getSalary());
+        }
+
+        // Rows read again after a change show the new values
+        database.updateEmployeeDetails(expected.getFirst().getEmployeeId(), "salary", 1.0);
+        model.refresh();
+        model.get(999);
+        runPendingTasks();
+        assertEquals(1.0, model.get(999).getEmployee().getSalary());
+    }
+
+    @Test
+    void pagesOfTiedValuesNeitherRepeatNorSkipEmployees() {
+        // Enough employees that the first pages are kept in bounded heaps that grow as the table scrolls
+        EmployeeDatabase<Integer> large = new EmployeeDatabase<>(false, 30000);
+        for (int id = 0; id < 30000; id++) {
+            large.addEmployee(new Employee<>(id, "Employee " + id, "IT", 50000, 4.0, id % 4, id % 2 == 0));
+        }
+        EmployeeTableModel<Integer> largeModel = new EmployeeTableModel<>(large, pendingTasks::add, pendingTasks::add);
+        for (EmployeeSortKey key : List.of(EmployeeSortKey.ACTIVE, EmployeeSortKey.YEARS_OF_EXPERIENCE)) {
+            largeModel.sort(key, true);
+            int[] seen = new int[30000];
+            for (int row = 0; row < largeModel.size(); row++) {
+                if (largeModel.get(row) == null) {
+                    runPendingTasks();
+                }
+                seen[largeModel.get(row).getEmployee().getEmployeeId()]++;
+            }
+            for (int id = 0; id < seen.length; id++) {
+                assertEquals(1, seen[id], key + ", ID " + id);
+            }
+        }
+    }
+
+    @Test
+    void changesReplaceOnlyTheRowsTheyTouch() {
+        EmployeeTableModel.Changes<Integer> changes = new EmployeeTableModel.Changes<>(() -> { });
+        database.addListener(changes);
+        model.get(0);
+        model.get(300);
+        runPendingTasks();
+        EmployeeRow<Integer> row = model.get(300);
+        int id = row.getEmployee().getEmployeeId();
+        assertNotEquals(1.0, row.cell(EmployeeSortKey.SALARY).getValue());
+
+        List<String> changed = new ArrayList<>();
+        model.addListener((ListChangeListener<EmployeeRow<Integer>>) change -> {
+            while (change.next()) {
+                changed.add((change.wasReplaced() ? "replaced " : change.wasRemoved() ? "removed " : "added ")
+                        + change.getFrom());
+            }
+        });
+        database.updateEmployeeDetails(id, "salary", 1.0);
+        model.apply(changes.takeAll());
+        assertEquals(List.of("replaced 300"), changed);
+        assertTrue(pendingTasks.isEmpty()); // Nothing is read again
+        assertEquals(1.0, model.get(300).cell(EmployeeSortKey.SALARY).getValue());
+
+        // Removing a loaded row drops its page and the later ones, but keeps the earlier ones
+        EmployeeRow<Integer> earlierPage = model.get(255);
+        database.removeEmployee(id);
+        model.apply(changes.takeAll());
+        assertEquals("removed 300", changed.getLast());
+        assertEquals(999, model.size());
+        assertSame(earlierPage, model.get(255));
+        assertNull(model.get(299));
+        runPendingTasks();
+        assertNotEquals(id, model.get(300).getEmployee().getEmployeeId());
+
+        // A change to the sorted field moves rows to positions that are not known, so they are read again
+        model.sort(EmployeeSortKey.SALARY, false);
+        model.get(0);
+        runPendingTasks();
+        database.updateEmployeeDetails(model.get(0).getEmployee().getEmployeeId(), "salary", 99999.0);
+        model.apply(changes.takeAll());
+        assertNull(model.get(0));
+        runPendingTasks();
+        assertNotEquals(99999.0, model.get(0).getEmployee().getSalary());
+
+        // A query result is changed in memory
+        model.sort(null, false);
+        model.show(database.searchByDepartment("IT"));
+        int shown = model.size();
+        Employee<Integer> first = model.get(0).getEmployee();
+        database.updateEmployeeDetails(first.getEmployeeId(), "name", "Renamed");
+        database.removeEmployee(model.get(1).getEmployee().getEmployeeId());
+        model.apply(changes.takeAll());
+        assertTrue(pendingTasks.isEmpty());
+        assertEquals(shown - 1, model.size());
+        assertEquals("Renamed", model.get(0).cell(EmployeeSortKey.NAME).getValue());
+    }
+
+    @Test
+    void removingSeveralLoadedRowsShiftsTheRest() {
+        EmployeeTableModel.Changes<Integer> changes = new EmployeeTableModel.Changes<>(() -> { });
+        database.addListener(changes);
+        for (int row = 0; row < 3 * EmployeeTableModel.PAGE_SIZE; row += EmployeeTableModel.PAGE_SIZE) {
+            model.get(row);
+        }
+        runPendingTasks();
+        List<Employee<Integer>> before = new ArrayList<>();
+        for (int row = 0; row < 3 * EmployeeTableModel.PAGE_SIZE; row++) {
+            before.add(model.get(row).getEmployee());
+        }
+        EmployeeRow<Integer> firstPage = model.get(100);
+
+        List<String> changed = new ArrayList<>();
+        model.addListener((ListChangeListener<EmployeeRow<Integer>>) change -> {
+            while (change.next()) {
+                changed.add((change.wasRemoved() ? "removed " : "added ") + change.getFrom());
+            }
+        });
+        // Two rows in one page and one in a later page, in one burst
+        for (int row : List.of(290, 300, 600)) {
+            database.removeEmployee(before.get(row).getEmployeeId());
+        }
+        model.apply(changes.takeAll());
+        // Each position is where the row was once the earlier removals have been made
+        assertEquals(List.of("removed 290", "removed 299", "removed 598"), changed);
+        assertEquals(997, model.size());
+        assertSame(firstPage, model.get(100));
+
+        model.get(290);
+        model.get(600);
+        runPendingTasks();
+        assertEquals(before.get(291), model.get(290).getEmployee());
+        assertEquals(before.get(302), model.get(300).getEmployee());
+        assertEquals(before.get(603), model.get(600).getEmployee());
+    }
+
+    @Test
+    void queryResultIsSortedOnTheLoader() {
+        List<Employee<Integer>> result = database.searchByDepartment("IT");
+        model.sort(EmployeeSortKey.YEARS_OF_EXPERIENCE, false);
+        runPendingTasks();
+        model.show(result);
+        assertEquals(1000, model.size()); // Still every employee until the sorted result arrives
+        runPendingTasks();
+        assertEquals(500, model.size());
+        for (int row = 1; row < model.size(); row++) {
+            assertTrue(model.get(row - 1).getEmployee().getYearsOfExperience()
+                    <= model.get(row).getEmployee().getYearsOfExperience());
+        }
+
+        model.sort(null, false);
+        assertEquals(result.get(42), model.get(42).getEmployee()); // The query's own order
+    }
+
+    @Test
+    void cellValuesAreCreatedOnce() {
+        model.show(database.getAllEmployees());
+        EmployeeRow<Integer> row = model.get(5);
+        assertSame(row.cell(EmployeeSortKey.NAME), row.cell(EmployeeSortKey.NAME));
+        assertEquals(row.getEmployee().getSalary(), row.cell(EmployeeSortKey.SALARY).getValue());
+    }
+
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
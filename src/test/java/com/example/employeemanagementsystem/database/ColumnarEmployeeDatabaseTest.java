@@ -0,0 +1,86 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the columnar engine answers every query the same way as {@link EmployeeDatabase}.
+ */
+class ColumnarEmployeeDatabaseTest {
+
+    private static final String[] DEPARTMENTS = {"IT", "HR", "Finance", "Marketing", "it"};
+
+    private ColumnarEmployeeDatabase<Integer> columnar;
+    private EmployeeDatabase<Integer> reference;
+
+    @BeforeEach
+    void setUp() {
+        columnar = new ColumnarEmployeeDatabase<>();
+        reference = new EmployeeDatabase<>();
+        Random random = new Random(42);
+        for (int id = 0; id < 300; id++) {
+            Employee<Integer> employee = new Employee<>(id, "Employee " + id,
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], 30000 + random.nextInt(100) * 1000,
+                    random.nextInt(51) / 10.0, random.nextInt(30), random.nextBoolean());
+            assertTrue(columnar.addEmployee(employee));
+            reference.addEmployee(new Employee<>(employee));
+        }
+        assertFalse(columnar.addEmployee(new Employee<>(0, "Duplicate", "IT", 1, 1, 1, true)));
+    }
+
+    @Test
+    void queriesMatchEmployeeDatabase() {
+        assertSameEmployees();
+    }
+
+    @Test
+    void queriesMatchAfterMixedMutations() {
+        for (int id = 0; id < 300; id += 7) {
+            assertEquals(reference.removeEmployee(id), columnar.removeEmployee(id));
+        }
+        for (int id = 1; id < 300; id += 5) {
+            assertEquals(reference.updateEmployeeDetails(id, "department", "Legal"),
+                    columnar.updateEmployeeDetails(id, "department", "Legal"));
+            assertEquals(reference.updateEmployeeDetails(id, "isActive", id % 2 == 0),
+                    columnar.updateEmployeeDetails(id, "isActive", id % 2 == 0));
+        }
+        assertFalse(columnar.updateEmployeeDetails(3, "salary", "not a number"));
+        assertEquals(reference.giveSalaryRaise(4.0, 10), columnar.giveSalaryRaise(4.0, 10));
+        columnar.addEmployee(new Employee<>(1000, "Late Joiner", "HR", 99000, 4.9, 1, true));
+        reference.addEmployee(new Employee<>(1000, "Late Joiner", "HR", 99000, 4.9, 1, true));
+
+        assertSameEmployees();
+    }
+
+    private void assertSameEmployees() {
+        assertEquals(reference.getEmployeeCount(), columnar.getEmployeeCount());
+        assertEquals(describe(reference.getAllEmployees()), describe(columnar.getAllEmployees()));
+        for (String department : List.of("it", "HR", "Legal", "None")) {
+            assertEquals(describe(reference.searchByDepartment(department)), describe(columnar.searchByDepartment(department)));
+            assertEquals(reference.getAverageSalaryByDepartment(department), columnar.getAverageSalaryByDepartment(department), 1e-6);
+        }
+        assertEquals(describe(reference.filterByMinimumRating(4.2)), describe(columnar.filterByMinimumRating(4.2)));
+        assertEquals(describe(reference.filterBySalaryRange(50000, 80000)), describe(columnar.filterBySalaryRange(50000, 80000)));
+        assertEquals(describe(reference.searchByName("EE 1")), describe(columnar.searchByName("EE 1")));
+        assertEquals(reference.getTopPaidEmployees(10).stream().map(Employee::getSalary).toList(),
+                columnar.getTopPaidEmployees(10).stream().map(Employee::getSalary).toList());
+        assertEquals(reference.sortBySalary().stream().map(Employee::getSalary).toList(),
+                columnar.sortBySalary().stream().map(Employee::getSalary).toList());
+        assertEquals(reference.getEmployee(2).toString(), columnar.getEmployee(2).toString());
+        assertNull(columnar.getEmployee(-1));
+    }
+
+    private static List<String> describe(List<Employee<Integer>> employees) {
+        return employees.stream()
+                .sorted(Comparator.comparing(Employee::getEmployeeId))
+                .map(Employee::toString)
+                .toList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeCsvImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void importReportsBadRowsAndKeepsTheRest() throws IOException {
+        Path file = tempDir.resolve("employees.csv");
+        Files.writeString(file, String.join("\r\n",
+                EmployeeCsvImporter.HEADER,
+                "1, Alice Smith ,IT,75000,4.5,5,true",
+                "2,\"Smith, \"\"Bob\"\"\",HR,50000,3.0,2,no",
+                "",
+                "3,Carol,Finance,lots,4.0,3,true",
+                "4,Dave,IT,60000,4.0,3",
+                "1,Alice Again,IT,1,1,1,1",
+                "5,\"Eve,IT,60000,4.0,3,true",
+                "6,Frank,IT,60000,4.0,3.5,true",
+                "7,Grace,IT,60000,4.0,3,maybe",
+                "x,Heidi,IT,60000,4.0,3,true",
+                "8,Ivan,Sales,55000,3.5,1,0"));
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+
+        EmployeeCsvImporter.ImportReport report =
+                new EmployeeCsvImporter<>(Integer::valueOf, 2).importFile(file, employeeDatabase);
+
+        assertEquals(3, report.rowsImported());
+        assertEquals(3, employeeDatabase.getEmployeeCount());
+        Employee<Integer> alice = employeeDatabase.getEmployee(1);
+        assertEquals("Alice Smith", alice.getName());
+        assertEquals(75000, alice.getSalary());
+        assertTrue(alice.isActive());
+        Employee<Integer> bob = employeeDatabase.getEmployee(2);
+        assertEquals("Smith, \"Bob\"", bob.getName());
+        assertFalse(bob.isActive());
+        assertEquals(1, employeeDatabase.searchByName("ivan").size());
+
+        assertEquals(7, report.badRowCount());
+        List<Long> lines = report.badRows().stream().map(EmployeeCsvImporter.BadRow::line).toList();
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L, 11L), lines);
+        assertTrue(report.badRows().get(0).message().contains("salary"));
+        assertTrue(report.badRows().get(2).message().contains("Duplicate"));
+        assertTrue(report.rowsPerSecond() > 0);
+        assertTrue(report.peakHeapBytes() > 0);
+    }
+
+    @Test
+    void lineNumbersStayCorrectAcrossChunks() throws IOException {
+        // Large enough to be split into several chunks
+        Path file = tempDir.resolve("large.csv");
+        int rows = 150_000;
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write(EmployeeCsvImporter.HEADER);
+            writer.newLine();
+            for (int id = 0; id < rows; id++) {
+                String salary = id == rows - 2 ? "bad" : Integer.toString(40000 + id % 1000);
+                writer.write(id + ",Employee Number " + id + ",Department " + id % 8 + "," + salary + ",3.5,"
+                        + id % 30 + "," + (id % 2 == 0));
+                writer.newLine();
+            }
+        }
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+
+        EmployeeCsvImporter.ImportReport report =
+                new EmployeeCsvImporter<>(Integer::valueOf, 3).importFile(file, employeeDatabase);
+
+        assertEquals(rows - 1, report.rowsImported());
+        assertEquals(rows - 1, employeeDatabase.getEmployeeCount());
+        assertEquals(List.of(new EmployeeCsvImporter.BadRow(rows, "The salary must be a number: bad")),
+                report.badRows());
+        assertEquals("Employee Number " + (rows - 1), employeeDatabase.getEmployee(rows - 1).getName());
+        assertEquals(rows / 8, employeeDatabase.searchByDepartment("Department 3").size());
+        assertEquals(1, employeeDatabase.searchByName("number 149999").size());
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Multi-threaded stress tests for the concurrent mode of {@link EmployeeDatabase}.
+ */
+class EmployeeDatabaseConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final String[] DEPARTMENTS = {"IT", "HR", "Finance", "Marketing"};
+
+    @TempDir
+    Path tempDir;
+
+    private EmployeeDatabase<Integer> employeeDatabase;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        employeeDatabase = new EmployeeDatabase<>(true);
+        executor = Executors.newFixedThreadPool(THREADS + 1); // One spare thread for readers
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        employeeDatabase = null;
+    }
+
+    @Test
+    void concurrentAddsNeverAcceptDuplicateIds() throws Exception {
+        int ids = 5_000;
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(thread -> {
+            // Every thread races to insert the same IDs
+            for (int id = 0; id < ids; id++) {
+                if (employeeDatabase.addEmployee(newEmployee(id, 50000))) {
+                    accepted.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(ids, accepted.get());
+        assertEquals(ids, employeeDatabase.getEmployeeCount());
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void concurrentAddsAndRemovesLeaveConsistentIndexes() throws Exception {
+        int idsPerThread = 2_000;
+        AtomicInteger removed = new AtomicInteger();
+        runConcurrently(thread -> {
+            int base = thread * idsPerThread;
+            for (int i = 0; i < idsPerThread; i++) {
+                employeeDatabase.addEmployee(newEmployee(base + i, 40000 + i));
+            }
+            // Remove every other employee of the neighbouring thread, which may not have been added yet
+            int neighbour = ((thread + 1) % THREADS) * idsPerThread;
+            for (int i = 0; i < idsPerThread; i += 2) {
+                if (employeeDatabase.removeEmployee(neighbour + i)) {
+                    removed.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(THREADS * idsPerThread - removed.get(), employeeDatabase.getEmployeeCount());
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void concurrentRaisesAreNotLost() throws Exception {
+        int employees = 500;
+        for (int id = 0; id < employees; id++) {
+            employeeDatabase.addEmployee(newEmployee(id, 1000));
+        }
+        int raisesPerThread = 5;
+        AtomicBoolean readerFailed = new AtomicBoolean();
+        AtomicBoolean writersDone = new AtomicBoolean();
+
+        Future<?> reader = executor.submit(() -> {
+            // Readers iterate and query while salaries are being raised
+            while (!writersDone.get()) {
+                try {
+                    employeeDatabase.getAllEmployees();
+                    employeeDatabase.sortBySalary();
+                    employeeDatabase.searchByDepartment("IT");
+                    employeeDatabase.getEmployeeIterator().forEachRemaining(emp -> { });
+                } catch (RuntimeException e) {
+                    readerFailed.set(true);
+                }
+            }
+        });
+        runConcurrently(thread -> {
+            for (int i = 0; i < raisesPerThread; i++) {
+                employeeDatabase.giveSalaryRaise(0, 10);
+            }
+        });
+        writersDone.set(true);
+        reader.get(10, TimeUnit.SECONDS);
+
+        double expected = 1000 * Math.pow(1.1, THREADS * raisesPerThread);
+        for (Employee<Integer> employee : employeeDatabase.getAllEmployees()) {
+            assertEquals(expected, employee.getSalary(), expected * 1e-9);
+        }
+        assertFalse(readerFailed.get());
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void concurrentUpdatesMoveEmployeesBetweenDepartments() throws Exception {
+        int employees = 1_000;
+        for (int id = 0; id < employees; id++) {
+            employeeDatabase.addEmployee(newEmployee(id, 50000));
+        }
+        runConcurrently(thread -> {
+            for (int id = 0; id < employees; id++) {
+                employeeDatabase.updateEmployeeDetails(id, "department", DEPARTMENTS[(id + thread) % DEPARTMENTS.length]);
+                employeeDatabase.updateEmployeeDetails(id, "salary", 50000.0 + thread);
+            }
+        });
+
+        assertEquals(employees, employeeDatabase.getEmployeeCount());
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void readersNeverSeeHalfAppliedPatches() throws Exception {
+        int employees = 200;
+        for (int id = 0; id < employees; id++) {
+            employeeDatabase.addEmployee(new Employee<>(id, "Name 0", DEPARTMENTS[0], 0, 0, 0, true));
+        }
+        AtomicBoolean writersDone = new AtomicBoolean();
+        Future<Integer> reader = executor.submit(() -> {
+            // Every patch writes the same number into the name, department and salary together
+            int torn = 0;
+            while (!writersDone.get()) {
+                for (Employee<Integer> employee : employeeDatabase.getAllEmployees()) {
+                    int version = (int) employee.getSalary();
+                    if (!employee.getName().equals("Name " + version)
+                            || !employee.getDepartment().equals(DEPARTMENTS[version % DEPARTMENTS.length])) {
+                        torn++;
+                    }
+                }
+            }
+            return torn;
+        });
+        runConcurrently(thread -> {
+            for (int round = 1; round <= 50; round++) {
+                int version = round * THREADS + thread;
+                for (int id = 0; id < employees; id++) {
+                    employeeDatabase.updateEmployee(id, new EmployeePatch().name("Name " + version)
+                            .department(DEPARTMENTS[version % DEPARTMENTS.length]).salary(version));
+                }
+            }
+        });
+        writersDone.set(true);
+
+        assertEquals(0, reader.get(10, TimeUnit.SECONDS));
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void viewsNeverSeeHalfAppliedRaises() throws Exception {
+        int employees = 2_000;
+        for (int id = 0; id < employees; id++) {
+            employeeDatabase.addEmployee(newEmployee(id, 50000));
+        }
+        AtomicBoolean writersDone = new AtomicBoolean();
+        Future<Integer> reader = executor.submit(() -> {
+            // Every batch raises everyone alike, so a view must show a single salary
+            int torn = 0;
+            while (!writersDone.get()) {
+                try (EmployeeView<Integer> view = employeeDatabase.openView()) {
+                    List<Employee<Integer>> first = view.getAllEmployees();
+                    double salary = first.getFirst().getSalary();
+                    for (Employee<Integer> employee : first) {
+                        torn += employee.getSalary() == salary ? 0 : 1;
+                    }
+                    for (Employee<Integer> employee : view.getAllEmployees()) {
+                        torn += employee.getSalary() == salary ? 0 : 1;
+                    }
+                    torn += first.size() == employees && view.getEmployeeCount() == employees ? 0 : 1;
+                }
+            }
+            return torn;
+        });
+        runConcurrently(thread -> {
+            for (int round = 0; round < 10; round++) {
+                employeeDatabase.giveSalaryRaise(0, 1);
+            }
+        });
+        writersDone.set(true);
+
+        assertEquals(0, reader.get(10, TimeUnit.SECONDS));
+        assertIndexesConsistent();
+    }
+
+    @Test
+    void checkpointsNeverSnapshotHalfAppliedRaises() throws Exception {
+        int employees = 2_000;
+        for (int id = 0; id < employees; id++) {
+            employeeDatabase.addEmployee(newEmployee(id, 50000));
+        }
+        Path snapshot = tempDir.resolve("employees.snapshot");
+        AtomicBoolean writersDone = new AtomicBoolean();
+        Future<Integer> checkpointer = executor.submit(() -> {
+            // As for views, a snapshot taken between batches holds a single salary
+            int torn = 0;
+            while (!writersDone.get()) {
+                employeeDatabase.checkpoint(snapshot, IdCodec.INTEGER);
+                List<Employee<Integer>> restored = EmployeeSnapshot.read(snapshot, IdCodec.INTEGER);
+                double salary = restored.getFirst().getSalary();
+                for (Employee<Integer> employee : restored) {
+                    torn += employee.getSalary() == salary ? 0 : 1;
+                }
+            }
+            return torn;
+        });
+        runConcurrently(thread -> {
+            for (int round = 0; round < 10; round++) {
+                employeeDatabase.giveSalaryRaise(0, 1);
+            }
+        });
+        writersDone.set(true);
+
+        assertEquals(0, checkpointer.get(10, TimeUnit.SECONDS));
+    }
+
+    private void runConcurrently(ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int threadIndex = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run(threadIndex);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private void assertIndexesConsistent() {
+        List<Employee<Integer>> all = employeeDatabase.getAllEmployees();
+        Set<Integer> ids = new HashSet<>();
+        for (Employee<Integer> employee : all) {
+            assertTrue(ids.add(employee.getEmployeeId()), "Duplicate ID " + employee.getEmployeeId());
+        }
+
+        int indexedByDepartment = 0;
+        for (String department : DEPARTMENTS) {
+            BigDecimal salarySum = BigDecimal.ZERO;
+            double maxSalary = 0;
+            int active = 0;
+            List<Employee<Integer>> members = employeeDatabase.searchByDepartment(department);
+            for (Employee<Integer> employee : members) {
+                assertSame(employeeDatabase.getEmployee(employee.getEmployeeId()), employee);
+                assertEquals(department, employee.getDepartment());
+                salarySum = salarySum.add(new BigDecimal(employee.getSalary()));
+                maxSalary = Math.max(maxSalary, employee.getSalary());
+                active += employee.isActive() ? 1 : 0;
+                indexedByDepartment++;
+            }
+            DepartmentStats stats = employeeDatabase.getDepartmentStats(department);
+            assertEquals(members.size(), stats.employeeCount());
+            assertEquals(salarySum.doubleValue(), stats.salarySum());
+            assertEquals(maxSalary, stats.maxSalary());
+            assertEquals(active, stats.activeCount());
+        }
+        assertEquals(all.size(), indexedByDepartment);
+
+        List<Employee<Integer>> bySalary = employeeDatabase.sortBySalary();
+        assertEquals(all.size(), bySalary.size());
+        for (int i = 1; i < bySalary.size(); i++) {
+            assertTrue(bySalary.get(i - 1).getSalary() >= bySalary.get(i).getSalary());
+        }
+        for (Employee<Integer> employee : bySalary) {
+            assertSame(employeeDatabase.getEmployee(employee.getEmployeeId()), employee);
+        }
+    }
+
+    private static Employee<Integer> newEmployee(int id, double salary) {
+        return new Employee<>(id, "Employee " + id, DEPARTMENTS[id % DEPARTMENTS.length], salary, 4.0, id % 20, true);
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
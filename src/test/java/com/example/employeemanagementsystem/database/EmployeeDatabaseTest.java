@@ -5,7 +5,12 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,6 +52,34 @@ class EmployeeDatabaseTest {
         assertFalse(employeeDatabase.updateEmployeeDetails("2", "name", "Jane Doe")); // Non-existent ID
     }
 
+    @Test
+    void updateEmployeeAppliesPatch() {
+        employeeDatabase.addEmployee(new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>("2", "Jane Smith", "HR", 60000, 4.0, 7, true));
+        assertTrue(employeeDatabase.updateEmployee("1",
+                new EmployeePatch().name("Johnny Doe").department("Finance").salary(52000)));
+        assertFalse(employeeDatabase.updateEmployee("3", new EmployeePatch().salary(1))); // Non-existent ID
+        assertTrue(employeeDatabase.updateEmployee("2", new EmployeePatch())); // Empty patch
+
+        Employee<String> john = employeeDatabase.getEmployee("1");
+        assertEquals("Johnny Doe", john.getName());
+        assertEquals(4.5, john.getPerformanceRating()); // Fields not in the patch are unchanged
+        assertEquals(List.of(john), employeeDatabase.searchByDepartment("finance"));
+        assertTrue(employeeDatabase.searchByDepartment("IT").isEmpty());
+        assertEquals(List.of(john), employeeDatabase.filterBySalaryRange(51000, 53000));
+        assertEquals(List.of(john), employeeDatabase.searchByName("johnny"));
+
+        int updated = employeeDatabase.updateEmployees(Map.of(
+                "1", new EmployeePatch().active(false),
+                "2", EmployeePatch.of(new Employee<>("ignored", "Jane Doe", "IT", 65000, 4.4, 8, false)),
+                "3", new EmployeePatch().active(false)));
+        assertEquals(2, updated);
+        assertFalse(employeeDatabase.getEmployee("1").isActive());
+        assertEquals("Employee ID: 2 | Name: Jane Doe | Department: IT | Salary: $65000.00 | "
+                + "Performance: 4.4 | Experience: 8 years | Active: false", employeeDatabase.getEmployee("2").toString());
+        assertEquals(List.of("Jane Doe"), namesIn("it"));
+    }
+
     @Test
     void getAllEmployees() {
         Employee<String> employee1 = new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true);
@@ -68,6 +101,47 @@ class EmployeeDatabaseTest {
         assertEquals("John Doe", itEmployees.getFirst().getName());
     }
 
+    @Test
+    void searchByDepartmentIgnoresCase() {
+        Employee<String> employee1 = new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true);
+        Employee<String> employee2 = new Employee<>("2", "Jane Smith", "it", 60000, 4.0, 7, true);
+        employeeDatabase.addEmployee(employee1);
+        employeeDatabase.addEmployee(employee2);
+        assertEquals(2, employeeDatabase.searchByDepartment("It").size());
+        assertTrue(employeeDatabase.searchByDepartment("Finance").isEmpty());
+    }
+
+    @Test
+    void departmentIndexAfterMixedMutations() {
+        employeeDatabase.addEmployee(new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>("2", "Jane Smith", "HR", 60000, 4.0, 7, true));
+        employeeDatabase.addEmployee(new Employee<>("3", "Bob Johnson", "IT", 70000, 4.2, 10, true));
+
+        assertTrue(employeeDatabase.updateEmployeeDetails("1", "department", "Finance"));
+        assertFalse(employeeDatabase.updateEmployeeDetails("3", "department", 42)); // Wrong type
+        assertTrue(employeeDatabase.removeEmployee("2"));
+        employeeDatabase.addEmployee(new Employee<>("4", "Eva Wilson", "hr", 65000, 4.1, 3, true));
+
+        assertEquals(List.of("Bob Johnson"), namesIn("IT"));
+        assertEquals(List.of("John Doe"), namesIn("finance"));
+        assertEquals(List.of("Eva Wilson"), namesIn("HR"));
+        assertEquals(70000, employeeDatabase.getAverageSalaryByDepartment("IT"));
+        assertEquals(0, employeeDatabase.getAverageSalaryByDepartment("Marketing"));
+
+        // Every indexed employee must match a linear scan of the whole database
+        for (String department : List.of("IT", "HR", "Finance")) {
+            List<String> scanned = employeeDatabase.filterEmployees(
+                    emp -> emp.getDepartment().equalsIgnoreCase(department)).stream()
+                    .map(Employee::getName).sorted().toList();
+            assertEquals(scanned, namesIn(department));
+        }
+    }
+
+    private List<String> namesIn(String department) {
+        return employeeDatabase.searchByDepartment(department).stream()
+                .map(Employee::getName).sorted().toList();
+    }
+
     @Test
     void searchByName() {
         Employee<String> employee1 = new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true);
@@ -79,6 +153,43 @@ class EmployeeDatabaseTest {
         assertEquals("Jane Smith", employees.getFirst().getName());
     }
 
+    @Test
+    void searchByNameMatchesLinearScan() {
+        // A small alphabet of syllables makes trigrams repeat across names, like real names do
+        String[] syllables = {"an", "na", "Jo", "hn", "ann", "ANA", "e", " ", "ß", "İs"};
+        Random random = new Random(42);
+        for (int i = 0; i < 400; i++) {
+            employeeDatabase.addEmployee(new Employee<>(String.valueOf(i), randomName(random, syllables), "IT",
+                    50000, 4.0, 5, true));
+        }
+        for (int i = 0; i < 400; i += 3) {
+            employeeDatabase.updateEmployeeDetails(String.valueOf(i), "name", randomName(random, syllables));
+        }
+        for (int i = 0; i < 400; i += 7) {
+            employeeDatabase.removeEmployee(String.valueOf(i));
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            String query = randomName(random, syllables);
+            query = query.substring(random.nextInt(query.length() + 1));
+            String expected = query.toLowerCase();
+            List<String> linear = employeeDatabase.getAllEmployees().stream()
+                    .filter(emp -> emp.getName().toLowerCase().contains(expected))
+                    .map(Employee::getEmployeeId).sorted().toList();
+            List<String> indexed = employeeDatabase.searchByName(query).stream()
+                    .map(Employee::getEmployeeId).sorted().toList();
+            assertEquals(linear, indexed, query);
+        }
+    }
+
+    private static String randomName(Random random, String[] syllables) {
+        StringBuilder name = new StringBuilder();
+        for (int i = random.nextInt(6); i >= 0; i--) {
+            name.append(syllables[random.nextInt(syllables.length)]);
+        }
+        return name.toString();
+    }
+
     @Test
     void filterByMinimumRating() {
         Employee<String> employee1 = new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true);
@@ -101,6 +212,26 @@ class EmployeeDatabaseTest {
         assertEquals("John Doe", employees.getFirst().getName());
     }
 
+    @Test
+    void salaryIndexFollowsSalaryChanges() {
+        employeeDatabase.addEmployee(new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>("2", "Jane Smith", "HR", 60000, 3.0, 7, true));
+        employeeDatabase.addEmployee(new Employee<>("3", "Bob Johnson", "IT", 60000, 4.2, 10, true));
+
+        employeeDatabase.giveSalaryRaise(4.0, 50); // John -> 75000, Bob -> 90000
+        assertTrue(employeeDatabase.updateEmployeeDetails("2", "salary", 40000.0));
+
+        assertEquals(List.of("Jane Smith"), employeeDatabase.filterBySalaryRange(40000, 60000).stream()
+                .map(Employee::getName).toList());
+        assertEquals(List.of("John Doe"), employeeDatabase.filterBySalaryRange(75000, 75000).stream()
+                .map(Employee::getName).toList());
+        assertTrue(employeeDatabase.filterBySalaryRange(90001, 80000).isEmpty());
+        assertEquals(List.of("Bob Johnson", "John Doe"), employeeDatabase.getTopPaidEmployees(2).stream()
+                .map(Employee::getName).toList());
+        assertEquals(List.of("Bob Johnson", "John Doe", "Jane Smith"), employeeDatabase.sortBySalary().stream()
+                .map(Employee::getName).toList());
+    }
+
     @Test
     void filterEmployees() {
         Employee<String> employee1 = new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true);
@@ -119,6 +250,57 @@ class EmployeeDatabaseTest {
         assertTrue(employeeDatabase.getEmployeeIterator().hasNext());
     }
 
+    @Test
+    void streamsMatchListQueries() {
+        Random random = new Random(7);
+        String[] departments = {"IT", "HR", "Finance"};
+        String[] syllables = {"an", "na", "jo", "e ", "li"};
+        for (int i = 0; i < 300; i++) {
+            employeeDatabase.addEmployee(new Employee<>("E" + i, randomName(random, syllables), departments[i % 3],
+                    40000 + random.nextInt(20) * 1000, random.nextInt(6), i % 20, i % 2 == 0));
+        }
+        assertEquals(employeeDatabase.getAllEmployees(), employeeDatabase.streamAllEmployees().toList());
+        assertEquals(employeeDatabase.searchByDepartment("it"), employeeDatabase.streamByDepartment("IT").toList());
+        assertEquals(employeeDatabase.searchByName("an"), employeeDatabase.streamByName("an").toList());
+        assertEquals(employeeDatabase.searchByName("ana"), employeeDatabase.streamByName("ana").toList());
+        assertEquals(employeeDatabase.filterByMinimumRating(3), employeeDatabase.streamByMinimumRating(3).toList());
+        assertEquals(employeeDatabase.filterBySalaryRange(45000, 50000),
+                employeeDatabase.streamBySalaryRange(45000, 50000).toList());
+        assertEquals(0, employeeDatabase.streamBySalaryRange(50000, 45000).count());
+        assertEquals(employeeDatabase.filterEmployees(Employee::isActive),
+                employeeDatabase.streamFiltered(Employee::isActive).toList());
+        assertEquals(employeeDatabase.sortBySalary(), employeeDatabase.streamBySalary().toList());
+    }
+
+    @Test
+    void parallelScansMatchSequentialScans() {
+        EmployeeDatabase<Integer> sequential = new EmployeeDatabase<>();
+        EmployeeDatabase<Integer> parallel = new IntEmployeeDatabase();
+        parallel.setParallelThreshold(1);
+        assertThrows(IllegalArgumentException.class, () -> parallel.setParallelThreshold(0));
+        Random random = new Random(11);
+        for (int id = 0; id < 20_000; id++) {
+            Employee<Integer> employee = new Employee<>(id, "Employee " + id, "Department " + id % 5,
+                    30000 + random.nextInt(50_000), random.nextInt(51) / 10.0, id % 30, id % 3 != 0);
+            sequential.addEmployee(employee);
+            parallel.addEmployee(new Employee<>(employee));
+        }
+        assertEquals(describe(sequential.filterByMinimumRating(4.2)), describe(parallel.filterByMinimumRating(4.2)));
+        assertEquals(describe(sequential.filterBySalaryRange(40000, 60000)),
+                describe(parallel.filterBySalaryRange(40000, 60000)));
+        assertEquals(describe(sequential.filterEmployees(Employee::isActive)),
+                describe(parallel.filterEmployees(Employee::isActive)));
+        assertEquals(sequential.getAverageSalaryByDepartment("department 3"),
+                parallel.getAverageSalaryByDepartment("department 3"), 0.001);
+    }
+
+    private static List<String> describe(List<Employee<Integer>> employees) {
+        return employees.stream()
+                .map(Employee::toString)
+                .sorted()
+                .toList();
+    }
+
     @Test
     void sortBySalary() {
         Employee<String> employee1 = new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true);
@@ -149,6 +331,119 @@ class EmployeeDatabaseTest {
         assertEquals("Jane Smith", employees.getFirst().getName());
     }
 
+    @Test
+    void sortedPagesCoverEveryEmployeeInOrder() {
+        Random random = new Random(18);
+        String[] departments = {"IT", "hr", "Finance", null};
+        for (int i = 0; i < 500; i++) {
+            employeeDatabase.addEmployee(new Employee<>("E" + i, i % 50 == 0 ? null : "Name " + random.nextInt(100),
+                    departments[random.nextInt(departments.length)], 40000 + random.nextInt(20) * 1000,
+                    random.nextInt(11) / 2.0, random.nextInt(30), random.nextBoolean()));
+        }
+        List<EmployeeSortKey> keys = new ArrayList<>(List.of(EmployeeSortKey.values()));
+        keys.add(null); // Storage order
+        for (EmployeeSortKey key : keys) {
+            for (boolean descending : new boolean[]{false, true}) {
+                List<Employee<String>> paged = new ArrayList<>();
+                for (int offset = 0; offset < 520; offset += 37) {
+                    paged.addAll(employeeDatabase.getSortedPage(key, descending, offset, 37));
+                }
+                assertEquals(500, paged.size(), key + " descending " + descending);
+                assertEquals(500, paged.stream().distinct().count());
+                if (key != null) {
+                    for (int i = 1; i < paged.size(); i++) {
+                        assertTrue(key.<String>comparator(descending).compare(paged.get(i - 1), paged.get(i)) <= 0,
+                                key + " descending " + descending + " at " + i);
+                    }
+                }
+            }
+        }
+        assertTrue(employeeDatabase.getSortedPage(EmployeeSortKey.SALARY, true, 600, 10).isEmpty());
+        assertEquals(employeeDatabase.getTopPaidEmployees(10).getLast().getSalary(),
+                employeeDatabase.getSortedPage(EmployeeSortKey.SALARY, true, 9, 1).getFirst().getSalary());
+        assertThrows(IllegalArgumentException.class, () -> employeeDatabase.getSortedPage(null, false, -1, 10));
+    }
+
+    @Test
+    void salaryOrdersBreakTiesByIdLikeSortedPages() {
+        Random random = new Random(20);
+        for (int i = 0; i < 300; i++) {
+            employeeDatabase.addEmployee(new Employee<>("E" + random.nextInt(1_000_000), "Name " + i, "IT",
+                    40000 + random.nextInt(3) * 1000, 4.0, 5, true));
+        }
+        int count = employeeDatabase.getEmployeeCount();
+        List<Employee<String>> descending = employeeDatabase.getSortedPage(EmployeeSortKey.SALARY, true, 0, count);
+
+        assertEquals(descending, employeeDatabase.sortBySalary());
+        assertEquals(descending, employeeDatabase.streamBySalary().toList());
+        assertEquals(descending.subList(0, 50), employeeDatabase.getTopPaidEmployees(50));
+    }
+
+    @Test
+    void sortedPagesOfTiedKeysNeitherOverlapNorSkip() {
+        int count = 30_000;
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>(false, count);
+        for (int id = 0; id < count; id++) {
+            database.addEmployee(new Employee<>(id, "Name " + id % 7, "IT", 50000 + id % 3 * 1000, id % 5,
+                    id % 4, id % 2 == 0));
+        }
+        for (EmployeeSortKey key : EmployeeSortKey.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                // The first 10 pages come from bounded heaps of growing size, the later ones from a full sort
+                int[] seen = new int[count];
+                for (int offset = 0; offset < count; offset += 256) {
+                    for (Employee<Integer> employee : database.getSortedPage(key, descending, offset, 256)) {
+                        seen[employee.getEmployeeId()]++;
+                    }
+                }
+                for (int id = 0; id < seen.length; id++) {
+                    assertEquals(1, seen[id], key + " descending " + descending + ", ID " + id);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keptSortOrdersFollowChanges() {
+        for (boolean concurrent : new boolean[]{false, true}) {
+            EmployeeDatabase<Integer> database = new EmployeeDatabase<>(concurrent);
+            for (int id = 0; id < 10000; id++) {
+                database.addEmployee(new Employee<>(id, "Name " + (id * 7919 % 10000), "IT", 50000, 4.0,
+                        id % 40, true));
+            }
+            Random random = new Random(20);
+            for (int round = 0; round < 30; round++) {
+                // Above 8 * 1024 employees, top pages come from a bounded heap, deeper ones from a full sort; both are kept
+                int offset = random.nextBoolean() ? random.nextInt(100) : random.nextInt(10000);
+                boolean descending = random.nextBoolean();
+                for (EmployeeSortKey key : List.of(EmployeeSortKey.NAME, EmployeeSortKey.YEARS_OF_EXPERIENCE)) {
+                    List<Employee<Integer>> expected = new ArrayList<>(database.getAllEmployees());
+                    expected.sort(key.<Integer>comparator(descending));
+                    List<Employee<Integer>> page = database.getSortedPage(key, descending, offset, 25);
+                    assertEquals(Math.min(25, Math.max(database.getEmployeeCount() - offset, 0)), page.size());
+                    for (int i = 0; i < page.size(); i++) {
+                        assertEquals(0, key.<Integer>comparator(descending).compare(expected.get(offset + i), page.get(i)));
+                        // Changes to other fields are visible without re-sorting
+                        assertSame(database.getEmployee(page.get(i).getEmployeeId()), page.get(i));
+                    }
+                }
+                int id = random.nextInt(10000);
+                switch (random.nextInt(4)) {
+                    case 0 -> database.updateEmployeeDetails(id, "name", "Name " + random.nextInt(10000));
+                    case 1 -> database.updateEmployeeDetails(id, "yearsOfExperience", random.nextInt(40));
+                    case 2 -> database.updateEmployeeDetails(id, "salary", random.nextInt(90000) + 10000.0);
+                    default -> {
+                        database.removeEmployee(id);
+                        database.addEmployee(new Employee<>(10000 + round, "Name " + random.nextInt(10000), "HR",
+                                1, 1, random.nextInt(40), false));
+                    }
+                }
+            }
+            assertEquals(database.getTopEmployees(EmployeeSortKey.ID, true, 3).getFirst().getEmployeeId(),
+                    database.getAllEmployees().stream().mapToInt(Employee::getEmployeeId).max().getAsInt());
+        }
+    }
+
     @Test
     void giveSalaryRaise() {
         Employee<String> employee1 = new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true);
@@ -179,6 +474,64 @@ class EmployeeDatabaseTest {
         assertEquals(55000, averageSalary);
     }
 
+    @Test
+    void departmentStatsMatchRecomputedScan() {
+        for (boolean concurrent : new boolean[]{false, true}) {
+            EmployeeDatabase<String> database = new EmployeeDatabase<>(concurrent);
+            Random random = new Random(concurrent ? 5 : 3);
+            String[] departments = {"IT", "it", "HR", "Finance", "Sales"};
+            for (int step = 0; step < 20_000; step++) {
+                String id = "E" + random.nextInt(300);
+                // Few distinct salaries, so the lowest and highest are often shared and often removed
+                double salary = 40000 + random.nextInt(8) * 2500.25;
+                switch (random.nextInt(9)) {
+                    case 0, 1 -> database.addEmployee(new Employee<>(id, "Name", departments[random.nextInt(5)],
+                            salary, random.nextInt(51) / 10.0, 3, random.nextBoolean()));
+                    case 2 -> database.removeEmployee(id);
+                    case 3 -> database.updateEmployeeDetails(id, "salary", salary);
+                    case 4 -> database.updateEmployeeDetails(id, "department", departments[random.nextInt(5)]);
+                    case 5 -> database.updateEmployeeDetails(id, "performanceRating", random.nextInt(51) / 10.0);
+                    case 6 -> database.updateEmployeeDetails(id, "isActive", random.nextBoolean());
+                    case 7 -> database.updateEmployee(id, new EmployeePatch()
+                            .department(departments[random.nextInt(5)]).salary(salary).active(random.nextBoolean()));
+                    default -> database.giveSalaryRaise(random.nextInt(6), random.nextInt(5));
+                }
+                if (step % 97 == 0) {
+                    for (String department : departments) {
+                        assertEquals(recomputeStats(database, department), database.getDepartmentStats(department));
+                    }
+                }
+            }
+            for (String department : new String[]{"it", "HR", "finance", "sales", "Nobody"}) {
+                assertEquals(recomputeStats(database, department), database.getDepartmentStats(department));
+            }
+        }
+    }
+
+    private static DepartmentStats recomputeStats(EmployeeDatabase<String> database, String department) {
+        List<Employee<String>> employees = database.filterEmployees(
+                employee -> employee.getDepartment().equalsIgnoreCase(department));
+        if (employees.isEmpty()) {
+            return new DepartmentStats(0, 0, 0, 0, 0, 0, 0);
+        }
+        BigDecimal salarySum = BigDecimal.ZERO;
+        BigDecimal ratingSum = BigDecimal.ZERO;
+        double minSalary = Double.POSITIVE_INFINITY;
+        double maxSalary = Double.NEGATIVE_INFINITY;
+        int active = 0;
+        for (Employee<String> employee : employees) {
+            salarySum = salarySum.add(new BigDecimal(employee.getSalary()));
+            ratingSum = ratingSum.add(new BigDecimal(employee.getPerformanceRating()));
+            minSalary = Math.min(minSalary, employee.getSalary());
+            maxSalary = Math.max(maxSalary, employee.getSalary());
+            active += employee.isActive() ? 1 : 0;
+        }
+        BigDecimal count = BigDecimal.valueOf(employees.size());
+        return new DepartmentStats(employees.size(), salarySum.doubleValue(), minSalary, maxSalary,
+                salarySum.divide(count, MathContext.DECIMAL128).doubleValue(),
+                ratingSum.divide(count, MathContext.DECIMAL128).doubleValue(), active);
+    }
+
     @Test
     void getEmployee() {
         Employee<String> employee = new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true);
@@ -195,4 +548,40 @@ class EmployeeDatabaseTest {
         employeeDatabase.addEmployee(employee2);
         assertEquals(2, employeeDatabase.getEmployeeCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void listenersReceiveEveryChange() {
+        List<String> events = new ArrayList<>();
+        EmployeeListener<String> listener = new EmployeeListener<>() {
+            @Override
+            public void employeeAdded(Employee<String> employee) {
+                events.add("added " + employee.getName());
+            }
+
+            @Override
+            public void employeeRemoved(Employee<String> employee) {
+                events.add("removed " + employee.getName());
+            }
+
+            @Override
+            public void employeeUpdated(Employee<String> employee, String field) {
+                events.add("updated " + employee.getName() + " " + field + " " + employee.getSalary());
+            }
+        };
+        employeeDatabase.addListener(listener);
+
+        employeeDatabase.addEmployee(new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>("1", "Duplicate", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.updateEmployeeDetails("1", "salary", 55000.0);
+        employeeDatabase.updateEmployeeDetails("1", "salary", "not a number");
+        employeeDatabase.updateEmployeeDetails("1", "unknown", 1);
+        employeeDatabase.giveSalaryRaise(4.0, 10);
+        employeeDatabase.removeEmployee("1");
+        employeeDatabase.removeEmployee("1");
+        employeeDatabase.removeListener(listener);
+        employeeDatabase.addEmployee(new Employee<>("2", "Jane Smith", "HR", 60000, 4.0, 7, true));
+
+        assertEquals(List.of("added John Doe", "updated John Doe salary 55000.0",
+                "updated John Doe salary 60500.00000000001", "removed John Doe"), events);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void csvExportCanBeImportedAgain() throws IOException {
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+        employeeDatabase.addEmployee(new Employee<>(1, "Smith, \"Bob\"", "HR", 50000.5, 3.0, 2, false));
+        employeeDatabase.addEmployee(new Employee<>(2, "Zoë Müller", "IT", 75000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>(3, null, "IT", 60000, 4.0, 3, true));
+        Path file = tempDir.resolve("employees.csv");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long count = new EmployeeExporter(EmployeeExporter.Format.CSV)
+                    .export(employeeDatabase.streamAllEmployees(), channel);
+            assertEquals(3, count);
+        }
+
+        EmployeeDatabase<Integer> imported = new EmployeeDatabase<>();
+        EmployeeCsvImporter.ImportReport report = new EmployeeCsvImporter<>(Integer::valueOf, 1).importFile(file, imported);
+        assertEquals(0, report.badRowCount());
+        assertEquals(employeeDatabase.getEmployee(1).toString(), imported.getEmployee(1).toString());
+        assertEquals(employeeDatabase.getEmployee(2).toString(), imported.getEmployee(2).toString());
+        assertEquals("", imported.getEmployee(3).getName());
+    }
+
+    @Test
+    void jsonLinesExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new EmployeeExporter(EmployeeExporter.Format.JSON_LINES).export(Stream.of(
+                new Employee<>("A\"1", "Tab\tName", null, Double.NaN, 4.5, 5, true),
+                new Employee<>("B2", "Back\\slash", "IT", 75000, 4.0, 7, false)), Channels.newChannel(out));
+
+        assertEquals("""
+                {"id":"A\\"1","name":"Tab\\tName","department":null,"salary":null,"performanceRating":4.5,\
+                "yearsOfExperience":5,"active":true}
+                {"id":"B2","name":"Back\\\\slash","department":"IT","salary":75000.0,"performanceRating":4.0,\
+                "yearsOfExperience":7,"active":false}
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportWritesThroughAFixedBuffer() throws IOException {
+        // Far more output than one buffer holds, so rows are split across writes
+        CountingChannel channel = new CountingChannel();
+        long count = new EmployeeExporter(EmployeeExporter.Format.JSON_LINES).export(IntStream.range(0, 20_000)
+                .mapToObj(id -> new Employee<>(id, "Employee Number " + id, "Finance", id, 3.5, 4, true)), channel);
+
+        assertEquals(20_000, count);
+        assertEquals(20_000, channel.lines);
+        assertTrue(channel.writes > 1);
+        assertTrue(channel.largestWrite <= 64 * 1024);
+    }
+
+    private static final class CountingChannel implements WritableByteChannel {
+        int writes;
+        int largestWrite;
+        int lines;
+
+        @Override
+        public int write(ByteBuffer source) {
+            int written = source.remaining();
+            writes++;
+            largestWrite = Math.max(largestWrite, written);
+            while (source.hasRemaining()) {
+                if (source.get() == '\n') {
+                    lines++;
+                }
+            }
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
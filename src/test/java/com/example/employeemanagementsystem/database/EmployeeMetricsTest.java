@@ -0,0 +1,119 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeMetricsTest {
+
+    @Test
+    void operationsAreCountedOnlyWhileEnabled() {
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>();
+        database.addEmployee(new Employee<>(0, "John Doe", "IT", 50000, 4.5, 5, true));
+        assertNull(database.getMetrics());
+
+        EmployeeMetrics metrics = database.enableMetrics();
+        assertSame(metrics, database.enableMetrics());
+        for (int id = 1; id <= 100; id++) {
+            database.addEmployee(new Employee<>(id, "Name " + id, id % 2 == 0 ? "IT" : "HR", 40000 + id, id % 6, id, true));
+        }
+        assertFalse(database.addEmployee(new Employee<>(1, "Duplicate", "IT", 1, 1, 1, true)));
+        database.searchByName("name 1");
+        database.searchByName("n");
+        database.filterEmployees(employee -> employee.getSalary() > 40050);
+        database.query(new EmployeeQuery().department("IT").minRating(3));
+        database.query(new EmployeeQuery().active(true));
+        database.getSortedPage(EmployeeSortKey.NAME, false, 0, 10);
+        database.getSortedPage(EmployeeSortKey.NAME, false, 10, 10); // Reuses the kept order
+        database.getSortedPage(EmployeeSortKey.SALARY, true, 0, 10);
+        database.giveSalaryRaise(4, 10);
+        database.getAverageSalaryByDepartment("it");
+
+        OperationStats adds = metrics.getStats(EmployeeMetrics.Operation.ADD);
+        assertEquals(101, adds.count());
+        assertEquals(0, adds.indexHits() + adds.indexMisses());
+        assertEquals(1, adds.p50ResultSize());
+        assertTrue(adds.p50Nanos() <= adds.p99Nanos() && adds.p99Nanos() <= adds.maxNanos());
+
+        assertHitsAndMisses(metrics, EmployeeMetrics.Operation.SEARCH_BY_NAME, 1, 1);
+        assertHitsAndMisses(metrics, EmployeeMetrics.Operation.FILTER, 0, 1);
+        assertHitsAndMisses(metrics, EmployeeMetrics.Operation.QUERY, 1, 1);
+        assertHitsAndMisses(metrics, EmployeeMetrics.Operation.SORTED_PAGE, 2, 1);
+        assertHitsAndMisses(metrics, EmployeeMetrics.Operation.SALARY_RAISE, 1, 0);
+        assertHitsAndMisses(metrics, EmployeeMetrics.Operation.DEPARTMENT_STATS, 1, 0);
+        assertEquals(51, metrics.getStats(EmployeeMetrics.Operation.DEPARTMENT_STATS).maxResultSize());
+        // "n" is in every name, and sizes are reported as the top of their histogram bucket
+        assertEquals(LogHistogram.highestValueOf(LogHistogram.bucketOf(101)),
+                metrics.getStats(EmployeeMetrics.Operation.SEARCH_BY_NAME).maxResultSize());
+        assertEquals(101 + 2 + 1 + 2 + 3 + 1 + 1, metrics.getTotalCount());
+        assertTrue(metrics.getOperations().stream().noneMatch(stats -> stats.count() == 0));
+
+        database.disableMetrics();
+        assertNull(database.getMetrics());
+        database.searchByName("name 1");
+        assertEquals(2, metrics.getStats(EmployeeMetrics.Operation.SEARCH_BY_NAME).count());
+
+        metrics.reset();
+        assertEquals(0, metrics.getTotalCount());
+        assertTrue(metrics.getOperations().isEmpty());
+    }
+
+    @Test
+    void metricsCanBeReadOverJmx() throws Exception {
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>(true);
+        EmployeeMetrics metrics = database.enableMetrics();
+        ObjectName name = metrics.registerMBean("jmx-test");
+        try {
+            database.addEmployee(new Employee<>(1, "John Doe", "IT", 50000, 4.5, 5, true));
+            database.getEmployee(1);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(2L, server.getAttribute(name, "TotalCount"));
+            CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+            assertEquals(2, operations.length);
+            assertEquals("ADD", operations[0].get("operation"));
+            assertEquals(1L, operations[0].get("count"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "TotalCount"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    void histogramBucketsStayWithinTheirPrecision() {
+        Random random = new Random(23);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = LogHistogram.bucketOf(value);
+            long highest = LogHistogram.highestValueOf(bucket);
+            assertTrue(value <= highest, value + " above bucket " + bucket);
+            assertTrue(bucket == 0 || LogHistogram.highestValueOf(bucket - 1) < value, value + " below bucket " + bucket);
+            assertTrue(highest - value <= value / 16, value + " reported as " + highest);
+        }
+
+        LogHistogram histogram = new LogHistogram();
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        long[] counts = histogram.counts();
+        assertEquals(500, LogHistogram.percentile(counts, 1000, 50), 500 / 16);
+        assertEquals(990, LogHistogram.percentile(counts, 1000, 99), 990 / 16);
+        assertEquals(1000, LogHistogram.max(counts), 1000 / 16);
+        assertEquals(0, LogHistogram.percentile(new long[counts.length], 0, 50));
+    }
+
+    private static void assertHitsAndMisses(EmployeeMetrics metrics, EmployeeMetrics.Operation operation,
+                                            long hits, long misses) {
+        OperationStats stats = metrics.getStats(operation);
+        assertEquals(hits, stats.indexHits(), operation.name());
+        assertEquals(misses, stats.indexMisses(), operation.name());
+    }
+}
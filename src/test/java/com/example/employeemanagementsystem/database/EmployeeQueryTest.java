@@ -0,0 +1,121 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeQueryTest {
+
+    private static final String[] DEPARTMENTS = {"IT", "hr", "Finance", "Sales", "Legal"};
+    private static final String[] NAMES = {"Alice Smith", "Bob Jones", "Carol Smithers", "Dan Brown", "Eve Stone"};
+
+    @Test
+    void queriesMatchChainedPredicates() {
+        for (boolean concurrent : new boolean[]{false, true}) {
+            EmployeeDatabase<Integer> database = newDatabase(concurrent, 2000);
+            Random random = new Random(19);
+            for (int round = 0; round < 300; round++) {
+                EmployeeQuery query = new EmployeeQuery();
+                List<Predicate<Employee<Integer>>> conditions = new ArrayList<>();
+                if (random.nextInt(3) == 0) {
+                    String department = DEPARTMENTS[random.nextInt(DEPARTMENTS.length)];
+                    query.department(department.toUpperCase());
+                    conditions.add(employee -> employee.getDepartment().equalsIgnoreCase(department));
+                }
+                if (random.nextInt(3) == 0) {
+                    String name = NAMES[random.nextInt(NAMES.length)];
+                    int start = random.nextInt(name.length() - 1);
+                    String part = name.substring(start, start + 1 + random.nextInt(Math.min(6, name.length() - start)));
+                    query.nameContains(part);
+                    conditions.add(employee -> employee.getName().toLowerCase().contains(part.toLowerCase()));
+                }
+                if (random.nextInt(3) == 0) {
+                    double min = 30000 + random.nextInt(60) * 1000;
+                    double max = min + random.nextInt(40) * 1000 - 5000;
+                    query.salaryBetween(min, max);
+                    conditions.add(employee -> employee.getSalary() >= min && employee.getSalary() <= max);
+                }
+                if (random.nextInt(3) == 0) {
+                    double minRating = random.nextInt(11) / 2.0;
+                    query.minRating(minRating);
+                    conditions.add(employee -> employee.getPerformanceRating() >= minRating);
+                }
+                if (random.nextInt(4) == 0) {
+                    boolean active = random.nextBoolean();
+                    query.active(active);
+                    conditions.add(employee -> employee.isActive() == active);
+                }
+                Comparator<Employee<Integer>> order = null;
+                if (random.nextBoolean()) {
+                    EmployeeSortKey key = EmployeeSortKey.values()[random.nextInt(EmployeeSortKey.values().length)];
+                    boolean descending = random.nextBoolean();
+                    query.sortBy(key, descending);
+                    order = key.comparator(descending);
+                }
+                int limit = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(30);
+                if (limit != Integer.MAX_VALUE) {
+                    query.limit(limit);
+                }
+
+                List<Employee<Integer>> expected = database.filterEmployees(
+                        conditions.stream().reduce(employee -> true, Predicate::and));
+                List<Employee<Integer>> actual = database.query(query);
+                String message = query + " planned as " + database.explain(query);
+                assertEquals(Math.min(limit, expected.size()), actual.size(), message);
+                assertTrue(new HashSet<>(expected).containsAll(actual), message);
+                assertEquals(actual.size(), new HashSet<>(actual).size(), message);
+                if (order != null) {
+                    expected.sort(order);
+                    for (int i = 0; i < actual.size(); i++) {
+                        // Ties are broken by ID, so the same employees come in the same order
+                        assertEquals(0, order.compare(expected.get(i), actual.get(i)), message + " at " + i);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void plannerReadsTheMostSelectiveIndex() {
+        EmployeeDatabase<Integer> database = newDatabase(false, 5000);
+
+        // One department is a fifth of the employees, while a narrow salary range is far fewer
+        assertTrue(database.explain(new EmployeeQuery().department("IT").salaryBetween(50000, 50000))
+                .startsWith("salary index"));
+        assertTrue(database.explain(new EmployeeQuery().department("IT").salaryBetween(0, 1e9))
+                .startsWith("department index"));
+        assertTrue(database.explain(new EmployeeQuery().department("IT").nameContains("smithers 123"))
+                .startsWith("name index"));
+        assertTrue(database.explain(new EmployeeQuery().active(true)).startsWith("full scan"));
+
+        // The first few of a large candidate set by salary come from walking the salary index
+        String topTen = database.explain(new EmployeeQuery().department("IT")
+                .sortBy(EmployeeSortKey.SALARY, true).limit(10));
+        assertTrue(topTen.startsWith("salary index in order"), topTen);
+        assertTrue(database.explain(new EmployeeQuery().department("IT")
+                .sortBy(EmployeeSortKey.NAME, false).limit(10)).endsWith("in a bounded heap"));
+
+        assertEquals("no match possible", database.explain(new EmployeeQuery().nameContains("zzz")));
+        assertEquals("no match possible", database.explain(new EmployeeQuery().salaryBetween(2, 1)));
+        assertTrue(database.query(new EmployeeQuery().nameContains("zzz")).isEmpty());
+    }
+
+    private static EmployeeDatabase<Integer> newDatabase(boolean concurrent, int size) {
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>(concurrent);
+        Random random = new Random(size);
+        for (int id = 0; id < size; id++) {
+            database.addEmployee(new Employee<>(id, NAMES[random.nextInt(NAMES.length)] + " " + id,
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], 30000 + random.nextInt(100) * 1000,
+                    random.nextInt(11) / 2.0, random.nextInt(30), random.nextInt(4) != 0));
+        }
+        return database;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void restoreSnapshotRoundTrip() throws IOException {
+        EmployeeDatabase<String> employeeDatabase = new EmployeeDatabase<>();
+        // More than 64 rows so the active bitset spans several words
+        for (int i = 0; i < 150; i++) {
+            employeeDatabase.addEmployee(new Employee<>("E" + i, "Zoë Müller " + i, i % 2 == 0 ? "IT" : "HR",
+                    40000 + i, (i % 50) / 10.0, i % 30, i % 3 != 0));
+        }
+        employeeDatabase.addEmployee(new Employee<>("nulls", null, null, 0, 0, 0, false));
+        Path file = tempDir.resolve("employees.snapshot");
+        employeeDatabase.writeSnapshot(file, IdCodec.STRING);
+
+        EmployeeDatabase<String> restored = EmployeeDatabase.restoreSnapshot(file, IdCodec.STRING, false);
+        assertEquals(employeeDatabase.getEmployeeCount(), restored.getEmployeeCount());
+        for (Employee<String> expected : employeeDatabase.getAllEmployees()) {
+            Employee<String> actual = restored.getEmployee(expected.getEmployeeId());
+            assertEquals(expected.toString(), actual.toString());
+        }
+        assertEquals(75, restored.searchByDepartment("it").size());
+        assertEquals(employeeDatabase.getTopPaidEmployees(5), restored.getTopPaidEmployees(5));
+
+        // Departments come back as one shared instance
+        assertSame(restored.getEmployee("E0").getDepartment(), restored.getEmployee("E2").getDepartment());
+    }
+
+    @Test
+    void checkpointEmptiesLog() throws IOException {
+        Path snapshot = tempDir.resolve("employees.snapshot");
+        Path logFile = tempDir.resolve("employees.wal");
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+        employeeDatabase.attachLog(WriteAheadLog.open(logFile, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        employeeDatabase.addEmployee(new Employee<>(1, "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>(2, "Jane Smith", "HR", 60000, 4.0, 7, true));
+        employeeDatabase.checkpoint(snapshot, IdCodec.INTEGER);
+        assertEquals(0, Files.size(logFile));
+
+        employeeDatabase.updateEmployeeDetails(1, "salary", 52000.0);
+        employeeDatabase.removeEmployee(2);
+        employeeDatabase.detachLog();
+
+        EmployeeDatabase<Integer> recovered = EmployeeDatabase.restoreSnapshot(snapshot, IdCodec.INTEGER, true);
+        recovered.attachLog(WriteAheadLog.open(logFile, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        assertEquals(1, recovered.getEmployeeCount());
+        assertEquals(52000.0, recovered.getEmployee(1).getSalary(), 0.0001);
+        recovered.detachLog();
+    }
+
+    @Test
+    void restoreSnapshotRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("not-a-snapshot");
+        Files.writeString(file, "name,department,salary\nJohn Doe,IT,50000\n");
+        assertThrows(IOException.class, () -> EmployeeDatabase.restoreSnapshot(file, IdCodec.INTEGER, false));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeViewTest {
+
+    @Test
+    void viewsKeepTheirPointInTime() {
+        for (boolean concurrent : new boolean[]{false, true}) {
+            EmployeeDatabase<Integer> database = new EmployeeDatabase<>(concurrent);
+            for (int id = 0; id < 500; id++) {
+                database.addEmployee(new Employee<>(id, "Name " + id, "IT", 50000 + id, id % 6, id % 20, true));
+            }
+            Random random = new Random(21);
+            EmployeeView<Integer> first = database.openView();
+            List<String> before = describe(first.getAllEmployees());
+            Employee<Integer> unchanged = first.getEmployee(7);
+
+            change(database, random);
+            EmployeeView<Integer> second = database.openView();
+            List<String> middle = describe(second.getAllEmployees());
+            try (EmployeeView<Integer> shared = database.openView()) {
+                assertEquals(middle, describe(shared.getAllEmployees()));
+            }
+
+            change(database, random);
+            database.applySalaryRaise(3, 10);
+            assertEquals(before, describe(first.getAllEmployees()));
+            assertEquals(500, first.getEmployeeCount());
+            assertEquals(middle, describe(second.getAllEmployees()));
+            assertEquals(describe(List.of(unchanged)), describe(List.of(first.getEmployee(7))));
+            assertNull(first.getEmployee(10_000));
+
+            // The oldest view keeps working through the newer epochs once a newer view is closed
+            second.close();
+            second.close();
+            change(database, random);
+            assertEquals(before, describe(first.getAllEmployees()));
+
+            // Changing the database while iterating a view does not fail
+            Iterator<Employee<Integer>> iterator = first.getEmployeeIterator();
+            int seen = 0;
+            while (iterator.hasNext()) {
+                iterator.next();
+                change(database, random);
+                seen++;
+            }
+            assertEquals(500, seen);
+
+            first.close();
+            try (EmployeeView<Integer> latest = database.openView()) {
+                assertEquals(describe(database.getAllEmployees()), describe(latest.getAllEmployees()));
+            }
+        }
+    }
+
+    @Test
+    void employeesAreChangedInPlaceOnlyWhileNoViewIsOpen() {
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>(false);
+        database.addEmployee(new Employee<>(1, "John Doe", "IT", 50000, 4.5, 5, true));
+        Employee<Integer> stored = database.getEmployee(1);
+
+        try (EmployeeView<Integer> view = database.openView()) {
+            database.updateEmployeeDetails(1, "salary", 60000.0);
+            assertNotSame(stored, database.getEmployee(1));
+            assertSame(stored, view.getEmployee(1));
+            assertEquals(50000, stored.getSalary());
+            assertEquals(List.of(database.getEmployee(1)), database.filterBySalaryRange(60000, 60000));
+        }
+
+        stored = database.getEmployee(1);
+        database.updateEmployeeDetails(1, "salary", 70000.0);
+        assertSame(stored, database.getEmployee(1));
+        assertEquals(70000, stored.getSalary());
+    }
+
+    private static void change(EmployeeDatabase<Integer> database, Random random) {
+        int id = random.nextInt(600);
+        switch (random.nextInt(4)) {
+            case 0 -> database.updateEmployeeDetails(id, "salary", random.nextInt(90000) + 10000.0);
+            case 1 -> database.updateEmployee(id, new EmployeePatch().name("Renamed " + id).department("HR"));
+            case 2 -> database.removeEmployee(id);
+            default -> database.addEmployee(new Employee<>(id, "Name " + id, "Sales", 40000, 3.0, 1, false));
+        }
+    }
+
+    private static List<String> describe(List<Employee<Integer>> employees) {
+        return employees.stream().map(Employee::toString).sorted().toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntEmployeeDatabaseTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void intMapMatchesHashMap() {
+        IntEmployeeMap<String> map = new IntEmployeeMap<>(4);
+        Map<Integer, String> reference = new HashMap<>();
+        Random random = new Random(7);
+        // Few distinct keys, so that removals keep hitting long probe runs and the table resizes repeatedly
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2000) * (random.nextBoolean() ? 1 : -65536);
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(reference.put(key, "v" + i), map.put(key, "v" + i));
+                case 1 -> assertEquals(reference.putIfAbsent(key, "w" + i), map.putIfAbsent(key, "w" + i));
+                case 2 -> assertEquals(reference.remove(key), map.remove(key));
+                default -> assertEquals(reference.get(key), map.get(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        assertEquals(reference, map);
+        assertEquals(reference.values().stream().sorted().toList(), map.values().stream().sorted().toList());
+        // The parallel spliterator visits every value exactly once, in slot order
+        assertEquals(map.values().stream().toList(), map.values().parallelStream().toList());
+    }
+
+    @Test
+    void iteratorsFailFastLikeHashMap() {
+        IntEmployeeMap<String> map = new IntEmployeeMap<>(4);
+        for (int key = 0; key < 10; key++) {
+            map.put(key, "v" + key);
+        }
+        Iterator<String> values = map.values().iterator();
+        values.next();
+        // Replacing a value is not a structural modification
+        map.put(3, "replaced");
+        values.next();
+        map.remove(3);
+        assertThrows(ConcurrentModificationException.class, values::next);
+
+        Iterator<Map.Entry<Integer, String>> entries = map.entrySet().iterator();
+        map.put(100, "added");
+        assertThrows(ConcurrentModificationException.class, entries::next);
+
+        Spliterator<String> spliterator = map.values().spliterator();
+        assertThrows(ConcurrentModificationException.class,
+                () -> spliterator.forEachRemaining(value -> map.remove(0)));
+        Spliterator<String> cleared = map.values().spliterator();
+        map.clear();
+        assertThrows(ConcurrentModificationException.class, () -> cleared.tryAdvance(value -> { }));
+    }
+
+    @Test
+    void behavesLikeEmployeeDatabase() throws IOException {
+        IntEmployeeDatabase employeeDatabase = new IntEmployeeDatabase();
+        EmployeeDatabase<Integer> reference = new EmployeeDatabase<>();
+        for (int id = 0; id < 500; id++) {
+            Employee<Integer> employee = new Employee<>(id * 31, "Employee " + id, id % 3 == 0 ? "IT" : "HR",
+                    30000 + id * 100, (id % 50) / 10.0, id % 30, id % 4 != 0);
+            assertTrue(employeeDatabase.addEmployee(employee));
+            reference.addEmployee(new Employee<>(employee));
+        }
+        assertFalse(employeeDatabase.addEmployee(new Employee<>(0, "Duplicate", "IT", 1, 1, 1, true)));
+        for (int id = 0; id < 500; id += 3) {
+            assertEquals(reference.removeEmployee(id * 31), employeeDatabase.removeEmployee(id * 31));
+        }
+        assertTrue(employeeDatabase.updateEmployeeDetails(31, "salary", 99000.0));
+        reference.updateEmployeeDetails(31, "salary", 99000.0);
+        assertTrue(employeeDatabase.updateEmployee(62, new EmployeePatch().department("Finance").active(true)));
+        reference.updateEmployee(62, new EmployeePatch().department("Finance").active(true));
+        // IDs that are not in the database fail as through the Integer overloads
+        assertFalse(employeeDatabase.removeEmployee(0));
+        assertFalse(employeeDatabase.removeEmployee(-1));
+        assertFalse(employeeDatabase.updateEmployee(0, new EmployeePatch().salary(1.0)));
+        assertFalse(employeeDatabase.updateEmployee(-1, new EmployeePatch().name("Nobody")));
+        assertEquals(reference.giveSalaryRaise(4.0, 10), employeeDatabase.giveSalaryRaise(4.0, 10));
+
+        assertEquals(reference.getEmployeeCount(), employeeDatabase.getEmployeeCount());
+        assertEquals(describe(reference.getAllEmployees()), describe(employeeDatabase.getAllEmployees()));
+        assertEquals(describe(reference.searchByDepartment("hr")), describe(employeeDatabase.searchByDepartment("hr")));
+        assertEquals(99000.0, employeeDatabase.getEmployee(31).getSalary(), 0.0001);
+        assertSame(employeeDatabase.getEmployee(62), employeeDatabase.getEmployee(Integer.valueOf(62)));
+        assertNull(employeeDatabase.getEmployee(0));
+        assertNull(employeeDatabase.getEmployee(null));
+
+        Path file = tempDir.resolve("employees.snapshot");
+        employeeDatabase.writeSnapshot(file, IdCodec.INTEGER);
+        IntEmployeeDatabase restored = IntEmployeeDatabase.restoreSnapshot(file);
+        assertEquals(describe(employeeDatabase.getAllEmployees()), describe(restored.getAllEmployees()));
+    }
+
+    private static List<String> describe(List<Employee<Integer>> employees) {
+        return employees.stream()
+                .sorted(Comparator.comparing(Employee::getEmployeeId))
+                .map(Employee::toString)
+                .toList();
+    }
+}
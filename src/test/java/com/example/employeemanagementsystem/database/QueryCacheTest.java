@@ -0,0 +1,160 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCacheTest {
+
+    @Test
+    void writesOnlyInvalidateTheResultsThatDependOnThem() {
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>();
+        database.addEmployee(new Employee<>(1, "John Doe", "IT", 75000, 4.5, 7, true));
+        database.addEmployee(new Employee<>(2, "Jane Smith", "HR", 65000, 4.8, 5, true));
+        database.addEmployee(new Employee<>(3, "Alice Brown", "IT", 70000, 4.7, 6, true));
+        QueryCache cache = database.enableQueryCache(16, null);
+
+        database.searchByDepartment("IT");
+        database.filterByMinimumRating(4.5);
+        database.getTopPaidEmployees(2);
+        assertEquals(3, cache.getMisses());
+        assertEquals(2, database.searchByDepartment("it").size());
+        database.filterByMinimumRating(4.5);
+        database.getTopPaidEmployees(2);
+        assertEquals(3, cache.getHits());
+
+        // Not in IT, and not a rating or salary
+        database.updateEmployeeDetails(2, "name", "Jane Doe");
+        database.searchByDepartment("IT");
+        database.filterByMinimumRating(4.5);
+        database.getTopPaidEmployees(2);
+        assertEquals(6, cache.getHits());
+        assertEquals(0, cache.getInvalidations());
+
+        database.updateEmployeeDetails(2, "salary", 90000.0);
+        assertEquals(2, database.getTopPaidEmployees(2).getFirst().getEmployeeId());
+        database.searchByDepartment("IT");
+        database.filterByMinimumRating(4.5);
+        assertEquals(8, cache.getHits());
+        assertEquals(1, cache.getInvalidations());
+
+        // Moving an employee in place changes both departments
+        database.updateEmployeeDetails(2, "department", "IT");
+        assertEquals(3, database.searchByDepartment("IT").size());
+        database.addEmployee(new Employee<>(4, "Eva Wilson", "HR", 62000, 4.1, 3, true));
+        assertEquals(1, database.searchByDepartment("HR").size());
+        assertEquals(3, database.filterByMinimumRating(4.5).size());
+        assertEquals(3, cache.getInvalidations());
+        assertEquals(0.5, cache.getHitRatio(), 0.1);
+
+        database.giveSalaryRaise(4.7, 10);
+        assertEquals(99000, database.getTopPaidEmployees(2).getFirst().getSalary(), 1e-6);
+        assertEquals(3, database.query(new EmployeeQuery().department("it").sortBy(EmployeeSortKey.NAME, false))
+                .size());
+    }
+
+    @Test
+    void leastRecentlyUsedResultsAreEvictedAndOldOnesExpire() {
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>();
+        database.addEmployee(new Employee<>(1, "John Doe", "IT", 75000, 4.5, 7, true));
+        QueryCache cache = database.enableQueryCache(2, null);
+        database.searchByDepartment("IT");
+        database.searchByDepartment("HR");
+        database.searchByDepartment("IT");
+        database.searchByDepartment("Finance"); // Evicts HR, used less recently than IT
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        database.searchByDepartment("IT");
+        assertEquals(2, cache.getHits());
+
+        QueryCache replaced = cache;
+        cache = database.enableQueryCache(2, Duration.ofNanos(1));
+        assertNotSame(replaced, cache);
+        assertSame(cache, database.getQueryCache());
+        database.searchByName("john");
+        database.searchByName("john");
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getExpirations());
+
+        database.disableQueryCache();
+        assertNull(database.getQueryCache());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void hitsReturnTheCurrentVersionOfReplacedEmployees() {
+        EmployeeDatabase<Integer> database = new EmployeeDatabase<>(true);
+        database.addEmployee(new Employee<>(1, "John Doe", "IT", 75000, 4.5, 7, true));
+        database.addEmployee(new Employee<>(2, "Jane Smith", "HR", 65000, 4.8, 5, true));
+        QueryCache cache = database.enableQueryCache(16, null);
+        database.filterByMinimumRating(4);
+        database.updateEmployeeDetails(2, "name", "Jane Doe");
+
+        List<Employee<Integer>> found = database.filterByMinimumRating(4);
+        assertEquals(1, cache.getHits());
+        assertTrue(found.contains(database.getEmployee(2)));
+        assertTrue(found.stream().anyMatch(employee -> employee.getName().equals("Jane Doe")));
+    }
+
+    @Test
+    void cachedResultsAlwaysMatchAFreshSearch() {
+        Random random = new Random(42);
+        String[] departments = {"IT", "HR", "Finance", "Marketing"};
+        for (boolean concurrent : new boolean[]{false, true}) {
+            EmployeeDatabase<Integer> database = new EmployeeDatabase<>(concurrent);
+            for (int id = 0; id < 200; id++) {
+                database.addEmployee(new Employee<>(id, "Name " + id, departments[id % 4],
+                        40000 + random.nextInt(50) * 1000, random.nextInt(11) / 2.0, id % 20, true));
+            }
+            QueryCache cache = database.enableQueryCache(8, null);
+            for (int round = 0; round < 2000; round++) {
+                int id = random.nextInt(220);
+                switch (random.nextInt(12)) {
+                    case 0 -> database.removeEmployee(id);
+                    case 1 -> database.addEmployee(new Employee<>(id, "Name " + id, departments[random.nextInt(4)],
+                            40000, 3, 1, true));
+                    case 2 -> database.updateEmployeeDetails(id, "department", departments[random.nextInt(4)]);
+                    case 3 -> database.updateEmployeeDetails(id, "performanceRating", random.nextInt(11) / 2.0);
+                    case 4 -> database.updateEmployeeDetails(id, "name", "Renamed " + id);
+                    case 5 -> database.giveSalaryRaise(4.5, 1);
+                    case 6 -> {
+                        String department = departments[random.nextInt(4)];
+                        assertSameEmployees(database, database.searchByDepartment(department),
+                                employee -> employee.getDepartment().equals(department));
+                    }
+                    case 7 -> assertSameEmployees(database, database.filterByMinimumRating(4),
+                            employee -> employee.getPerformanceRating() >= 4);
+                    case 8 -> assertSameEmployees(database, database.searchByName("name 1"),
+                            employee -> employee.getName().toLowerCase().contains("name 1"));
+                    case 9 -> assertSameEmployees(database, database.filterBySalaryRange(50000, 60000),
+                            employee -> employee.getSalary() >= 50000 && employee.getSalary() <= 60000);
+                    case 10 -> assertSameEmployees(database,
+                            database.query(new EmployeeQuery().department("HR").minRating(3)),
+                            employee -> employee.getDepartment().equals("HR") && employee.getPerformanceRating() >= 3);
+                    default -> assertEquals(database.sortBySalary().subList(0, 5).stream()
+                                    .map(Employee::getSalary).toList(),
+                            database.getTopPaidEmployees(5).stream().map(Employee::getSalary).toList());
+                }
+            }
+            assertTrue(cache.getHits() > 0 && cache.getInvalidations() > 0, cache.toString());
+        }
+    }
+
+    private static void assertSameEmployees(EmployeeDatabase<Integer> database, List<Employee<Integer>> found,
+                                            Predicate<Employee<Integer>> condition) {
+        Set<Integer> expected = database.getAllEmployees().stream().filter(condition)
+                .map(Employee::getEmployeeId).collect(Collectors.toSet());
+        assertEquals(expected, found.stream().map(Employee::getEmployeeId).collect(Collectors.toSet()));
+        for (Employee<Integer> employee : found) {
+            assertSame(database.getEmployee(employee.getEmployeeId()), employee);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void raiseCanBeRevertedAndReplayed() throws IOException {
+        EmployeeDatabase<String> employeeDatabase = newDatabase(false);
+        EmployeeDatabase<String> copy = newDatabase(false);
+
+        SalaryJournal<String> journal = employeeDatabase.applySalaryRaise(4.0, 10);
+        assertEquals(employeeDatabase.filterByMinimumRating(4.0).size(), journal.size());
+        for (int entry = 0; entry < journal.size(); entry++) {
+            Employee<String> employee = employeeDatabase.getEmployee(journal.getEmployeeId(entry));
+            assertEquals(journal.getSalaryAfter(entry), employee.getSalary());
+            assertEquals(journal.getSalaryBefore(entry) * 1.1, journal.getSalaryAfter(entry), 1e-6);
+        }
+        assertIndexesMatch(employeeDatabase);
+
+        // The journal survives a round trip through a file, and brings an untouched copy to the same salaries
+        Path file = tempDir.resolve("raise.journal");
+        journal.write(file, IdCodec.STRING);
+        SalaryJournal<String> restored = SalaryJournal.read(file, IdCodec.STRING);
+        assertEquals(journal.size(), copy.replaySalaryJournal(restored).size());
+        assertEquals(describe(employeeDatabase), describe(copy));
+        assertEquals(0, copy.replaySalaryJournal(restored).size()); // Already applied
+
+        // Reverting skips employees whose salary changed again since the raise
+        String changedAgain = journal.getEmployeeId(0);
+        employeeDatabase.updateEmployeeDetails(changedAgain, "salary", 1.0);
+        assertEquals(journal.size() - 1, employeeDatabase.revertSalaryJournal(journal).size());
+        assertEquals(1.0, employeeDatabase.getEmployee(changedAgain).getSalary());
+        employeeDatabase.updateEmployeeDetails(changedAgain, "salary", journal.getSalaryBefore(0));
+        assertEquals(describe(newDatabase(false)), describe(employeeDatabase));
+        assertIndexesMatch(employeeDatabase);
+    }
+
+    @Test
+    void failedRaiseLeavesSalariesUnchanged() throws IOException {
+        for (boolean concurrent : new boolean[]{false, true}) {
+            EmployeeDatabase<String> employeeDatabase = newDatabase(concurrent);
+            List<String> before = describe(employeeDatabase);
+            // The log cannot encode one of the IDs, so the batch fails partway through
+            employeeDatabase.attachLog(WriteAheadLog.open(tempDir.resolve(concurrent + ".wal"),
+                    failingCodec("E7"), FsyncPolicy.NEVER, 64));
+
+            assertThrows(IllegalStateException.class, () -> employeeDatabase.applySalaryRaise(0, 10));
+
+            assertEquals(before, describe(employeeDatabase));
+            assertIndexesMatch(employeeDatabase);
+            employeeDatabase.detachLog();
+        }
+    }
+
+    private static EmployeeDatabase<String> newDatabase(boolean concurrent) {
+        EmployeeDatabase<String> employeeDatabase = new EmployeeDatabase<>(concurrent);
+        String[] departments = {"IT", "HR", "Finance"};
+        for (int i = 0; i < 60; i++) {
+            employeeDatabase.addEmployee(new Employee<>("E" + i, "Employee " + i, departments[i % 3],
+                    40000 + (i % 7) * 1000, (i % 11) / 2.0, i % 15, i % 4 != 0));
+        }
+        return employeeDatabase;
+    }
+
+    private static IdCodec<String> failingCodec(String failingId) {
+        return new IdCodec<>() {
+            @Override
+            public int size(String id) {
+                if (id.equals(failingId)) {
+                    throw new IllegalStateException("Cannot encode " + id);
+                }
+                return IdCodec.STRING.size(id);
+            }
+
+            @Override
+            public void write(String id, ByteBuffer buffer) {
+                IdCodec.STRING.write(id, buffer);
+            }
+
+            @Override
+            public String read(ByteBuffer buffer) {
+                return IdCodec.STRING.read(buffer);
+            }
+        };
+    }
+
+    private static List<String> describe(EmployeeDatabase<String> employeeDatabase) {
+        List<String> employees = new ArrayList<>();
+        for (Employee<String> employee : employeeDatabase.getAllEmployees()) {
+            employees.add(employee.toString());
+        }
+        employees.sort(null);
+        return employees;
+    }
+
+    private static void assertIndexesMatch(EmployeeDatabase<String> employeeDatabase) {
+        List<Employee<String>> bySalary = employeeDatabase.sortBySalary();
+        assertEquals(employeeDatabase.getEmployeeCount(), bySalary.size());
+        for (int i = 1; i < bySalary.size(); i++) {
+            assertTrue(bySalary.get(i - 1).getSalary() >= bySalary.get(i).getSalary());
+        }
+        for (String department : new String[]{"IT", "HR", "Finance"}) {
+            double total = 0;
+            for (Employee<String> employee : employeeDatabase.searchByDepartment(department)) {
+                total += employee.getSalary();
+            }
+            assertEquals(total, employeeDatabase.getDepartmentStats(department).salarySum(), 1e-6);
+        }
+        assertEquals(employeeDatabase.filterEmployees(employee -> employee.getPerformanceRating() >= 3).size(),
+                employeeDatabase.filterByMinimumRating(3).size());
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.employeemanagementsystem.database;
+
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void replayRebuildsDatabase() throws IOException {
+        Path file = tempDir.resolve("employees.wal");
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+        employeeDatabase.attachLog(WriteAheadLog.open(file, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        employeeDatabase.addEmployee(new Employee<>(1, "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>(2, "Jane Smith", "HR", 60000, 3.0, 7, true));
+        employeeDatabase.addEmployee(new Employee<>(3, "Bob Johnson", "Finance", 70000, 4.2, 10, true));
+        employeeDatabase.updateEmployeeDetails(1, "department", "Finance");
+        employeeDatabase.updateEmployeeDetails(2, "isActive", false);
+        employeeDatabase.updateEmployeeDetails(2, "yearsOfExperience", 8);
+        employeeDatabase.giveSalaryRaise(4.0, 10);
+        employeeDatabase.removeEmployee(3);
+        employeeDatabase.detachLog();
+
+        EmployeeDatabase<Integer> recovered = new EmployeeDatabase<>();
+        recovered.attachLog(WriteAheadLog.open(file, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        assertEquals(2, recovered.getEmployeeCount());
+        assertNull(recovered.getEmployee(3));
+        Employee<Integer> john = recovered.getEmployee(1);
+        assertEquals("Finance", john.getDepartment());
+        assertEquals(55000.0, john.getSalary(), 0.0001);
+        Employee<Integer> jane = recovered.getEmployee(2);
+        assertFalse(jane.isActive());
+        assertEquals(8, jane.getYearsOfExperience());
+        assertEquals(60000.0, jane.getSalary(), 0.0001);
+        assertEquals(1, recovered.searchByDepartment("finance").size());
+
+        // Mutations after recovery are appended after the replayed records
+        recovered.addEmployee(new Employee<>(4, "Eva Wilson", "HR", 62000, 4.1, 3, true));
+        recovered.detachLog();
+        EmployeeDatabase<Integer> reopened = new EmployeeDatabase<>();
+        reopened.attachLog(WriteAheadLog.open(file, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        assertEquals(3, reopened.getEmployeeCount());
+        reopened.detachLog();
+    }
+
+    @Test
+    void replayAppliesPatchesAsOneRecord() throws IOException {
+        Path file = tempDir.resolve("employees.wal");
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+        employeeDatabase.attachLog(WriteAheadLog.open(file, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        employeeDatabase.addEmployee(new Employee<>(1, "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.updateEmployee(1, new EmployeePatch().name(null).department("HR").yearsOfExperience(6));
+        long beforeSecondPatch = Files.size(file);
+        employeeDatabase.updateEmployee(1, EmployeePatch.of(new Employee<>(1, "Johnny Doe", "Finance", 55000, 4.8, 9, false)));
+        employeeDatabase.detachLog();
+
+        EmployeeDatabase<Integer> recovered = new EmployeeDatabase<>();
+        recovered.attachLog(WriteAheadLog.open(file, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        assertEquals(employeeDatabase.getEmployee(1).toString(), recovered.getEmployee(1).toString());
+        recovered.detachLog();
+
+        // A torn patch record is dropped as a whole, leaving the employee as it was before the patch
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        EmployeeDatabase<Integer> torn = new EmployeeDatabase<>();
+        torn.attachLog(WriteAheadLog.open(file, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        assertEquals(beforeSecondPatch, Files.size(file));
+        Employee<Integer> john = torn.getEmployee(1);
+        assertNull(john.getName());
+        assertEquals("HR", john.getDepartment());
+        assertEquals(50000.0, john.getSalary(), 0.0001);
+        assertEquals(6, john.getYearsOfExperience());
+        torn.detachLog();
+    }
+
+    @Test
+    void replayDropsTornTail() throws IOException {
+        Path file = tempDir.resolve("employees.wal");
+        EmployeeDatabase<String> employeeDatabase = new EmployeeDatabase<>();
+        employeeDatabase.attachLog(WriteAheadLog.open(file, IdCodec.STRING, FsyncPolicy.EVERY_OPERATION, 16));
+        employeeDatabase.addEmployee(new Employee<>("1", "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>("2", "Jane Smith", "HR", 60000, 4.0, 7, true));
+        employeeDatabase.detachLog();
+
+        // Simulate a crash in the middle of writing the second record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        EmployeeDatabase<String> recovered = new EmployeeDatabase<>();
+        WriteAheadLog<String> log = WriteAheadLog.open(file, IdCodec.STRING, FsyncPolicy.EVERY_OPERATION, 16);
+        recovered.attachLog(log);
+        assertEquals(1, recovered.getEmployeeCount());
+        assertNotNull(recovered.getEmployee("1"));
+
+        recovered.addEmployee(new Employee<>("3", "Bob Johnson", "Finance", 70000, 4.2, 10, true));
+        recovered.detachLog();
+        EmployeeDatabase<String> reopened = new EmployeeDatabase<>();
+        reopened.attachLog(WriteAheadLog.open(file, IdCodec.STRING, FsyncPolicy.EVERY_OPERATION, 16));
+        assertEquals(2, reopened.getEmployeeCount());
+        assertNotNull(reopened.getEmployee("3"));
+        reopened.detachLog();
+    }
+
+    @Test
+    void batchPolicyWritesOnlyFullBatches() throws IOException {
+        Path file = tempDir.resolve("employees.wal");
+        WriteAheadLog<Integer> log = WriteAheadLog.open(file, IdCodec.INTEGER, FsyncPolicy.EVERY_BATCH, 3);
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+        employeeDatabase.attachLog(log);
+        employeeDatabase.addEmployee(new Employee<>(1, "John Doe", "IT", 50000, 4.5, 5, true));
+        employeeDatabase.addEmployee(new Employee<>(2, "Jane Smith", "HR", 60000, 4.0, 7, true));
+        assertEquals(0, file.toFile().length());
+
+        employeeDatabase.addEmployee(new Employee<>(3, "Bob Johnson", "Finance", 70000, 4.2, 10, true));
+        assertTrue(file.toFile().length() > 0);
+        employeeDatabase.detachLog();
+    }
+
+    @Test
+    void failedWritesAreRetriedAndFailedForcesStopTheLog() throws IOException {
+        Path file = tempDir.resolve("employees.wal");
+        FailingChannel channel = new FailingChannel(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+        employeeDatabase.attachLog(new WriteAheadLog<>(channel, IdCodec.INTEGER, FsyncPolicy.EVERY_OPERATION, 16));
+        employeeDatabase.addEmployee(new Employee<>(1, "John Doe", "IT", 50000, 4.5, 5, true));
+
+        // The write stops halfway; the rest of the batch is written before the next record
+        channel.failWrites = true;
+        assertThrows(UncheckedIOException.class,
+                () -> employeeDatabase.addEmployee(new Employee<>(2, "Jane Smith", "HR", 60000, 4.0, 7, true)));
+        channel.failWrites = false;
+        employeeDatabase.addEmployee(new Employee<>(3, "Bob Johnson", "Finance", 70000, 4.2, 10, true));
+        try (WriteAheadLog<Integer> reopened = WriteAheadLog.open(file, IdCodec.INTEGER, FsyncPolicy.NEVER, 16)) {
+            EmployeeDatabase<Integer> recovered = new EmployeeDatabase<>();
+            assertEquals(3, reopened.replay(new WriteAheadLog.Handler<>() {
+                @Override
+                public void add(Employee<Integer> employee) {
+                    recovered.addEmployee(employee);
+                }
+
+                @Override
+                public void remove(Integer employeeId) {
+                }
+
+                @Override
+                public void update(Integer employeeId, String field, Object value) {
+                }
+
+                @Override
+                public void patch(Integer employeeId, EmployeePatch patch) {
+                }
+            }));
+            assertEquals("Jane Smith", recovered.getEmployee(2).getName());
+        }
+
+        // After a failed force every commit fails, until a checkpoint resets the log
+        channel.failForce = true;
+        assertThrows(UncheckedIOException.class, () -> employeeDatabase.updateEmployeeDetails(1, "salary", 1.0));
+        channel.failForce = false;
+        assertThrows(UncheckedIOException.class, () -> employeeDatabase.updateEmployeeDetails(1, "salary", 2.0));
+        employeeDatabase.checkpoint(tempDir.resolve("employees.snapshot"), IdCodec.INTEGER);
+        employeeDatabase.updateEmployeeDetails(1, "salary", 3.0);
+        employeeDatabase.detachLog();
+    }
+
+    @Test
+    void failedBulkAddIndexesTheEmployeesItKept() throws IOException {
+        FailingChannel channel = new FailingChannel(FileChannel.open(tempDir.resolve("employees.wal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        EmployeeDatabase<Integer> employeeDatabase = new EmployeeDatabase<>();
+        employeeDatabase.attachLog(new WriteAheadLog<>(channel, IdCodec.INTEGER, FsyncPolicy.NEVER, 16));
+        List<Employee<Integer>> added = new ArrayList<>();
+        for (int id = 0; id < 20000; id++) {
+            added.add(new Employee<>(id, "Employee " + id, id % 2 == 0 ? "IT" : "HR", 40000 + id % 100, 4.0, 3, true));
+        }
+
+        // The first interval commit fails partway through the batch
+        channel.failWrites = true;
+        assertThrows(UncheckedIOException.class, () -> employeeDatabase.addAll(added));
+        int kept = employeeDatabase.getEmployeeCount();
+        assertTrue(kept > 0 && kept < added.size(), "kept " + kept);
+        assertEquals(kept, employeeDatabase.sortBySalary().size());
+        int departments = 0;
+        for (String department : new String[]{"IT", "HR"}) {
+            List<Employee<Integer>> members = employeeDatabase.searchByDepartment(department);
+            assertEquals(members.size(), employeeDatabase.getDepartmentStats(department).employeeCount());
+            departments += members.size();
+        }
+        assertEquals(kept, departments);
+        assertEquals(kept, employeeDatabase.filterByMinimumRating(4.0).size());
+        assertEquals(1, employeeDatabase.searchByName("Employee " + (kept - 1)).size());
+        channel.failWrites = false;
+        employeeDatabase.detachLog();
+    }
+
+    /**
+     * A file channel whose writes and forces can be made to fail, like a full or failing disk.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel file;
+        volatile boolean failWrites;
+        volatile boolean failForce;
+
+        FailingChannel(FileChannel file) {
+            this.file = file;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWrites) {
+                // Half of the bytes reach the file before the failure
+                ByteBuffer half = src.slice(src.position(), src.remaining() / 2);
+                int count = file.write(half);
+                src.position(src.position() + count);
+                throw new IOException("No space left on device");
+            }
+            return file.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("Input/output error");
+            }
+            file.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return file.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return file.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            return file.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            file.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return file.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            file.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return file.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.employeemanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeTest {
+
+    @Test
+    void equalDepartmentsShareOneString() {
+        Employee<String> john = new Employee<>("1", "John Doe", new String("Finance"), 50000, 4.5, 5, true);
+        Employee<String> jane = new Employee<>("2", "Jane Smith", new String("Finance"), 60000, 4.0, 7, true);
+        assertSame(john.getDepartment(), jane.getDepartment());
+
+        jane.setDepartment(new String("IT"));
+        assertSame(new Employee<>("3", "Bob Johnson", new String("IT"), 70000, 4.2, 10, true).getDepartment(),
+                jane.getDepartment());
+        assertSame(jane.getDepartment(), new Employee<>(jane).getDepartment());
+        assertNull(new Employee<>("4", "Eva Wilson", null, 65000, 4.1, 3, true).getDepartment());
+    }
+
+    @Test
+    void hashCodeDependsOnlyOnTheId() {
+        Employee<Integer> employee = new Employee<>(42, "John Doe", "IT", 50000, 4.5, 5, true);
+        assertEquals(Objects.hash(42), employee.hashCode());
+        assertEquals(Objects.hash((Object) null), new Employee<>(null, "John Doe", "IT", 50000, 4.5, 5, true).hashCode());
+        assertEquals(employee.hashCode(), new Employee<>(42, "Jane Smith", "HR", 60000, 4.0, 7, false).hashCode());
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.employeemanagementsystem.server;
+
+import com.example.employeemanagementsystem.database.EmployeeDatabase;
+import com.example.employeemanagementsystem.database.EmployeeListener;
+import com.example.employeemanagementsystem.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeServerTest {
+    private EmployeeDatabase<Integer> database;
+    private EmployeeServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        database = new EmployeeDatabase<>(true);
+        database.addEmployee(new Employee<>(1, "John Doe", "IT", 75000, 4.5, 7, true));
+        database.addEmployee(new Employee<>(2, "Jane Smith", "HR", 65000, 4.8, 5, true));
+        database.addEmployee(new Employee<>(3, "Alice Brown", "IT", 70000, 4.7, 6, false));
+        server = new EmployeeServer(database, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void employeesCanBeCreatedReadUpdatedAndDeleted() throws IOException {
+        Response created = request("POST", "/employees", """
+                {"id": 4, "name": "Eva \\"Evie\\" Wilson", "department": "HR", "salary": 62000,
+                 "performanceRating": 4.1, "yearsOfExperience": 3}""");
+        assertEquals(201, created.status);
+        assertEquals("{\"id\":4,\"name\":\"Eva \\\"Evie\\\" Wilson\",\"department\":\"HR\",\"salary\":62000.0,"
+                + "\"performanceRating\":4.1,\"yearsOfExperience\":3,\"active\":true}\n", created.body);
+        assertEquals("Eva \"Evie\" Wilson", database.getEmployee(4).getName());
+        assertEquals(409, request("POST", "/employees", created.body).status);
+
+        assertEquals(created.body, request("GET", "/employees/4", null).body);
+        Response updated = request("PUT", "/employees/4", "{\"salary\": 64000.5, \"active\": false}");
+        assertEquals(200, updated.status);
+        assertTrue(updated.body.contains("\"salary\":64000.5") && updated.body.contains("\"active\":false"));
+        assertEquals(400, request("PUT", "/employees/4", "{\"id\": 5}").status);
+        assertEquals(404, request("PUT", "/employees/9", "{\"salary\": 1}").status);
+
+        assertEquals(204, request("DELETE", "/employees/4", null).status);
+        assertEquals(404, request("DELETE", "/employees/4", null).status);
+        assertEquals(404, request("GET", "/employees/4", null).status);
+        assertNull(database.getEmployee(4));
+    }
+
+    @Test
+    void searchesFiltersSortsAndAggregatesAreServed() throws IOException {
+        Response all = request("GET", "/employees", null);
+        assertEquals("application/x-ndjson", all.contentType);
+        assertEquals(3, all.body.lines().count());
+
+        Response sorted = request("GET", "/employees?department=it&sort=salary&order=desc", null);
+        assertTrue(sorted.body.startsWith("{\"id\":1,") && sorted.body.lines().count() == 2, sorted.body);
+        assertEquals(1, request("GET", "/employees?name=smith", null).body.lines().count());
+        assertEquals(2, request("GET", "/employees?minRating=4.6&sort=performanceRating&limit=5", null)
+                .body.lines().count());
+        assertTrue(request("GET", "/employees?minSalary=66000&maxSalary=72000&active=false", null)
+                .body.startsWith("{\"id\":3,"));
+        assertEquals("", request("GET", "/employees?department=Legal", null).body);
+
+        Response stats = request("GET", "/departments/IT/stats", null);
+        assertTrue(stats.body.contains("\"employeeCount\":2") && stats.body.contains("\"averageSalary\":72500.0"),
+                stats.body);
+        assertEquals("{\"raised\":2}\n", request("POST", "/raises?minRating=4.7&percent=10", null).body);
+        assertEquals(71500, database.getEmployee(2).getSalary(), 1e-6);
+        assertEquals(404, request("GET", "/metrics", null).status);
+        database.enableMetrics();
+        request("GET", "/employees/1", null);
+        assertTrue(request("GET", "/metrics", null).body.startsWith("{\"operations\":[{\"operation\":\"GET\""));
+    }
+
+    @Test
+    void invalidRequestsAreRejected() throws IOException {
+        assertEquals(400, request("GET", "/employees?sort=height", null).status);
+        assertEquals(400, request("GET", "/employees?limit=-1", null).status);
+        assertEquals(400, request("GET", "/employees?order=desc", null).status);
+        assertEquals(400, request("GET", "/employees?active=yes", null).status);
+        assertEquals(400, request("GET", "/employees/abc", null).status);
+        Response badJson = request("POST", "/employees", "{\"id\": 5, \"name\": [1]}");
+        assertEquals(400, badJson.status);
+        assertTrue(badJson.body.startsWith("{\"error\":\"Only strings"), badJson.body);
+        assertEquals(400, request("POST", "/employees", "{\"id\": 5}").status);
+        assertEquals(400, request("POST", "/employees", "{\"id\": 5.5, \"name\": \"X\"}").status);
+        assertEquals(405, request("DELETE", "/employees", null).status);
+        assertEquals(404, request("GET", "/employeesx", null).status);
+        assertEquals(404, request("GET", "/departments/IT", null).status);
+        assertEquals(400, request("POST", "/raises?minRating=4", null).status);
+    }
+
+    @Test
+    void failuresAreAnsweredWithServerErrors() throws IOException {
+        database.addListener(new EmployeeListener<>() {
+            @Override
+            public void employeeAdded(Employee<Integer> employee) {
+                throw new UncheckedIOException(new IOException("Disk full"));
+            }
+
+            @Override
+            public void employeeRemoved(Employee<Integer> employee) {
+            }
+
+            @Override
+            public void employeeUpdated(Employee<Integer> employee, String field) {
+            }
+        });
+        Response failed = request("POST", "/employees", """
+                {"id": 4, "name": "Eva Wilson", "department": "HR", "salary": 62000,
+                 "performanceRating": 4.1, "yearsOfExperience": 3}""");
+        assertEquals(500, failed.status);
+        assertTrue(failed.body.startsWith("{\"error\":\"Internal error: java.io.UncheckedIOException"), failed.body);
+        assertEquals(200, request("GET", "/employees/1", null).status); // The server still answers
+    }
+
+    @Test
+    void pipelinedRequestsAreAnsweredInOrder() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            StringBuilder requests = new StringBuilder();
+            for (int id = 1; id <= 3; id++) {
+                requests.append("GET /employees/").append(id).append(" HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            }
+            requests.append("GET /employees?department=HR HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            OutputStream out = socket.getOutputStream();
+            out.write(requests.toString().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            socket.setSoTimeout(10_000);
+            InputStream in = socket.getInputStream();
+            for (int id = 1; id <= 3; id++) {
+                assertTrue(readResponse(in).startsWith("{\"id\":" + id + ","));
+            }
+            assertTrue(readResponse(in).startsWith("{\"id\":2,"));
+        }
+    }
+
+    private record Response(int status, String contentType, String body) {
+    }
+
+    private Response request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create("http://localhost:" + server.getPort() + path)
+                .toURL().openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        String text = in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        return new Response(status, connection.getContentType(), text);
+    }
+
+    /**
+     * Reads one HTTP/1.1 response with a fixed length or chunked body, and returns the body.
+     */
+    private static String readResponse(InputStream in) throws IOException {
+        assertTrue(readLine(in).startsWith("HTTP/1.1 200"));
+        int length = -1;
+        boolean chunked = false;
+        for (String header = readLine(in); !header.isEmpty(); header = readLine(in)) {
+            String lower = header.toLowerCase();
+            if (lower.startsWith("content-length:")) {
+                length = Integer.parseInt(lower.substring(15).trim());
+            } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                chunked = true;
+            }
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (!chunked) {
+            body.write(in.readNBytes(length));
+        } else {
+            for (int size = Integer.parseInt(readLine(in), 16); size > 0; size = Integer.parseInt(readLine(in), 16)) {
+                body.write(in.readNBytes(size));
+                readLine(in);
+            }
+            readLine(in);
+        }
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int c = in.read(); c != '\n'; c = in.read()) {
+            if (c < 0) {
+                throw new IOException("Connection closed");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+}